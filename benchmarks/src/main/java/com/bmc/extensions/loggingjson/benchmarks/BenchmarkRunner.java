@@ -0,0 +1,43 @@
+package com.bmc.extensions.loggingjson.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the shaded {@code benchmarks.jar}.
+ * <p>
+ * It behaves exactly as JMH's own {@code Main}, accepting every JMH command line option (benchmark regex, {@code -p} params, {@code -f} forks,
+ * etc.), but always attaches the {@link GCProfiler} so every run reports bytes allocated per operation ({@code gc.alloc.rate.norm}) next to the
+ * ops/s.<br>
+ * Allocation is as relevant as throughput for a log formatter: every byte allocated per record is young-gen churn on the client application.
+ * <p>
+ * usage:<br>
+ * <pre>
+ * {@code
+ * java -jar benchmarks/target/benchmarks.jar                                  # everything
+ * java -jar benchmarks/target/benchmarks.jar JsonFormatterBenchmark -p recordShape=STRUCTURED
+ * }
+ * </pre>
+ *
+ * @author BareMetalCode
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+}
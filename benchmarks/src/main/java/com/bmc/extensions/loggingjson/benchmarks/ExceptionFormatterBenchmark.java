@@ -0,0 +1,62 @@
+package com.bmc.extensions.loggingjson.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.runtime.models.enums.LogFormat;
+import com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail;
+
+import org.openjdk.jmh.annotations.*;
+
+import static com.bmc.extensions.loggingjson.benchmarks.support.BenchmarkFormatters.jsonFormatter;
+import static com.bmc.extensions.loggingjson.benchmarks.support.RecordShape.EXCEPTION;
+import static java.util.Map.entry;
+import static java.util.Map.ofEntries;
+
+/**
+ * Throughput / allocation of {@link JsonFormatter#format} for records carrying an exception, one run per {@link StackTraceDetail}.
+ * <p>
+ * Exception records are an order of magnitude more expensive than plain ones, so they are measured apart to keep the regular matrix readable.
+ *
+ * @author BareMetalCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionFormatterBenchmark {
+
+    @Param({"0", "32"})
+    private int              exceptionMaxFrames;
+    @Param({"DEFAULT", "ECS"})
+    private LogFormat        logFormat;
+    @Param({"false", "true"})
+    private boolean          printClassicStackTrace;
+    @Param({"0", "256"})
+    private int              stackTraceCacheSize;
+    @Param({"ONE_LINER", "CLASS_METHOD_LINE", "CLASSIC", "FULL", "OFF"})
+    private StackTraceDetail stackTraceDetail;
+    private JsonFormatter    formatter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        final Map<String, String> properties = ofEntries(entry("log-format", logFormat.name()),
+                                                         entry("print-classic-stack-trace", String.valueOf(printClassicStackTrace)),
+                                                         entry("exceptions.exception-detail", stackTraceDetail.name()),
+                                                         entry("exceptions.exception-max-frames", String.valueOf(exceptionMaxFrames)),
+                                                         entry("exceptions.stack-trace-cache-size", String.valueOf(stackTraceCacheSize)));
+
+        formatter = jsonFormatter(properties);
+    }
+
+    @Benchmark
+    public String format() {
+
+        return formatter.format(EXCEPTION.newRecord());
+    }
+
+}
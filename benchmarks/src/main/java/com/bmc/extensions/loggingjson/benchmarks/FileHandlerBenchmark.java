@@ -0,0 +1,76 @@
+package com.bmc.extensions.loggingjson.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+
+import com.bmc.extensions.loggingjson.benchmarks.support.RecordShape;
+import com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode;
+
+import org.openjdk.jmh.annotations.*;
+
+import static com.bmc.extensions.loggingjson.benchmarks.support.BenchmarkFormatters.jsonFileHandler;
+import static java.util.Map.entry;
+import static java.util.Map.ofEntries;
+
+/**
+ * Throughput / allocation of publishing records to a JSON log file, one run per {@link FileOutputMode}, synchronous or asynchronous.
+ * <p>
+ * Unlike the formatter benchmarks, this includes encoding and writing the record to disk, which is where output modes differ.<br>
+ * {@code GZIP} includes compressing the record, with the default rotation and flush interval.<br>
+ * Asynchronous writing only applies to the dedicated handler: with {@code FORMATTER}, Quarkus' own {@code quarkus.log.file.async} does that.
+ *
+ * @author BareMetalCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileHandlerBenchmark {
+
+    @Param({"false", "true"})
+    private boolean        async;
+    @Param({"FORMATTER", "CHANNEL", "MAPPED", "GZIP"})
+    private FileOutputMode outputMode;
+    @Param({"PLAIN", "STRUCTURED"})
+    private RecordShape    recordShape;
+    private Handler        handler;
+    private Path           path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        final Map<String, String> properties = ofEntries(entry("handler.async", String.valueOf(async)),
+                                                         entry("handler.output-mode", outputMode.name()));
+
+        path    = Files.createTempFile("bmc-benchmarks-", ".json.log");
+        handler = jsonFileHandler(properties, path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        handler.close();
+        Files.deleteIfExists(path);
+
+        // GZIP writes segments named after the path instead
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(path.getParent(), path.getFileName() + ".*.gz")) {
+            for (final Path segment : segments) {
+                Files.delete(segment);
+            }
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+
+        handler.publish(recordShape.newRecord());
+    }
+
+}
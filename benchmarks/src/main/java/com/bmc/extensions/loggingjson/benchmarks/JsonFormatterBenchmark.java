@@ -0,0 +1,68 @@
+package com.bmc.extensions.loggingjson.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.bmc.extensions.loggingjson.benchmarks.support.RecordShape;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.runtime.models.enums.LogFormat;
+
+import org.openjdk.jmh.annotations.*;
+
+import static com.bmc.extensions.loggingjson.benchmarks.support.BenchmarkFormatters.jsonFormatter;
+import static java.util.Map.entry;
+import static java.util.Map.ofEntries;
+
+/**
+ * Throughput / allocation of {@link JsonFormatter#format} for the non-exception record shapes across the top level configuration shapes.
+ * <p>
+ * The record is created inside the measured method on purpose: every real log call creates a fresh record, and caller details
+ * ({@code printDetails}) are calculated lazily once per record.<br>
+ * {@link RecordCreationBenchmark} measures that creation alone so it can be subtracted when needed.
+ *
+ * @author BareMetalCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFormatterBenchmark {
+
+    @Param({"DEFAULT", "ECS"})
+    private LogFormat     logFormat;
+    @Param({"false", "true"})
+    private boolean       metrics;
+    @Param({"false", "true"})
+    private boolean       prettyPrint;
+    @Param({"false", "true"})
+    private boolean       printDetails;
+    @Param({"PLAIN", "PRINTF", "STRUCTURED", "MDC_HEAVY"})
+    private RecordShape   recordShape;
+    @Param({"false", "true"})
+    private boolean       recycleBuffers;
+    @Param({"false", "true"})
+    private boolean       streamFields;
+    private JsonFormatter formatter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        final Map<String, String> properties = ofEntries(entry("log-format", logFormat.name()),
+                                                         entry("metrics.enable", String.valueOf(metrics)),
+                                                         entry("pretty-print", String.valueOf(prettyPrint)),
+                                                         entry("print-details", String.valueOf(printDetails)),
+                                                         entry("recycle-buffers", String.valueOf(recycleBuffers)),
+                                                         entry("stream-fields", String.valueOf(streamFields)));
+
+        formatter = jsonFormatter(properties);
+    }
+
+    @Benchmark
+    public String format() {
+
+        return formatter.format(recordShape.newRecord());
+    }
+
+}
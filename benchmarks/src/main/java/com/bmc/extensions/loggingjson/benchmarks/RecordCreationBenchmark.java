@@ -0,0 +1,34 @@
+package com.bmc.extensions.loggingjson.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.bmc.extensions.loggingjson.benchmarks.support.RecordShape;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Baseline: the cost of only creating each {@link RecordShape}.
+ * <p>
+ * The formatter benchmarks create their records inside the measured method, this baseline allows subtracting that cost from their results.
+ *
+ * @author BareMetalCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordCreationBenchmark {
+
+    @Param({"PLAIN", "PRINTF", "STRUCTURED", "MDC_HEAVY", "EXCEPTION"})
+    private RecordShape recordShape;
+
+    @Benchmark
+    public ExtLogRecord createRecord() {
+
+        return recordShape.newRecord();
+    }
+
+}
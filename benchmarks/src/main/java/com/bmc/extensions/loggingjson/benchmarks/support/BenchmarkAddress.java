@@ -0,0 +1,19 @@
+package com.bmc.extensions.loggingjson.benchmarks.support;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Client side POJO nested inside {@link BenchmarkCustomer}.
+ *
+ * @author BareMetalCode
+ */
+@Getter
+@Setter
+public class BenchmarkAddress {
+
+    private String city;
+    private String country;
+    private String street;
+
+}
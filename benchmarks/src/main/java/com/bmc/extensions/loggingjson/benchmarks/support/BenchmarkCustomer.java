@@ -0,0 +1,20 @@
+package com.bmc.extensions.loggingjson.benchmarks.support;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Client side POJO nested inside {@link BenchmarkOrder}.
+ *
+ * @author BareMetalCode
+ */
+@Getter
+@Setter
+public class BenchmarkCustomer {
+
+    private BenchmarkAddress address;
+    private String           firstName;
+    private Long             id;
+    private String           lastName;
+
+}
@@ -0,0 +1,102 @@
+package com.bmc.extensions.loggingjson.benchmarks.support;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Handler;
+import java.util.stream.Collectors;
+
+import com.bmc.extensions.loggingjson.runtime.LoggingJsonRecorder;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+
+import io.quarkus.runtime.RuntimeValue;
+import io.quarkus.runtime.configuration.DurationConverter;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
+import org.jboss.logmanager.handlers.FileHandler;
+
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput.CONSOLE;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput.FILE;
+
+/**
+ * Builds {@link JsonFormatter} and file {@link Handler} instances for benchmarks exactly as the extension does at bootstrap.
+ * <p>
+ * The configuration is mapped by SmallRye from plain properties into the real {@link JsonLogConfig} mapping, so defaults, conversions and the
+ * whole {@link LoggingJsonRecorder} path are the production ones, there is no hand-made configuration double that could drift away.
+ * <p>
+ * Quarkus' own {@link DurationConverter} is registered, so durations accept the same shorthand ({@code 60S}, {@code 50MS}) as in an
+ * application.
+ *
+ * @author BareMetalCode
+ */
+public class BenchmarkFormatters {
+
+    private static final String CONSOLE_JSON_PREFIX = "quarkus.log.console.json.";
+    private static final String FILE_JSON_PREFIX    = "quarkus.log.file.json.";
+    private static final int    SOURCE_ORDINAL      = 500;
+
+    private BenchmarkFormatters() {}
+
+    /**
+     * Creates a console {@link JsonFormatter} from properties relative to {@code quarkus.log.console.json}.
+     *
+     * @param properties i.e.: {@code pretty-print=true}, {@code exceptions.exception-detail=FULL}
+     *
+     * @return a fully precomputed {@link JsonFormatter}
+     */
+    public static JsonFormatter jsonFormatter(final Map<String, String> properties) {
+
+        return (JsonFormatter) recorder(CONSOLE_JSON_PREFIX, properties).getJsonFormatterForLogOutputType(CONSOLE).getValue().orElseThrow();
+    }
+
+    /**
+     * Creates the file {@link Handler} the extension sets up from properties relative to {@code quarkus.log.file.json}, appending to the
+     * given file.
+     * <p>
+     * With the {@code FORMATTER} output mode, that is a standard {@link FileHandler} with the JSON formatter, as Quarkus would configure it,
+     * otherwise it is the extension's dedicated handler.
+     *
+     * @param properties i.e.: {@code handler.output-mode=CHANNEL}
+     * @param path       the file to append to
+     *
+     * @return a handler ready to publish records
+     *
+     * @throws FileNotFoundException if the standard file handler cannot open the file
+     */
+    public static Handler jsonFileHandler(final Map<String, String> properties, final Path path) throws FileNotFoundException {
+
+        final Map<String, String> fileProperties = new HashMap<>(properties);
+        fileProperties.put("handler.path", path.toString());
+
+        final LoggingJsonRecorder recorder         = recorder(FILE_JSON_PREFIX, fileProperties);
+        final Optional<Handler>   dedicatedHandler = recorder.getDedicatedJsonFileHandler().getValue();
+
+        if (dedicatedHandler.isPresent()) {
+            return dedicatedHandler.get();
+        }
+
+        return new FileHandler(recorder.getJsonFormatterForLogOutputType(FILE).getValue().orElseThrow(), path.toFile(), true);
+    }
+
+    private static LoggingJsonRecorder recorder(final String prefix, final Map<String, String> properties) {
+
+        final Map<String, String> prefixedProperties = properties.entrySet().stream()
+                                                                 .collect(Collectors.toMap(entry -> prefix + entry.getKey(), Map.Entry::getValue));
+
+        final SmallRyeConfig config = new SmallRyeConfigBuilder()
+                .withMapping(JsonLogConfig.class)
+                .withValidateUnknown(false)
+                .withConverter(Duration.class, SOURCE_ORDINAL, new DurationConverter())
+                .withSources(new PropertiesConfigSource(prefixedProperties, "bmc-benchmarks", SOURCE_ORDINAL))
+                .build();
+
+        return new LoggingJsonRecorder(new RuntimeValue<>(config.getConfigMapping(JsonLogConfig.class)));
+    }
+
+}
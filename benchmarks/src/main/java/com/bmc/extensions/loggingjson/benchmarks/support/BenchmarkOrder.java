@@ -0,0 +1,25 @@
+package com.bmc.extensions.loggingjson.benchmarks.support;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Client side POJO rendered through a {@code StructuredLogArgument}, three levels deep with temporal, numeric and collection values.
+ *
+ * @author BareMetalCode
+ */
+@Getter
+@Setter
+public class BenchmarkOrder {
+
+    private Instant           createdAt;
+    private BenchmarkCustomer customer;
+    private String            id;
+    private List<String>      items;
+    private BigDecimal        total;
+
+}
@@ -0,0 +1,152 @@
+package com.bmc.extensions.loggingjson.benchmarks.support;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.ExtLogRecord.FormatStyle;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+
+/**
+ * The realistic record shapes the benchmarks drive through the formatter.
+ * <p>
+ * Every call to {@link #newRecord()} returns a fresh record, as it happens on a real log call.<br>
+ * Payloads (POJOs, MDC, throwable) are created once and shared, as they are owned by the client application and not by the logging pipeline.
+ *
+ * @author BareMetalCode
+ */
+public enum RecordShape {
+
+    /**
+     * A message without parameters.
+     */
+    PLAIN {
+        @Override
+        public ExtLogRecord newRecord() {
+
+            return record(INFO, "Order accepted for processing");
+        }
+    },
+    /**
+     * A printf message with parameters, i.e. {@code logger.infof(...)}.
+     */
+    PRINTF {
+        @Override
+        public ExtLogRecord newRecord() {
+
+            final ExtLogRecord record = record(INFO, "Order %s accepted for customer %s in %d ms");
+            record.setParameters(new Object[]{"ORD-2024-000123", "CUS-981", 42});
+            return record;
+        }
+    },
+    /**
+     * A {@link StructuredLogArgument} carrying nested POJOs.
+     */
+    STRUCTURED {
+        @Override
+        public ExtLogRecord newRecord() {
+
+            final ExtLogRecord record = record(INFO, "order accepted");
+            record.setParameters(new Object[]{logEntry(of("order", ORDER), of("customer", ORDER.getCustomer()))});
+            return record;
+        }
+    },
+    /**
+     * A plain message on a thread with a crowded MDC, as it happens with tracing / security / tenancy libraries.
+     */
+    MDC_HEAVY {
+        @Override
+        public ExtLogRecord newRecord() {
+
+            final ExtLogRecord record = record(INFO, "Order accepted for processing");
+            record.setMdc(MDC_ENTRIES);
+            return record;
+        }
+    },
+    /**
+     * An error with a deep stack trace and a cause.
+     */
+    EXCEPTION {
+        @Override
+        public ExtLogRecord newRecord() {
+
+            final ExtLogRecord record = record(ERROR, "Order could not be processed");
+            record.setThrown(THROWABLE);
+            return record;
+        }
+    };
+
+    private static final int                 EXCEPTION_DEPTH = 60;
+    private static final String              LOGGER_NAME     = "com.acme.orders.OrderService";
+    private static final int                 MDC_SIZE        = 16;
+    private static final Map<String, String> MDC_ENTRIES     = mdcEntries();
+    private static final BenchmarkOrder      ORDER           = order();
+    private static final Throwable           THROWABLE       = deepThrowable(EXCEPTION_DEPTH);
+
+    /**
+     * @return a fresh {@link ExtLogRecord} of this shape.
+     */
+    public abstract ExtLogRecord newRecord();
+
+    private static Throwable deepThrowable(final int depth) {
+
+        if (depth == 0) {
+            return new IllegalStateException("inventory service unavailable", new SocketTimeoutException("read timed out"));
+        }
+        return deepThrowable(depth - 1);
+    }
+
+    private static Map<String, String> mdcEntries() {
+
+        final Map<String, String> mdc = new LinkedHashMap<>();
+        mdc.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        mdc.put("spanId", "00f067aa0ba902b7");
+        mdc.put("sampled", "true");
+        mdc.put("tenant", "acme-eu-west");
+        for (int i = mdc.size(); i < MDC_SIZE; i++) {
+            mdc.put("library.key." + i, "library-value-" + i);
+        }
+        return mdc;
+    }
+
+    private static BenchmarkOrder order() {
+
+        final BenchmarkAddress address = new BenchmarkAddress();
+        address.setStreet("742 Evergreen Terrace");
+        address.setCity("Springfield");
+        address.setCountry("US");
+
+        final BenchmarkCustomer customer = new BenchmarkCustomer();
+        customer.setId(981L);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setAddress(address);
+
+        final BenchmarkOrder order = new BenchmarkOrder();
+        order.setId("ORD-2024-000123");
+        order.setCreatedAt(Instant.parse("2024-05-01T10:15:30.123Z"));
+        order.setCustomer(customer);
+        order.setItems(List.of("SKU-1", "SKU-22", "SKU-333"));
+        order.setTotal(new BigDecimal("149.90"));
+        return order;
+    }
+
+    private static ExtLogRecord record(final Level level, final String message) {
+
+        final ExtLogRecord record = new ExtLogRecord(level, message, FormatStyle.PRINTF, RecordShape.class.getName());
+        record.setLoggerName(LOGGER_NAME);
+        return record;
+    }
+
+}
@@ -1,13 +1,27 @@
 package com.bmc.extensions.loggingjson.deployment;
 
+import java.util.List;
+import java.util.Optional;
+
 import com.bmc.extensions.loggingjson.runtime.LoggingJsonRecorder;
+import com.bmc.extensions.loggingjson.runtime.models.KeyValue;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument;
 
+import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.annotations.ExecutionTime;
 import io.quarkus.deployment.annotations.Record;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.deployment.builditem.LogConsoleFormatBuildItem;
 import io.quarkus.deployment.builditem.LogFileFormatBuildItem;
+import io.quarkus.deployment.builditem.LogHandlerBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
+import io.quarkus.deployment.metrics.MetricsCapabilityBuildItem;
+import io.quarkus.deployment.metrics.MetricsFactoryConsumerBuildItem;
+import io.quarkus.runtime.metrics.MetricsFactory;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import static com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput.CONSOLE;
 import static com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput.FILE;
@@ -27,6 +41,31 @@ public class LoggingJsonStepBuilder {
         return new FeatureBuildItem(FEATURE);
     }
 
+    /**
+     * Registers what the extension reaches reflectively at run time, so it keeps working in native images.
+     * <p>
+     * Configured custom serializers need their constructors and generic superclass, configured warm-up classes and the extension's structured
+     * log models are introspected by Jackson.<br>
+     * Date/time formatters and zones are built from run time configuration and the system zone, so they are left to run time initialization.
+     */
+    @BuildStep
+    void registerForReflection(final BuildProducer<ReflectiveClassBuildItem> reflectiveClasses) {
+
+        final Config       config            = ConfigProvider.getConfig();
+        final List<String> customSerializers = ReflectiveClientClasses.customSerializers(config);
+        final List<String> warmUpClasses     = ReflectiveClientClasses.warmUpClasses(config);
+
+        if (!customSerializers.isEmpty()) {
+            reflectiveClasses.produce(ReflectiveClassBuildItem.builder(customSerializers.toArray(String[]::new)).constructors().build());
+        }
+
+        if (!warmUpClasses.isEmpty()) {
+            reflectiveClasses.produce(ReflectiveClassBuildItem.builder(warmUpClasses.toArray(String[]::new)).methods().fields().build());
+        }
+
+        reflectiveClasses.produce(ReflectiveClassBuildItem.builder(KeyValue.class, StructuredLogArgument.class).methods().fields().build());
+    }
+
     @BuildStep
     @Record(ExecutionTime.RUNTIME_INIT)
     LogConsoleFormatBuildItem setUpConsoleFormatter(final LoggingJsonRecorder recorder) {
@@ -41,4 +80,24 @@ public class LoggingJsonStepBuilder {
         return new LogFileFormatBuildItem(recorder.getJsonFormatterForLogOutputType(FILE));
     }
 
+    @BuildStep
+    @Record(ExecutionTime.RUNTIME_INIT)
+    LogHandlerBuildItem setUpFileHandler(final LoggingJsonRecorder recorder) {
+
+        return new LogHandlerBuildItem(recorder.getDedicatedJsonFileHandler());
+    }
+
+    /**
+     * Binds the formatter metrics to Micrometer when {@code quarkus-micrometer} is present, next to their JMX MXBeans.
+     */
+    @BuildStep
+    @Record(ExecutionTime.RUNTIME_INIT)
+    void setUpMicrometerMetrics(final LoggingJsonRecorder recorder, final Optional<MetricsCapabilityBuildItem> metricsCapability,
+            final BuildProducer<MetricsFactoryConsumerBuildItem> metricsFactoryConsumers) {
+
+        if (metricsCapability.isPresent() && metricsCapability.get().metricsSupported(MetricsFactory.MICROMETER)) {
+            metricsFactoryConsumers.produce(new MetricsFactoryConsumerBuildItem(recorder.getFormatterMetricsBinder()));
+        }
+    }
+
 }
@@ -0,0 +1,66 @@
+package com.bmc.extensions.loggingjson.deployment;
+
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Resolves, at build time, the client classes the extension reaches reflectively at run time, so they can be registered for native images.
+ * <p>
+ * Custom serializers are loaded by name, their serialized type is read from their generic superclass and they are instantiated through
+ * their no-argument constructor; warm-up classes are loaded by name and introspected by Jackson.
+ * <p>
+ * Both are run time configuration, which build steps cannot map: they are read as raw properties from the configuration visible to the
+ * build, i.e. {@code application.properties}.<br>
+ * Classes only configured through run time sources, such as environment variables, cannot be known here and are not registered.
+ *
+ * @author BareMetalCode
+ */
+public class ReflectiveClientClasses {
+
+    private static final String       CUSTOM_SERIALIZERS = "client-serializers.custom-serializers.";
+    private static final List<String> JSON_PREFIXES      = List.of("quarkus.log.console.json.", "quarkus.log.file.json.");
+    private static final String       WARM_UP_CLASSES    = "client-serializers.warm-up-classes";
+
+    private ReflectiveClientClasses() {}
+
+    /**
+     * Returns the distinct custom serializer class names configured for any JSON output.
+     *
+     * @param config the configuration visible to the build.
+     *
+     * @return the configured custom serializer class names, possibly empty.
+     */
+    public static List<String> customSerializers(final Config config) {
+
+        return StreamSupport.stream(config.getPropertyNames().spliterator(), false)
+                            .filter(ReflectiveClientClasses::isCustomSerializerProperty)
+                            .map(propertyName -> config.getValue(propertyName, String.class).trim())
+                            .distinct()
+                            .toList();
+    }
+
+    /**
+     * Returns the distinct warm-up class names configured for any JSON output.
+     *
+     * @param config the configuration visible to the build.
+     *
+     * @return the configured warm-up class names, possibly empty.
+     */
+    public static List<String> warmUpClasses(final Config config) {
+
+        return JSON_PREFIXES.stream()
+                            .flatMap(prefix -> config.getOptionalValues(prefix + WARM_UP_CLASSES, String.class).stream())
+                            .flatMap(List::stream)
+                            .map(String::trim)
+                            .distinct()
+                            .toList();
+    }
+
+    private static boolean isCustomSerializerProperty(final String propertyName) {
+
+        return JSON_PREFIXES.stream().anyMatch(prefix -> propertyName.startsWith(prefix + CUSTOM_SERIALIZERS));
+    }
+
+}
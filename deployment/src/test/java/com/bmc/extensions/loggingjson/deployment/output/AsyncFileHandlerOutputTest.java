@@ -0,0 +1,264 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.AsyncJsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.config.SmallRyeConfig;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JsonFileHandlerFactory.getJsonFileHandler;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the asynchronous dedicated file handler: every record published concurrently is written once and in publishing order per thread,
+ * closing the handler writes whatever is still queued, records of threads blocked on a full queue while it closes included, and records
+ * queued in a row reach the stream together instead of one by one.
+ *
+ * @author BareMetalCode
+ */
+public class AsyncFileHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-async-file-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static final Path         LOG_FILE           = Path.of("target/json-async-handler.log");
+    static final ObjectMapper OBJECT_MAPPER      = new ObjectMapper();
+    static final int          RECORDS_PER_THREAD = 250;
+    // the log file is appended to across runs
+    static final long         RUN_ID             = System.currentTimeMillis();
+    static final int          THREADS            = 4;
+
+    static Handler asyncFileHandler;
+
+    @BeforeAll
+    static void setup() {
+
+        asyncFileHandler = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof AsyncJsonFileHandler)
+                                 .findFirst()
+                                 .orElseThrow();
+    }
+
+    private static ExtLogRecord createRecord(final String message) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, message, AsyncFileHandlerOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+
+        return record;
+    }
+
+    private static AsyncJsonFileHandler heldAsyncFileHandler(final CountingOutputStream outputStream, final int queueLength) throws IOException {
+
+        final FileJsonConfig fileJsonConfig = ConfigProvider.getConfig()
+                                                            .unwrap(SmallRyeConfig.class)
+                                                            .getConfigMapping(JsonLogConfig.class)
+                                                            .fileJson();
+        final StructuredLog  structuredLog  = getPrecomputedStructuredLog(fileJsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        return new AsyncJsonFileHandler(new JsonFileHandler(structuredLog, getJacksonJSONFactory(fileJsonConfig), outputStream, false), queueLength,
+                                        OverflowAction.BLOCK);
+    }
+
+    private static void waitFor(final Thread thread, final Set<Thread.State> states) throws InterruptedException {
+
+        while (!states.contains(thread.getState())) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static List<String> writtenMessages(final String prefix) throws IOException {
+
+        final List<String> messages = new ArrayList<>();
+
+        for (final String line : Files.readAllLines(LOG_FILE, UTF_8)) {
+            final JsonNode record = OBJECT_MAPPER.readTree(line);
+            if (record.get("message").asText().startsWith(prefix)) {
+                messages.add(record.get("message").asText());
+            }
+        }
+
+        return messages;
+    }
+
+    @Test
+    public void concurrentRecordsAreAllWrittenInOrderTest() throws Exception {
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures  = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            final int threadNumber = thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                    asyncFileHandler.publish(createRecord("concurrent-" + RUN_ID + "-" + threadNumber + "-" + i));
+                }
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        asyncFileHandler.flush();
+
+        final List<String>         messages          = writtenMessages("concurrent-" + RUN_ID);
+        final Map<String, Integer> lastIndexByThread = new HashMap<>();
+
+        assertEquals(THREADS * RECORDS_PER_THREAD, messages.size());
+        for (final String message : messages) {
+            final String[] parts    = message.split("-");
+            final int      index    = Integer.parseInt(parts[3]);
+            final int      previous = lastIndexByThread.getOrDefault(parts[2], -1);
+
+            assertEquals(previous + 1, index);
+            lastIndexByThread.put(parts[2], index);
+        }
+    }
+
+    @Test
+    public void queuedRecordsAreWrittenTogetherTest() throws Exception {
+
+        final int                  records      = 1000;
+        final CountingOutputStream outputStream = new CountingOutputStream();
+        final Handler              handler      = heldAsyncFileHandler(outputStream, 1024);
+
+        // the writer thread is held on its first write until every record is queued
+        for (int i = 0; i < records; i++) {
+            handler.publish(createRecord("batched-" + i));
+        }
+        outputStream.release();
+        handler.close();
+
+        assertEquals(records, outputStream.toString(UTF_8).lines().count());
+        assertTrue(outputStream.flushes < records / 10, "the stream is flushed as the queue runs empty: " + outputStream.flushes);
+    }
+
+    @Test
+    public void closeWritesRecordsOfBlockedThreadsTest() throws Exception {
+
+        final int                  threads      = 16;
+        final CountingOutputStream outputStream = new CountingOutputStream();
+        final AsyncJsonFileHandler handler      = heldAsyncFileHandler(outputStream, 2);
+        final List<Thread>         publishers   = new ArrayList<>();
+
+        // the writer thread is held on its first write, so the queue fills up and the remaining publishers block
+        for (int i = 0; i < threads; i++) {
+            final ExtLogRecord record = createRecord("blocked-" + i);
+            publishers.add(Thread.ofPlatform().start(() -> handler.publish(record)));
+        }
+        for (final Thread publisher : publishers) {
+            waitFor(publisher, EnumSet.of(Thread.State.TERMINATED, Thread.State.TIMED_WAITING));
+        }
+
+        final Thread closer = Thread.ofPlatform().start(handler::close);
+        waitFor(closer, EnumSet.of(Thread.State.WAITING, Thread.State.TIMED_WAITING));
+        outputStream.release();
+
+        closer.join();
+        for (final Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertEquals(threads, outputStream.toString(UTF_8).lines().count());
+    }
+
+    @Test
+    public void closeWritesPendingRecordsTest() throws IOException {
+
+        final JsonLogConfig jsonLogConfig = ConfigProvider.getConfig().unwrap(SmallRyeConfig.class).getConfigMapping(JsonLogConfig.class);
+        final Handler       handler       = getJsonFileHandler(jsonLogConfig.fileJson());
+
+        for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+            handler.publish(createRecord("pending-" + RUN_ID + "-" + i));
+        }
+        handler.close();
+
+        assertEquals(RECORDS_PER_THREAD, writtenMessages("pending-" + RUN_ID).size());
+    }
+
+    /**
+     * Counts the flushes reaching the stream, every one of which drains the dedicated streams to the file, and holds the first write until
+     * released.
+     */
+    private static final class CountingOutputStream extends ByteArrayOutputStream {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+        private       int            flushes;
+
+        @Override
+        public void flush() {
+
+            flushes++;
+        }
+
+        @Override
+        public synchronized void write(final int b) {
+
+            awaitRelease();
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) {
+
+            awaitRelease();
+            super.write(b, off, len);
+        }
+
+        private void awaitRelease() {
+
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void release() {
+
+            released.countDown();
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
+import com.bmc.extensions.loggingjson.runtime.core.FramedRecordWriter;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.ByteBufferChannelOutputStream;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.config.SmallRyeConfig;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.RecordEncoding.CBOR;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonBinaryFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testing that the dedicated file handler writes binary encoded records as length-prefixed frames, each one decoding to the very record
+ * the JSON formatter renders.
+ * <p>
+ * The Smile handler is configured, the CBOR one is created from the same configuration.
+ *
+ * @author BareMetalCode
+ */
+public class BinaryFileHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-binary-file-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static final ObjectMapper CBOR_MAPPER   = new ObjectMapper(new CBORFactory());
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    static final ObjectMapper SMILE_MAPPER  = new ObjectMapper(new SmileFactory());
+
+    static Formatter consoleFormatter;
+    static Handler   smileFileHandler;
+
+    @BeforeAll
+    static void setup() {
+
+        consoleFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                 .findFirst()
+                                 .orElseThrow()
+                                 .getFormatter();
+
+        smileFileHandler = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof JsonFileHandler)
+                                 .findFirst()
+                                 .orElseThrow();
+    }
+
+    private static JsonFileHandler cborFileHandler(final Path file) throws IOException {
+
+        Files.deleteIfExists(file);
+
+        final FileJsonConfig fileJsonConfig = ConfigProvider.getConfig()
+                                                            .unwrap(SmallRyeConfig.class)
+                                                            .getConfigMapping(JsonLogConfig.class)
+                                                            .fileJson();
+        final StructuredLog  structuredLog  = getPrecomputedStructuredLog(fileJsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        return new JsonFileHandler(structuredLog, getJacksonJSONFactory(fileJsonConfig), ByteBufferChannelOutputStream.appendingTo(file, 512),
+                                   JsonArrayState.NONE, new FramedRecordWriter(structuredLog, getJacksonBinaryFactory(fileJsonConfig, CBOR)));
+    }
+
+    private static List<ExtLogRecord> createRecords() {
+
+        final List<ExtLogRecord> records = new ArrayList<>();
+        for (final Object message : new Object[]{"first message", "x".repeat(2048), logEntry(of("structured", List.of(1, 2, 3)))}) {
+            final ExtLogRecord record = new ExtLogRecord(INFO, message instanceof final String text ? text : "", "loggerClassName");
+            record.setLoggerName("loggerName");
+            if (!(message instanceof String)) {
+                record.setParameters(new Object[]{message});
+            }
+            records.add(record);
+        }
+
+        final ExtLogRecord errorRecord = new ExtLogRecord(ERROR, "error message", "loggerClassName");
+        errorRecord.setLoggerName("loggerName");
+        errorRecord.setThrown(new IllegalStateException("boom"));
+        records.add(errorRecord);
+
+        return records;
+    }
+
+    /**
+     * Reads every frame of the file: a 4 bytes big-endian length followed by that many bytes.
+     */
+    private static List<byte[]> readFrames(final Path file) throws IOException {
+
+        final List<byte[]> frames = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(file); DataInputStream frameStream = new DataInputStream(inputStream)) {
+            while (frameStream.available() > 0) {
+                frames.add(frameStream.readNBytes(frameStream.readInt()));
+            }
+        }
+
+        return frames;
+    }
+
+    @Test
+    public void cborFramesMatchFormatterOutputTest() throws IOException {
+
+        final Path               file     = Path.of("target/cbor-channel-handler.log");
+        final JsonFileHandler    handler  = cborFileHandler(file);
+        final List<ExtLogRecord> records  = createRecords();
+        final List<JsonNode>     expected = new ArrayList<>();
+
+        for (final ExtLogRecord record : records) {
+            expected.add(OBJECT_MAPPER.readTree(consoleFormatter.format(record)));
+            handler.publish(record);
+        }
+        handler.close();
+
+        final List<byte[]> frames = readFrames(file);
+        assertEquals(records.size(), frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            assertEquals(expected.get(i), CBOR_MAPPER.readTree(frames.get(i)));
+        }
+    }
+
+    @Test
+    public void smileFramesMatchFormatterOutputTest() throws IOException {
+
+        final Path               file     = Path.of("target/smile-channel-handler.log");
+        final long               start    = Files.exists(file) ? Files.size(file) : 0;
+        final List<ExtLogRecord> records  = createRecords();
+        final List<JsonNode>     expected = new ArrayList<>();
+
+        for (final ExtLogRecord record : records) {
+            expected.add(OBJECT_MAPPER.readTree(consoleFormatter.format(record)));
+            smileFileHandler.publish(record);
+        }
+        smileFileHandler.flush();
+
+        final List<byte[]> frames = readFrames(file);
+        final List<byte[]> added  = frames.subList(frames.size() - records.size(), frames.size());
+        for (int i = 0; i < added.size(); i++) {
+            // every frame is a standalone Smile document, starting with its own header
+            assertEquals(":)\n", new String(added.get(i), 0, 3));
+            assertEquals(expected.get(i), SMILE_MAPPER.readTree(added.get(i)));
+        }
+        assertEquals(Files.size(file) - start, added.stream().mapToLong(frame -> frame.length + 4L).sum());
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.time.CachedTimestampFormatter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the cached timestamp rendering is identical to the {@link DateTimeFormatter} it caches, both as a string and written as bytes,
+ * including the layouts it cannot cache.
+ *
+ * @author BareMetalCode
+ */
+public class CachedTimestampFormatterTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ZoneId      MADRID       = ZoneId.of("Europe/Madrid");
+    private static final int         SAMPLES      = 5_000;
+
+    @Test
+    public void cachedLayoutsMatchFormatterTest() throws IOException {
+
+        assertMatchesFormatter(DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.of("UTC")), true);
+        assertMatchesFormatter(DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(MADRID), true);
+        assertMatchesFormatter(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(MADRID), true);
+        assertMatchesFormatter(DateTimeFormatter.ofPattern("dd MMMM yyyy HH:mm:ss,SSSSSS '\"quoted\"' VV").withZone(MADRID), true);
+        assertMatchesFormatter(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("Asia/Kolkata")), true);
+    }
+
+    @Test
+    public void uncachedLayoutsFallBackToFormatterTest() throws IOException {
+
+        assertMatchesFormatter(DateTimeFormatter.ofPattern("HH:mm:ss n").withZone(MADRID), false);
+        assertMatchesFormatter(DateTimeFormatter.ofPattern("N").withZone(MADRID), false);
+    }
+
+    private static void assertMatchesFormatter(final DateTimeFormatter formatter, final boolean expectedCaching) throws IOException {
+
+        final CachedTimestampFormatter cachedFormatter = new CachedTimestampFormatter(formatter);
+        final Random                   random          = new Random(42);
+
+        assertEquals(expectedCaching, cachedFormatter.isCaching());
+
+        // consecutive records share seconds, and the range crosses the spring daylight saving change in Madrid.
+        long epochSecond = 1_711_846_000L;
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            epochSecond += random.nextInt(3);
+            final Instant instant  = Instant.ofEpochSecond(epochSecond, randomNanos(random));
+            final String  expected = formatter.format(instant);
+
+            assertEquals(expected, cachedFormatter.format(instant));
+            assertEquals(quoted(expected), writtenValue(cachedFormatter, instant));
+        }
+    }
+
+    private static String quoted(final String value) throws IOException {
+
+        final StringWriter writer = new StringWriter();
+        try (final JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeString(value);
+        }
+
+        return writer.toString();
+    }
+
+    private static int randomNanos(final Random random) {
+
+        return switch (random.nextInt(4)) {
+            case 0 -> 0;
+            case 1 -> random.nextInt(1_000) * 1_000_000;
+            case 2 -> random.nextInt(1_000_000) * 1_000;
+            default -> random.nextInt(1_000_000_000);
+        };
+    }
+
+    private static String writtenValue(final CachedTimestampFormatter cachedFormatter, final Instant instant) throws IOException {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "message", CachedTimestampFormatterTest.class.getName());
+        record.setInstant(instant);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (final JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            cachedFormatter.writeValue(generator, record);
+        }
+        return outputStream.toString(UTF_8);
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Formatter;
+import java.util.stream.IntStream;
+
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import lombok.Getter;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testing that client objects are written within the configured depth and collection size, and that cycles are cut, both streamed and
+ * rendered from maps, while the fields of the record itself are never limited.
+ *
+ * @author BareMetalCode
+ */
+public class ClientGuardsOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-client-guards.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class, Node.class));
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    private static ExtLogRecord createRecord(final Object parameter) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "", ClientGuardsOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        record.setParameters(new Object[]{parameter});
+
+        return record;
+    }
+
+    /**
+     * Formats the record with both formatters, asserts they render the same output, and returns its message.
+     */
+    private static JsonNode formatBoth(final ExtLogRecord record) throws IOException {
+
+        final String streamed = streamedFormatter.format(record);
+
+        assertEquals(streamed, mappedFormatter.format(record));
+
+        return OBJECT_MAPPER.readTree(streamed).get("message");
+    }
+
+    @Test
+    public void collectionsAreTruncatedTest() throws IOException {
+
+        final Map<String, Integer> map = new LinkedHashMap<>();
+        IntStream.range(0, 5).forEach(i -> map.put("key" + i, i));
+
+        final JsonNode message = formatBoth(createRecord(logEntry(of("list", IntStream.range(0, 10).boxed().toList()),
+                                                                  of("array", new int[]{0, 1, 2, 3}),
+                                                                  of("map", map),
+                                                                  of("small", List.of(0, 1, 2)))));
+
+        assertEquals("[0,1,2,\"...7 more\"]", message.get("list").toString());
+        assertEquals("[0,1,2,\"...1 more\"]", message.get("array").toString());
+        assertEquals("{\"key0\":0,\"key1\":1,\"key2\":2,\"...\":\"2 more\"}", message.get("map").toString());
+        assertEquals("[0,1,2]", message.get("small").toString());
+    }
+
+    @Test
+    public void cyclesAreCutTest() throws IOException {
+
+        final Node node = new Node("self");
+        node.child = node;
+
+        final JsonNode message = formatBoth(createRecord(logEntry(of("node", node))));
+
+        assertEquals("{\"name\":\"self\",\"child\":\"[cycle]\"}", message.get("node").toString());
+    }
+
+    @Test
+    public void depthIsLimitedTest() throws IOException {
+
+        final Node root = new Node("level1");
+        root.child             = new Node("level2");
+        root.child.child       = new Node("level3");
+        root.child.child.child = new Node("level4");
+
+        final JsonNode message = formatBoth(createRecord(logEntry(of("root", root))));
+
+        assertEquals("level3", message.get("root").get("child").get("child").get("name").asText());
+        assertEquals("[max depth]", message.get("root").get("child").get("child").get("child").asText());
+    }
+
+    @Test
+    public void recordFieldsAreNotLimitedTest() throws IOException {
+
+        final ExtLogRecord record = createRecord(logEntry(of("entry", "value")));
+        record.setMdc(Map.of("mdc0", "0", "mdc1", "1", "mdc2", "2", "mdc3", "3", "mdc4", "4"));
+
+        final String streamed = streamedFormatter.format(record);
+        assertEquals(streamed, mappedFormatter.format(record));
+
+        assertEquals(5, OBJECT_MAPPER.readTree(streamed).get("mdc").size());
+    }
+
+    @Getter
+    public static class Node {
+
+        private final String name;
+        private       Node   child;
+
+        public Node(final String name) {
+
+            this.name = name;
+        }
+
+    }
+
+}
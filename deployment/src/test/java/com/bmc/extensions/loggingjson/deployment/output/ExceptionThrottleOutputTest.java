@@ -0,0 +1,233 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Formatter;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle.SUMMARY_LOGGER_NAME;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the suppression of repeated exceptions within the throttle window, both streamed and rendered from maps.
+ * <p>
+ * Each formatter has its own throttle, fed with the same records, so both render the same occurrences in full; only their reference ids,
+ * derived from the time their windows opened, can differ.
+ * <p>
+ * The summaries of the windows of an exception that stops occurring are tested on formatters of their own, so that no other test reports
+ * or sweeps their windows.
+ *
+ * @author BareMetalCode
+ */
+public class ExceptionThrottleOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-exception-throttle.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    private static ExtLogRecord createRecord(final Throwable throwable) {
+
+        final ExtLogRecord record = new ExtLogRecord(ERROR, "message", ExceptionThrottleOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        record.setThrown(throwable);
+
+        return record;
+    }
+
+    /**
+     * Formats the record with both formatters, asserts they render the same output but for the reference id, and returns the streamed one.
+     */
+    private static JsonNode formatBoth(final ExtLogRecord record) throws IOException {
+
+        final JsonNode streamed = OBJECT_MAPPER.readTree(streamedFormatter.format(record));
+        final JsonNode mapped   = OBJECT_MAPPER.readTree(mappedFormatter.format(record));
+
+        assertNotNull(streamed.get("exception").get("refId"));
+        assertNotNull(mapped.get("exception").get("refId"));
+        assertEquals(withoutReferenceId(mapped), withoutReferenceId(streamed));
+
+        return streamed;
+    }
+
+    /**
+     * Creates the exceptions in a single place, so that they share their frames as the same failure logged over and over does.
+     */
+    private static List<Throwable> newDatabaseDown(final int attempts) {
+
+        return IntStream.range(0, attempts).<Throwable>mapToObj(attempt -> new IllegalStateException("database down, attempt " + attempt)).toList();
+    }
+
+    private static JsonFormatter throttlingFormatter(final String throttleWindow, final int maxExceptions) {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("exceptions.throttle-window", throttleWindow,
+                                                               "exceptions.throttle-max-exceptions", String.valueOf(maxExceptions),
+                                                               "stream-fields", "true"));
+
+        return new JsonFormatter(getPrecomputedStructuredLog(jsonConfig), getJacksonJSONFactory(jsonConfig));
+    }
+
+    private static JsonNode withoutReferenceId(final JsonNode output) {
+
+        final JsonNode copy = output.deepCopy();
+        ((ObjectNode) copy.get("exception")).remove("refId");
+        ((ObjectNode) copy).remove("timestamp");
+
+        return copy;
+    }
+
+    @Test
+    public void distinctExceptionsAreThrottledSeparatelyTest() throws IOException {
+
+        final List<Throwable> throwables = Stream.of("first", "second").<Throwable>map(UnsupportedOperationException::new).toList();
+        final JsonNode        first      = formatBoth(createRecord(throwables.getFirst()));
+        final JsonNode        second     = formatBoth(createRecord(throwables.getLast()));
+
+        assertTrue(first.get("exception").has("stackTrace"));
+        assertFalse(second.get("exception").has("stackTrace"));
+        assertEquals("second", second.get("exception").get("message").asText());
+    }
+
+    @Test
+    public void closedHandlerReportsOpenWindowsTest() throws IOException {
+
+        final JsonFormatter   formatter  = throttlingFormatter("PT1H", 16);
+        final List<Throwable> throwables = newDatabaseDown(3);
+
+        final String referenceId = OBJECT_MAPPER.readTree(formatter.format(createRecord(throwables.getFirst()))).get("exception").get("refId")
+                                                .asText();
+        formatter.format(createRecord(throwables.get(1)));
+        formatter.format(createRecord(throwables.get(2)));
+
+        final JsonNode summary = OBJECT_MAPPER.readTree(formatter.getTail(null));
+        assertEquals(SUMMARY_LOGGER_NAME, summary.get("loggerName").asText());
+        assertEquals(2, summary.get("message").get("suppressedOccurrences").get(referenceId).asLong());
+        assertEquals("", formatter.getTail(null));
+    }
+
+    @Test
+    public void evictedWindowIsReportedTest() throws IOException {
+
+        final JsonFormatter   formatter  = throttlingFormatter("PT1H", 1);
+        final List<Throwable> throwables = newDatabaseDown(2);
+
+        final String referenceId = OBJECT_MAPPER.readTree(formatter.format(createRecord(throwables.getFirst()))).get("exception").get("refId")
+                                                .asText();
+        formatter.format(createRecord(throwables.getLast()));
+
+        // a distinct exception takes the only slot, evicting the window of the first one
+        formatter.format(createRecord(new UnsupportedOperationException("another failure")));
+
+        final JsonNode summary = OBJECT_MAPPER.readTree(formatter.getTail(null));
+        assertEquals(1, summary.get("message").get("suppressedOccurrences").get(referenceId).asLong());
+    }
+
+    @Test
+    public void exceptionThatStopsRecurringIsReportedBySummaryTest() throws IOException, InterruptedException {
+
+        final JsonFormatter   formatter  = throttlingFormatter("PT0.2S", 16);
+        final List<Throwable> throwables = newDatabaseDown(4);
+
+        final String referenceId = OBJECT_MAPPER.readTree(formatter.format(createRecord(throwables.getFirst()))).get("exception").get("refId")
+                                                .asText();
+        for (final Throwable throwable : throwables.subList(1, throwables.size())) {
+            assertTrue(formatter.format(createRecord(throwable)).contains(referenceId));
+        }
+
+        // the exception stops occurring: its window is reported once a whole window went by after it expired, by a record of any kind
+        Thread.sleep(450);
+
+        final ExtLogRecord unrelated = new ExtLogRecord(INFO, "unrelated message", ExceptionThrottleOutputTest.class.getName());
+        unrelated.setLoggerName("loggerName");
+
+        final String[] lines = formatter.format(unrelated).split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertEquals("unrelated message", OBJECT_MAPPER.readTree(lines[0]).get("message").asText());
+
+        final JsonNode summary = OBJECT_MAPPER.readTree(lines[1]);
+        assertEquals(SUMMARY_LOGGER_NAME, summary.get("loggerName").asText());
+        assertEquals(3, summary.get("message").get("suppressedOccurrences").get(referenceId).asLong());
+
+        // reported once only
+        assertEquals("", formatter.getTail(null));
+    }
+
+    @Test
+    public void repeatedExceptionIsSuppressedWithinTheWindowAndCountedAfterItTest() throws IOException, InterruptedException {
+
+        final List<Throwable> throwables = newDatabaseDown(4);
+        final List<JsonNode>  outputs    = new ArrayList<>();
+        for (final Throwable throwable : throwables.subList(0, 3)) {
+            outputs.add(formatBoth(createRecord(throwable)));
+        }
+
+        final JsonNode full = outputs.getFirst();
+        assertTrue(full.get("exception").has("stackTrace"));
+        assertTrue(full.has("stackTrace"));
+        assertFalse(full.get("exception").has("suppressedOccurrences"));
+
+        for (final JsonNode suppressed : outputs.subList(1, outputs.size())) {
+            final List<String> fields = new ArrayList<>();
+            suppressed.get("exception").fieldNames().forEachRemaining(fields::add);
+
+            assertEquals(List.of("message", "exceptionType", "refId"), fields);
+            assertEquals(IllegalStateException.class.getName(), suppressed.get("exception").get("exceptionType").asText());
+            assertEquals(full.get("exception").get("refId"), suppressed.get("exception").get("refId"));
+            assertFalse(suppressed.has("stackTrace"));
+        }
+        assertEquals("database down, attempt 2", outputs.getLast().get("exception").get("message").asText());
+
+        Thread.sleep(600);
+
+        final JsonNode nextWindow = formatBoth(createRecord(throwables.getLast()));
+        assertTrue(nextWindow.get("exception").has("stackTrace"));
+        assertEquals(2, nextWindow.get("exception").get("suppressedOccurrences").asLong());
+        assertNotEquals(full.get("exception").get("refId"), nextWindow.get("exception").get("refId"));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that the dedicated file handler, writing bytes straight to a file channel, produces the same records as the formatter.
+ * <p>
+ * The console formatter and the file handler share every configuration option.
+ * <p>
+ * A record failing halfway through is left on a line of its own, the records around it are intact.
+ *
+ * @author BareMetalCode
+ */
+public class FileChannelHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-file-channel-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static Formatter consoleFormatter;
+    static Handler   jsonFileHandler;
+
+    @BeforeAll
+    static void setup() {
+
+        consoleFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                 .findFirst()
+                                 .orElseThrow()
+                                 .getFormatter();
+
+        jsonFileHandler = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof JsonFileHandler)
+                                .findFirst()
+                                .orElseThrow();
+    }
+
+    @Test
+    public void failedRecordEndsItsLineTest() throws IOException {
+
+        final ExtLogRecord before = new ExtLogRecord(INFO, "before the failed record", getClass().getName());
+        before.setLoggerName("loggerName");
+        final ExtLogRecord failed = new ExtLogRecord(INFO, "", getClass().getName());
+        failed.setLoggerName("loggerName");
+        failed.setParameters(new Object[]{logEntry(of("failing", new FailingValue()))});
+        final ExtLogRecord after = new ExtLogRecord(INFO, "after the failed record", getClass().getName());
+        after.setLoggerName("loggerName");
+
+        jsonFileHandler.publish(before);
+        jsonFileHandler.publish(failed);
+        jsonFileHandler.publish(after);
+
+        final List<String> lines = Files.readAllLines(Path.of("target/json-channel-handler.log"), UTF_8);
+        final String       nl    = System.lineSeparator();
+
+        assertEquals(consoleFormatter.format(before), lines.get(lines.size() - 3) + nl);
+        assertTrue(lines.get(lines.size() - 2).startsWith("{"), "the part of the failed record already written");
+        assertEquals(consoleFormatter.format(after), lines.getLast() + nl);
+    }
+
+    @Test
+    public void fileHandlerReplacesFormatterTest() {
+
+        assertTrue(Arrays.stream(DELAYED_HANDLER.getHandlers()).noneMatch(handler -> handler instanceof FileHandler));
+    }
+
+    @Test
+    public void fileHandlerOutputMatchesFormatterOutputTest() throws IOException {
+
+        final StringBuilder expected = new StringBuilder();
+        final String[]      messages = {"first message", "x".repeat(2048), "last message"};
+
+        for (final String message : messages) {
+            final ExtLogRecord record = new ExtLogRecord(INFO, message, getClass().getName());
+            record.setLoggerName("loggerName");
+            expected.append(consoleFormatter.format(record));
+            jsonFileHandler.publish(record);
+        }
+
+        final ExtLogRecord errorRecord = new ExtLogRecord(ERROR, "error message", getClass().getName());
+        errorRecord.setLoggerName("loggerName");
+        errorRecord.setThrown(new IllegalStateException("boom"));
+        expected.append(consoleFormatter.format(errorRecord));
+        jsonFileHandler.publish(errorRecord);
+
+        final String written = Files.readString(Path.of("target/json-channel-handler.log"), UTF_8);
+
+        assertTrue(written.endsWith(expected.toString()));
+    }
+
+    public static class FailingValue {
+
+        public String getValue() {
+
+            throw new IllegalStateException("failing getter");
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.RotatingGzipOutputStream;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.config.SmallRyeConfig;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that the dedicated file handler, compressing records into rotated gzip segments, produces the same records as the formatter.
+ * <p>
+ * The configured handler is read while still writing, relying on its periodic sync flushes, the rotating one is created with a small
+ * rotation size and read once closed.
+ *
+ * @author BareMetalCode
+ */
+public class GzipFileHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-gzip-file-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static Formatter consoleFormatter;
+    static Handler   gzipFileHandler;
+
+    @BeforeAll
+    static void setup() {
+
+        consoleFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                 .findFirst()
+                                 .orElseThrow()
+                                 .getFormatter();
+
+        gzipFileHandler = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof JsonFileHandler)
+                                .findFirst()
+                                .orElseThrow();
+    }
+
+    private static ExtLogRecord createRecord(final String message) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, message, "loggerClassName");
+        record.setLoggerName("loggerName");
+
+        return record;
+    }
+
+    /**
+     * Decompresses what can be read of a segment: a segment still being written ends after its last sync flush, with no trailer.
+     */
+    private static String decompress(final Path segment) throws IOException {
+
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(segment))) {
+            inputStream.transferTo(decompressed);
+        } catch (final EOFException e) {
+            // unfinished segment, everything up to the last sync flush has been read
+        }
+
+        return decompressed.toString(UTF_8);
+    }
+
+    private static String decompressFinished(final Path segment) throws IOException {
+
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(segment))) {
+            return new String(inputStream.readAllBytes(), UTF_8);
+        }
+    }
+
+    private static JsonFileHandler rotatingFileHandler(final Path basePath) throws IOException {
+
+        final FileJsonConfig fileJsonConfig = ConfigProvider.getConfig()
+                                                            .unwrap(SmallRyeConfig.class)
+                                                            .getConfigMapping(JsonLogConfig.class)
+                                                            .fileJson();
+        final StructuredLog  structuredLog  = getPrecomputedStructuredLog(fileJsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        return new JsonFileHandler(structuredLog, getJacksonJSONFactory(fileJsonConfig),
+                                   new RotatingGzipOutputStream(basePath, 512, 4096, Duration.ZERO, Duration.ofSeconds(1)), false);
+    }
+
+    private static List<Path> segments(final Path basePath) throws IOException {
+
+        try (Stream<Path> files = Files.list(basePath.getParent())) {
+            return files.filter(file -> file.getFileName().toString().startsWith(basePath.getFileName() + "."))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    @Test
+    public void rotatedSegmentsHoldWholeRecordsTest() throws IOException {
+
+        final Path basePath = Path.of("target/gzip-rotation/json.log");
+        if (Files.exists(basePath.getParent())) {
+            for (final Path segment : segments(basePath)) {
+                Files.delete(segment);
+            }
+        }
+
+        final JsonFileHandler handler  = rotatingFileHandler(basePath);
+        final StringBuilder   expected = new StringBuilder();
+
+        for (int i = 0; i < 1000; i++) {
+            final ExtLogRecord record = createRecord(UUID.randomUUID() + " " + UUID.randomUUID());
+            expected.append(consoleFormatter.format(record));
+            handler.publish(record);
+        }
+        handler.close();
+
+        final List<Path>    segments = segments(basePath);
+        final StringBuilder written  = new StringBuilder();
+        for (final Path segment : segments) {
+            final String records = decompressFinished(segment);
+            assertTrue(records.endsWith(System.lineSeparator()), "a segment ends on a record boundary");
+            written.append(records);
+        }
+
+        assertTrue(segments.size() > 1, "the segments are rotated on their compressed size");
+        assertEquals(expected.toString(), written.toString());
+    }
+
+    @Test
+    public void unfinishedSegmentIsReadableAfterSyncFlushTest() throws IOException, InterruptedException {
+
+        final StringBuilder expected = new StringBuilder();
+        for (final String message : new String[]{"first message", "x".repeat(2048), "last message"}) {
+            final ExtLogRecord record = createRecord(message);
+            expected.append(consoleFormatter.format(record));
+            gzipFileHandler.publish(record);
+        }
+
+        final ExtLogRecord errorRecord = createRecord("error message");
+        errorRecord.setLevel(ERROR);
+        errorRecord.setThrown(new IllegalStateException("boom"));
+        expected.append(consoleFormatter.format(errorRecord));
+        gzipFileHandler.publish(errorRecord);
+
+        final Path basePath = Path.of("target/gzip-handler/json.log");
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        String written = "";
+        while (!written.endsWith(expected.toString()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            final StringBuilder decompressed = new StringBuilder();
+            for (final Path segment : segments(basePath)) {
+                decompressed.append(decompress(segment));
+            }
+            written = decompressed.toString();
+        }
+
+        assertTrue(written.endsWith(expected.toString()));
+    }
+
+}
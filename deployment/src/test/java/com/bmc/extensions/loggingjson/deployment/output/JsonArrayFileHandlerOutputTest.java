@@ -0,0 +1,198 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.logging.Formatter;
+import java.util.stream.Stream;
+
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.ByteBufferChannelOutputStream;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.JsonArrayFiles;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.config.SmallRyeConfig;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the JSON array mode of the dedicated file handler: a closed handler leaves a valid JSON array whatever its last record is, a handler
+ * restarted on the same file reopens that array instead of appending a new one, a file not ending with a closed array is moved aside, and the
+ * formatter appends the record delimiter to every record, shutdown messages included.
+ *
+ * @author BareMetalCode
+ */
+public class JsonArrayFileHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-json-array-file-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static ExtLogRecord createRecord(final String message) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, message, JsonArrayFileHandlerOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+
+        return record;
+    }
+
+    /**
+     * Every test writes its own file, from scratch, as the output of a single run.
+     */
+    private static JsonFileHandler jsonArrayFileHandler(final Path file) throws IOException {
+
+        Files.deleteIfExists(file);
+
+        final FileJsonConfig fileJsonConfig = ConfigProvider.getConfig()
+                                                            .unwrap(SmallRyeConfig.class)
+                                                            .getConfigMapping(JsonLogConfig.class)
+                                                            .fileJson();
+        final StructuredLog  structuredLog  = getPrecomputedStructuredLog(fileJsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        return new JsonFileHandler(structuredLog, getJacksonJSONFactory(fileJsonConfig), ByteBufferChannelOutputStream.appendingTo(file, 512),
+                                   true);
+    }
+
+    private static String readString(final Path file) {
+
+        try {
+            return Files.readString(file, UTF_8);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void publishAndClose(final JsonFileHandler handler, final String... messages) {
+
+        for (final String message : messages) {
+            handler.publish(createRecord(message));
+        }
+        handler.close();
+    }
+
+    /**
+     * Opens the file as a restarted application does, reopening the array the previous run left in it.
+     */
+    private static JsonFileHandler restartedJsonArrayFileHandler(final Path file) throws IOException {
+
+        final FileJsonConfig fileJsonConfig = ConfigProvider.getConfig()
+                                                            .unwrap(SmallRyeConfig.class)
+                                                            .getConfigMapping(JsonLogConfig.class)
+                                                            .fileJson();
+        final StructuredLog  structuredLog  = getPrecomputedStructuredLog(fileJsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        final JsonArrayState jsonArrayState = JsonArrayFiles.reopenArray(file);
+
+        return new JsonFileHandler(structuredLog, getJacksonJSONFactory(fileJsonConfig), ByteBufferChannelOutputStream.appendingTo(file, 512),
+                                   jsonArrayState, null);
+    }
+
+    @Test
+    public void closedHandlerLeavesValidArrayTest() throws IOException {
+
+        final Path            file     = Path.of("target/json-array-handler-records.log");
+        final JsonFileHandler handler  = jsonArrayFileHandler(file);
+        final String[]        messages = {"first message", "Quarkus stopped in 0.042s", "x".repeat(2048), "not the shutdown banner"};
+
+        for (final String message : messages) {
+            handler.publish(createRecord(message));
+        }
+        handler.close();
+
+        final JsonNode array = OBJECT_MAPPER.readTree(Files.readString(file, UTF_8));
+
+        assertTrue(array.isArray());
+        assertEquals(messages.length, array.size());
+        for (int i = 0; i < messages.length; i++) {
+            assertEquals(messages[i], array.get(i).get("message").asText());
+        }
+    }
+
+    @Test
+    public void handlerWithoutRecordsLeavesEmptyArrayTest() throws IOException {
+
+        final Path file = Path.of("target/json-array-handler-empty.log");
+
+        jsonArrayFileHandler(file).close();
+
+        assertEquals(0, OBJECT_MAPPER.readTree(Files.readString(file, UTF_8)).size());
+    }
+
+    @Test
+    public void restartedHandlerReopensArrayTest() throws IOException {
+
+        final Path file = Path.of("target/json-array-handler-restarts.log");
+
+        // the first run logs nothing, the next ones reopen its array
+        jsonArrayFileHandler(file).close();
+        publishAndClose(restartedJsonArrayFileHandler(file), "first run", "Quarkus stopped in 0.042s");
+        publishAndClose(restartedJsonArrayFileHandler(file), "second run", "Quarkus stopped in 0.021s");
+        publishAndClose(restartedJsonArrayFileHandler(file));
+
+        final JsonNode array = OBJECT_MAPPER.readTree(Files.readString(file, UTF_8));
+
+        assertTrue(array.isArray());
+        assertEquals(4, array.size());
+        assertEquals("first run", array.get(0).get("message").asText());
+        assertEquals("Quarkus stopped in 0.021s", array.get(3).get("message").asText());
+    }
+
+    @Test
+    public void unclosedArrayIsMovedAsideTest() throws IOException {
+
+        final Path   file       = Path.of("target/json-array-handler-crashed.log");
+        final String crashedRun = "[" + System.lineSeparator() + "{\"message\":\"cut in the mid";
+
+        Files.writeString(file, crashedRun, UTF_8);
+        publishAndClose(restartedJsonArrayFileHandler(file), "after the crash");
+
+        final JsonNode array = OBJECT_MAPPER.readTree(Files.readString(file, UTF_8));
+        assertEquals(1, array.size());
+        assertEquals("after the crash", array.get(0).get("message").asText());
+
+        try (Stream<Path> siblings = Files.list(file.getParent())) {
+            assertTrue(siblings.filter(sibling -> sibling.getFileName().toString().startsWith(file.getFileName() + "."))
+                               .anyMatch(sibling -> readString(sibling).equals(crashedRun)));
+        }
+    }
+
+    @Test
+    public void formatterDelimitsShutdownRecordTest() {
+
+        final Formatter consoleFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers())
+                                                 .filter(handler -> handler instanceof ConsoleHandler)
+                                                 .findFirst()
+                                                 .orElseThrow()
+                                                 .getFormatter();
+
+        assertTrue(consoleFormatter.format(createRecord("Quarkus stopped in 0.042s")).endsWith("," + System.lineSeparator()));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that the dedicated file handler, writing bytes into a memory-mapped file, produces the same records as the formatter.
+ * <p>
+ * Regions are tiny so that records straddle several of them.
+ *
+ * @author BareMetalCode
+ */
+public class MappedFileHandlerOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-mapped-file-handler.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static Formatter consoleFormatter;
+    static Handler   jsonFileHandler;
+
+    @BeforeAll
+    static void setup() {
+
+        consoleFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                 .findFirst()
+                                 .orElseThrow()
+                                 .getFormatter();
+
+        jsonFileHandler = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof JsonFileHandler)
+                                .findFirst()
+                                .orElseThrow();
+    }
+
+    @Test
+    public void mappedHandlerOutputMatchesFormatterOutputTest() throws IOException {
+
+        final StringBuilder expected = new StringBuilder();
+        final String[]      messages = {"first message", "x".repeat(2048), "last message"};
+
+        for (final String message : messages) {
+            final ExtLogRecord record = new ExtLogRecord(INFO, message, getClass().getName());
+            record.setLoggerName("loggerName");
+            expected.append(consoleFormatter.format(record));
+            jsonFileHandler.publish(record);
+        }
+
+        // the mapped region past the last record is zero-filled until the handler closes
+        final String written = Files.readString(Path.of("target/json-mapped-handler.log"), UTF_8).replaceAll("\u0000+$", "");
+
+        assertTrue(written.endsWith(expected.toString()));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.MappedFileOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testing the memory-mapped output stream growth, truncation on close, and resuming after zero padding left by an unclosed stream.
+ *
+ * @author BareMetalCode
+ */
+public class MappedFileOutputStreamTest {
+
+    private static final int CHUNK_SIZE = 64;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void closeTruncatesToWrittenContentTest() throws IOException {
+
+        final Path   file    = tempDir.resolve("logs/mapped.log");
+        final String content = "{\"message\":\"" + "x".repeat(CHUNK_SIZE * 3) + "\"}\n";
+
+        try (final MappedFileOutputStream outputStream = MappedFileOutputStream.appendingTo(file, CHUNK_SIZE)) {
+            outputStream.write(content.getBytes(UTF_8));
+            outputStream.write('\n');
+        }
+
+        assertEquals(content + "\n", Files.readString(file, UTF_8));
+    }
+
+    @Test
+    public void appendResumesAfterZeroPaddingTest() throws IOException {
+
+        final Path file = tempDir.resolve("crashed.log");
+        Files.write(file, "{\"first\":1}\n\u0000\u0000\u0000\u0000".getBytes(UTF_8));
+
+        try (final MappedFileOutputStream outputStream = MappedFileOutputStream.appendingTo(file, CHUNK_SIZE)) {
+            outputStream.write("{\"second\":2}\n".getBytes(UTF_8));
+        }
+
+        assertEquals("{\"first\":1}\n{\"second\":2}\n", Files.readString(file, UTF_8));
+    }
+
+}
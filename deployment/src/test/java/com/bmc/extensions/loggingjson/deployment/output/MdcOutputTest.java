@@ -0,0 +1,141 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the MDC allowlist and the promotion of MDC keys to top level fields, both streamed and rendered from maps.
+ * <p>
+ * Promoted keys colliding with other top level fields are checked on templates built from standalone configurations.
+ *
+ * @author BareMetalCode
+ */
+public class MdcOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-mdc.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    private static ExtLogRecord createRecord(final Map<String, String> mdc) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "message", MdcOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        record.setMdc(mdc);
+
+        return record;
+    }
+
+    @Test
+    public void includedKeysAreRenderedInOrderAndPromotedKeysAtTopLevelTest() throws IOException {
+
+        final Map<String, String> mdc = new HashMap<>();
+        for (int i = 0; i < 16; i++) {
+            mdc.put("library_key_" + i, "library_value_" + i);
+        }
+        mdc.put("userId", "user-1");
+        mdc.put("tenant", "acme");
+        mdc.put("traceId", "trace-1");
+        mdc.put("spanId", "span-1");
+
+        final ExtLogRecord record    = createRecord(mdc);
+        final String       streamed  = streamedFormatter.format(record);
+        final JsonNode     output    = OBJECT_MAPPER.readTree(streamed);
+        final List<String> mdcFields = new ArrayList<>();
+        output.get("mdc").fieldNames().forEachRemaining(mdcFields::add);
+
+        assertEquals(mappedFormatter.format(record), streamed);
+        assertEquals(List.of("tenant", "userId"), mdcFields);
+        assertEquals("acme", output.get("mdc").get("tenant").asText());
+        assertEquals("trace-1", output.get("trace_id").asText());
+        assertEquals("span-1", output.get("spanId").asText());
+        assertFalse(output.has("traceId"));
+    }
+
+    @Test
+    public void missingKeysAreNotRenderedTest() throws IOException {
+
+        final ExtLogRecord record   = createRecord(Map.of("userId", "user-1"));
+        final String       streamed = streamedFormatter.format(record);
+        final JsonNode     output   = OBJECT_MAPPER.readTree(streamed);
+
+        assertEquals(mappedFormatter.format(record), streamed);
+        assertEquals(1, output.get("mdc").size());
+        assertFalse(output.has("trace_id"));
+        assertFalse(output.has("spanId"));
+    }
+
+    @Test
+    public void promotedKeyCollidingWithTopLevelFieldFailsTest() {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("mdc.promoted-keys", "traceId,message"));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> getPrecomputedStructuredLog(jsonConfig));
+        assertTrue(exception.getMessage().contains("[message]"), exception.getMessage());
+    }
+
+    @Test
+    public void promotedKeyOfAnExcludedFieldIsAllowedTest() {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("excluded-keys", "level", "mdc.promoted-keys", "level"));
+
+        assertTrue(getPrecomputedStructuredLog(jsonConfig).getCoreRecordMapping().containsKey("level"));
+    }
+
+    @Test
+    public void promotedKeyRenamedOntoTopLevelFieldFailsTest() {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("mdc.promoted-keys", "traceId", "key-overrides.traceId", "timestamp"));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> getPrecomputedStructuredLog(jsonConfig));
+        assertTrue(exception.getMessage().contains("[timestamp]"), exception.getMessage());
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Formattable;
+import java.util.ListResourceBundle;
+import java.util.MissingFormatArgumentException;
+import java.util.ResourceBundle;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.BoundedCache;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.ExtLogRecord.FormatStyle;
+import org.junit.jupiter.api.Test;
+
+import static com.bmc.extensions.loggingjson.runtime.utils.MessageRenderUtils.renderMessage;
+import static java.util.logging.Level.INFO;
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.MESSAGE_FORMAT;
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.NO_FORMAT;
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.PRINTF;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the cached message rendering is identical to {@link ExtLogRecord#getFormattedMessage()} for every format style, and that the
+ * template cache stays bounded.
+ *
+ * @author BareMetalCode
+ */
+public class MessageRenderUtilsTest {
+
+    private static final Formattable FORMATTABLE = (formatter, flags, width, precision) -> formatter.format("formatted");
+
+    @Test
+    public void printfMessagesMatchFormattedMessageTest() {
+
+        assertRendersAsFormattedMessage(PRINTF, "Order %s accepted for customer %s in %d ms", "ORD-1", "CUS-981", 42);
+        assertRendersAsFormattedMessage(PRINTF, "%d%s%d", -7L, null, (short) 3);
+        assertRendersAsFormattedMessage(PRINTF, "100%% done%n next: %s", "step");
+        assertRendersAsFormattedMessage(PRINTF, "padded [%8s] and [%-4d]", "x", 12);
+        assertRendersAsFormattedMessage(PRINTF, "formattable %s", FORMATTABLE);
+        assertRendersAsFormattedMessage(PRINTF, "big %d", new BigInteger("12345678901234567890"));
+        assertRendersAsFormattedMessage(PRINTF, "extra parameters %s", "used", "ignored");
+        assertRendersAsFormattedMessage(PRINTF, "no conversion at all", "ignored");
+
+        assertThrows(MissingFormatArgumentException.class, () -> renderMessage(record(PRINTF, "missing %s %s", "one")));
+    }
+
+    @Test
+    public void messageFormatMessagesMatchFormattedMessageTest() {
+
+        assertRendersAsFormattedMessage(MESSAGE_FORMAT, "Hello {0}, you have {1} items", "john", 1234);
+        assertRendersAsFormattedMessage(MESSAGE_FORMAT, "Total {0,number,#.##} over {1,number,integer} orders", new BigDecimal("10.456"), 3);
+        assertRendersAsFormattedMessage(MESSAGE_FORMAT, "no braces %s", "ignored");
+        assertRendersAsFormattedMessage(MESSAGE_FORMAT, "quoted '{0}' and {0}", "value");
+    }
+
+    @Test
+    public void unformattedMessagesAreReturnedAsIsTest() {
+
+        final String message = "Order %s accepted {0}";
+
+        assertSame(message, renderMessage(record(PRINTF, message)));
+        assertSame(message, renderMessage(record(MESSAGE_FORMAT, message)));
+        assertSame(message, renderMessage(record(NO_FORMAT, message, "ignored")));
+        assertEquals(null, renderMessage(record(PRINTF, null, "ignored")));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation") // the deprecated getFormattedMessage is the reference rendering
+    public void bundledMessagesMatchFormattedMessageTest() {
+
+        final ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+
+                return new Object[][]{{"order.accepted", "Order {0} accepted"}, {"order.total", "Order %s totals %d"}};
+            }
+        };
+
+        for (final ExtLogRecord[] records : new ExtLogRecord[][]{
+                {record(MESSAGE_FORMAT, "order.accepted", "A-1"), record(MESSAGE_FORMAT, "order.accepted", "A-1")},
+                {record(PRINTF, "order.total", "A-1", 3), record(PRINTF, "order.total", "A-1", 3)},
+                {record(NO_FORMAT, "order.accepted"), record(NO_FORMAT, "order.accepted")},
+                {record(MESSAGE_FORMAT, "not in the bundle {0}", "A-1"), record(MESSAGE_FORMAT, "not in the bundle {0}", "A-1")}}) {
+            records[0].setResourceBundle(bundle);
+            records[1].setResourceBundle(bundle);
+
+            assertEquals(records[0].getFormattedMessage(), renderMessage(records[1]));
+        }
+    }
+
+    @Test
+    public void boundedCacheStaysBoundedTest() {
+
+        final BoundedCache<Integer, String> cache = new BoundedCache<>(64);
+
+        for (int key = 0; key < 10_000; key++) {
+            assertEquals(String.valueOf(key), cache.get(key, String::valueOf));
+            assertTrue(cache.size() <= 64);
+        }
+    }
+
+    @SuppressWarnings("deprecation") // the deprecated getFormattedMessage is the reference rendering
+    private static void assertRendersAsFormattedMessage(final FormatStyle formatStyle, final String message, final Object... parameters) {
+
+        // twice, so that the second rendering goes through the cached template.
+        assertEquals(record(formatStyle, message, parameters).getFormattedMessage(), renderMessage(record(formatStyle, message, parameters)));
+        assertEquals(record(formatStyle, message, parameters).getFormattedMessage(), renderMessage(record(formatStyle, message, parameters)));
+    }
+
+    private static ExtLogRecord record(final FormatStyle formatStyle, final String message, final Object... parameters) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, message, formatStyle, MessageRenderUtilsTest.class.getName());
+        record.setParameters(parameters);
+
+        return record;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.logging.Formatter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.LatencyHistogram;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the formatter metrics exposed through JMX: counters are compared before and after formatting records, as startup logs are
+ * formatted too.<br>
+ * Also testing that the dedicated file handler counts the bytes it writes, and that latencies stop being reported once their window rotated
+ * out.
+ *
+ * @author BareMetalCode
+ */
+public class MetricsOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-metrics.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class));
+
+    static final MBeanServer MBEAN_SERVER = ManagementFactory.getPlatformMBeanServer();
+    static final int         RECORDS      = 10;
+
+    static Formatter  formatter;
+    static ObjectName objectName;
+
+    @BeforeAll
+    static void setup() throws JMException {
+
+        formatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                          .findFirst()
+                          .orElseThrow()
+                          .getFormatter();
+
+        objectName = new ObjectName("com.bmc.extensions.loggingjson:type=FormatterMetrics,output=console");
+    }
+
+    private static long attribute(final String name) throws JMException {
+
+        return (long) MBEAN_SERVER.getAttribute(objectName, name);
+    }
+
+    @Test
+    public void dedicatedHandlerBytesAreCountedTest() throws IOException {
+
+        final JsonConfig    jsonConfig    = consoleJsonConfig(Map.of("metrics.enable", "true"));
+        final StructuredLog structuredLog = getPrecomputedStructuredLog(jsonConfig);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonFileHandler       handler      = new JsonFileHandler(structuredLog, getJacksonJSONFactory(jsonConfig), outputStream, false);
+
+        for (int i = 0; i < RECORDS; i++) {
+            final ExtLogRecord record = new ExtLogRecord(INFO, "metrics record " + i, MetricsOutputTest.class.getName());
+            record.setLoggerName("loggerName");
+            handler.publish(record);
+        }
+        handler.close();
+
+        assertEquals(RECORDS, structuredLog.getFormatterMetrics().getRecordsFormatted());
+        assertTrue(outputStream.size() > 0);
+        assertEquals(outputStream.size(), structuredLog.getFormatterMetrics().getBytesProduced());
+    }
+
+    @Test
+    public void formattedRecordsAreCountedTest() throws JMException {
+
+        final long recordsBefore    = attribute("RecordsFormatted");
+        final long bytesBefore      = attribute("BytesProduced");
+        final long exceptionsBefore = attribute("ExceptionsRendered");
+        final long samplesBefore    = attribute("LatencySamples");
+
+        long bytes = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            final ExtLogRecord record = new ExtLogRecord(i == 0 ? ERROR : INFO, "metrics record " + i, MetricsOutputTest.class.getName());
+            record.setLoggerName("loggerName");
+            if (i == 0) {
+                record.setThrown(new IllegalStateException("boom"));
+            }
+            bytes += formatter.format(record).getBytes(UTF_8).length;
+        }
+
+        assertEquals(RECORDS, attribute("RecordsFormatted") - recordsBefore);
+        assertEquals(bytes, attribute("BytesProduced") - bytesBefore);
+        assertEquals(1, attribute("ExceptionsRendered") - exceptionsBefore);
+        assertEquals(RECORDS, attribute("LatencySamples") - samplesBefore);
+        assertEquals(0, attribute("SerializationFailures"));
+    }
+
+    @Test
+    public void latencyPercentilesAreOrderedTest() throws JMException {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "metrics record", MetricsOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        formatter.format(record);
+
+        final long p50 = attribute("LatencyP50Nanos");
+        final long p99 = attribute("LatencyP99Nanos");
+
+        assertTrue(p50 > 0);
+        assertTrue(p50 <= p99);
+        assertTrue(p99 <= attribute("LatencyP999Nanos"));
+        assertTrue(attribute("LatencyP999Nanos") <= attribute("LatencyMaxNanos"));
+    }
+
+    @Test
+    public void latencyWindowRotatesOutTest() throws InterruptedException {
+
+        final LatencyHistogram latencyHistogram = new LatencyHistogram(Duration.ofMillis(50));
+        latencyHistogram.record(1_000_000, System.nanoTime());
+
+        assertEquals(1, latencyHistogram.count());
+        assertEquals(1_000_000, latencyHistogram.max());
+
+        // two windows later, the latency is no longer reported
+        Thread.sleep(120);
+
+        assertEquals(0, latencyHistogram.count());
+        assertEquals(0, latencyHistogram.percentile(99));
+        assertEquals(0, latencyHistogram.max());
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.Arrays;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.QuarkusUnitTest;
+
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the formatter metrics bound to Micrometer when it is present: meters are read before and after formatting records, as startup logs
+ * are formatted too.
+ *
+ * @author BareMetalCode
+ */
+public class MicrometerMetricsOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-metrics.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class, MeterRegistryProducer.class));
+
+    static final int RECORDS = 10;
+
+    static Formatter formatter;
+
+    @Inject
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void setup() {
+
+        formatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                          .findFirst()
+                          .orElseThrow()
+                          .getFormatter();
+    }
+
+    private double counter(final String name) {
+
+        return meterRegistry.get(name).tag("output", "console").functionCounter().count();
+    }
+
+    @Test
+    public void disabledOutputsAreNotBoundTest() {
+
+        assertNull(meterRegistry.find("logging.json.records.formatted").tag("output", "file").meter());
+    }
+
+    @Test
+    public void formattedRecordsAreCountedTest() {
+
+        final double recordsBefore    = counter("logging.json.records.formatted");
+        final double bytesBefore      = counter("logging.json.bytes.produced");
+        final double exceptionsBefore = counter("logging.json.exceptions.rendered");
+
+        long bytes = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            final ExtLogRecord record = new ExtLogRecord(i == 0 ? ERROR : INFO, "metrics record " + i, MicrometerMetricsOutputTest.class.getName());
+            record.setLoggerName("loggerName");
+            if (i == 0) {
+                record.setThrown(new IllegalStateException("boom"));
+            }
+            bytes += formatter.format(record).getBytes(UTF_8).length;
+        }
+
+        assertEquals(RECORDS, counter("logging.json.records.formatted") - recordsBefore);
+        assertEquals(bytes, counter("logging.json.bytes.produced") - bytesBefore);
+        assertEquals(1, counter("logging.json.exceptions.rendered") - exceptionsBefore);
+        assertEquals(0, counter("logging.json.serialization.failures"));
+    }
+
+    @Test
+    public void latencyQuantilesAreOrderedTest() {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "metrics record", MicrometerMetricsOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        formatter.format(record);
+
+        final double p50 = meterRegistry.get("logging.json.latency").tags("output", "console", "quantile", "0.5").gauge().value();
+        final double p99 = meterRegistry.get("logging.json.latency").tags("output", "console", "quantile", "0.99").gauge().value();
+
+        assertTrue(p50 > 0);
+        assertTrue(p50 <= p99);
+        assertTrue(p99 <= meterRegistry.get("logging.json.latency.max").tag("output", "console").gauge().value());
+    }
+
+    /**
+     * Adds an in-memory registry to the Micrometer composite registry, as no registry extension is present.
+     */
+    public static class MeterRegistryProducer {
+
+        @Produces
+        @Singleton
+        SimpleMeterRegistry meterRegistry() {
+
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+}
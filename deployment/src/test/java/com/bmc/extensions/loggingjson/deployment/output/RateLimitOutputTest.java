@@ -0,0 +1,140 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.core.ratelimit.RecordRateLimiter.SUMMARY_LOGGER_NAME;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that records of a rate limited category are dropped once over budget, that other loggers are not limited, that dropped
+ * records are reported by a summary rendered before the next record allowed or as the handler closes, and that rates must be positive.
+ *
+ * @author BareMetalCode
+ */
+public class RateLimitOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-rate-limit.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class));
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    static final int          RECORDS       = 30;
+
+    static Formatter formatter;
+
+    @BeforeAll
+    static void setup() {
+
+        formatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                          .findFirst()
+                          .orElseThrow()
+                          .getFormatter();
+    }
+
+    private static String format(final String loggerName) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "rate limited message", RateLimitOutputTest.class.getName());
+        record.setLoggerName(loggerName);
+
+        return formatter.format(record);
+    }
+
+    @Test
+    public void negativeCategoryRateFailsTest() {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("rate-limit.categories.\"com.acme.negative\"", "-1"));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                                                                () -> getPrecomputedStructuredLog(jsonConfig));
+        assertTrue(exception.getMessage().contains("[com.acme.negative]"), exception.getMessage());
+    }
+
+    @Test
+    public void noisyCategoryIsLimitedAndSummarizedTest() throws InterruptedException, JsonProcessingException {
+
+        int rendered = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            rendered += format("com.acme.noisy.Service").isEmpty() ? 0 : 1;
+        }
+
+        // the bucket holds 5 records, and may refill one or two while the loop runs
+        assertTrue(rendered >= 5 && rendered <= 7, "rendered " + rendered);
+
+        Thread.sleep(400);
+
+        final String[] lines = format("com.acme.noisy.Service").split(System.lineSeparator());
+        assertEquals(2, lines.length);
+
+        final JsonNode summary = OBJECT_MAPPER.readTree(lines[0]);
+        assertEquals(SUMMARY_LOGGER_NAME, summary.get("loggerName").asText());
+        assertEquals(RECORDS - rendered, summary.get("message").get("droppedRecords").get("com.acme.noisy").asInt());
+        assertEquals("com.acme.noisy.Service", OBJECT_MAPPER.readTree(lines[1]).get("loggerName").asText());
+    }
+
+    @Test
+    public void otherLoggersAreNotLimitedTest() {
+
+        for (int i = 0; i < RECORDS; i++) {
+            assertTrue(format("com.acme.noisyish").startsWith("{"));
+            assertTrue(format("com.acme").startsWith("{"));
+        }
+    }
+
+    @Test
+    public void pendingSummaryIsRenderedAsTailTest() throws JsonProcessingException {
+
+        final JsonConfig    jsonConfig    = consoleJsonConfig(Map.of("rate-limit.categories.\"com.acme.flood\"", "1",
+                                                                     "rate-limit.summary-interval", "PT1H"));
+        final JsonFormatter jsonFormatter = new JsonFormatter(getPrecomputedStructuredLog(jsonConfig), getJacksonJSONFactory(jsonConfig));
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "flooding message", RateLimitOutputTest.class.getName());
+        record.setLoggerName("com.acme.flood");
+
+        int rendered = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            rendered += jsonFormatter.format(record).isEmpty() ? 0 : 1;
+        }
+
+        // the application goes quiet, the dropped records are only reported as the handler closes
+        final JsonNode summary = OBJECT_MAPPER.readTree(jsonFormatter.getTail(null));
+        assertEquals(SUMMARY_LOGGER_NAME, summary.get("loggerName").asText());
+        assertEquals(RECORDS - rendered, summary.get("message").get("droppedRecords").get("com.acme.flood").asInt());
+        assertEquals("", jsonFormatter.getTail(null));
+    }
+
+    @Test
+    public void zeroCategoryRateFailsTest() {
+
+        final JsonConfig jsonConfig = consoleJsonConfig(Map.of("rate-limit.categories.\"com.acme.zero\"", "0"));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                                                                () -> getPrecomputedStructuredLog(jsonConfig));
+        assertTrue(exception.getMessage().contains("[com.acme.zero]"), exception.getMessage());
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.FramedRecordWriter;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+import com.bmc.extensions.loggingjson.testutils.DummyAddressPOJO;
+import com.bmc.extensions.loggingjson.testutils.DummyPOJO;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.RecordEncoding.CBOR;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonBinaryFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.jboss.logmanager.Level.WARN;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing that long string values are truncated with their original length, and that records over the max record size are replaced, both
+ * streamed and rendered from maps, and by the dedicated file handler whatever its encoding.
+ *
+ * @author BareMetalCode
+ */
+public class RecordLimitsOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-record-limits.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class, DummyPOJO.class, DummyAddressPOJO.class));
+
+    static final ObjectMapper CBOR_MAPPER   = new ObjectMapper(new CBORFactory());
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    static final JsonConfig   LIMITS_CONFIG = consoleJsonConfig(Map.of("max-record-bytes", "4096", "max-string-length", "64"));
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    private static ExtLogRecord createRecord(final String message, final Object... parameters) {
+
+        final ExtLogRecord record = new ExtLogRecord(WARN, message, RecordLimitsOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        record.setParameters(parameters);
+
+        return record;
+    }
+
+    /**
+     * Formats the record with both formatters, asserts they render the same output, and returns it.
+     */
+    private static JsonNode formatBoth(final ExtLogRecord record) throws IOException {
+
+        final String streamed = streamedFormatter.format(record);
+
+        assertEquals(streamed, mappedFormatter.format(record));
+
+        return OBJECT_MAPPER.readTree(streamed);
+    }
+
+    /**
+     * Publishes an oversized record, then a normal one, to a dedicated file handler limited like the formatters.
+     */
+    private static byte[] publishOversized(final StructuredLog structuredLog, final JsonArrayState jsonArrayState,
+                                           final FramedRecordWriter framedRecordWriter) throws IOException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonFileHandler       handler      = new JsonFileHandler(structuredLog, getJacksonJSONFactory(LIMITS_CONFIG), outputStream,
+                                                                       jsonArrayState, framedRecordWriter);
+
+        handler.publish(createRecord("huge payload", logEntry(of("payload", Collections.nCopies(1_000, "item")))));
+        handler.publish(createRecord("next"));
+        handler.close();
+
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void clientObjectStringsAreTruncatedTest() throws IOException {
+
+        final DummyPOJO dummyPOJO = new DummyPOJO();
+        dummyPOJO.setDummyFistName("n".repeat(500));
+        dummyPOJO.setDummyLastName("doe");
+
+        final JsonNode payload = formatBoth(createRecord("ignored", logEntry(of("payload", dummyPOJO)))).get("message").get("payload");
+
+        assertEquals("n".repeat(64) + "...[truncated, 500 chars]", payload.get("dummyFistName").asText());
+        assertEquals("doe", payload.get("dummyLastName").asText());
+    }
+
+    @Test
+    public void dedicatedHandlerReplacesOversizedRecordTest() throws IOException {
+
+        final StructuredLog structuredLog = getPrecomputedStructuredLog(LIMITS_CONFIG);
+        structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+
+        final List<JsonNode> lines = new ArrayList<>();
+        for (final String line : new String(publishOversized(structuredLog, JsonArrayState.NONE, null), UTF_8).split("\\R")) {
+            lines.add(OBJECT_MAPPER.readTree(line));
+        }
+
+        final JsonNode array = OBJECT_MAPPER.readTree(publishOversized(structuredLog, JsonArrayState.NEW, null));
+
+        final List<JsonNode> frames = new ArrayList<>();
+        final byte[]         framed = publishOversized(structuredLog, JsonArrayState.NONE,
+                                                       new FramedRecordWriter(structuredLog, getJacksonBinaryFactory(LIMITS_CONFIG, CBOR)));
+        try (DataInputStream frameStream = new DataInputStream(new ByteArrayInputStream(framed))) {
+            while (frameStream.available() > 0) {
+                frames.add(CBOR_MAPPER.readTree(frameStream.readNBytes(frameStream.readInt())));
+            }
+        }
+
+        for (final List<JsonNode> written : List.of(lines, List.of(array.get(0), array.get(1)), frames)) {
+            assertEquals(2, written.size());
+            assertEquals("[oversized record, over 4096 bytes] huge payload", written.get(0).get("message").asText());
+            assertEquals("WARN", written.get(0).get("level").asText());
+            assertEquals("next", written.get(1).get("message").asText());
+        }
+        assertEquals(2, array.size());
+    }
+
+    @Test
+    public void longMessageIsTruncatedTest() throws IOException {
+
+        final JsonNode rendered = formatBoth(createRecord("m".repeat(10_000)));
+
+        assertEquals("m".repeat(64) + "...[truncated, 10000 chars]", rendered.get("message").asText());
+    }
+
+    @Test
+    public void oversizedRecordIsReplacedTest() throws IOException {
+
+        final JsonNode replaced = formatBoth(createRecord("huge payload", logEntry(of("payload", Collections.nCopies(1_000, "item")))));
+
+        assertEquals("[oversized record, over 4096 bytes] huge payload", replaced.get("message").asText());
+        assertEquals("WARN", replaced.get("level").asText());
+        assertEquals("loggerName", replaced.get("loggerName").asText());
+
+        // the output that went over the limit is dropped, the next record renders normally
+        assertEquals("next", formatBoth(createRecord("next")).get("message").asText());
+    }
+
+    @Test
+    public void readerRawAndBinaryValuesAreTruncatedTest() throws IOException {
+
+        final JsonFactory  jsonFactory = getJacksonJSONFactory(LIMITS_CONFIG);
+        final StringWriter writer      = new StringWriter();
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartArray();
+            generator.writeString(new StringReader("r".repeat(100)), -1);
+            generator.writeString(new StringReader("k".repeat(100)), 100);
+            generator.writeString(new StringReader("short"), -1);
+            generator.writeRawValue("[" + "1,".repeat(50) + "1]");
+            generator.writeRawValue("[1]");
+            generator.writeBinary(new byte[100]);
+            generator.writeBinary(new ByteArrayInputStream(new byte[100]), -1);
+            generator.writeBinary(new ByteArrayInputStream(new byte[100]), 100);
+            generator.writeBinary(new byte[10]);
+            generator.writeEndArray();
+        }
+
+        final JsonNode values          = OBJECT_MAPPER.readTree(writer.toString());
+        final String   truncatedBinary = Base64.getEncoder().encodeToString(new byte[64]) + "...[truncated, 100 bytes]";
+
+        assertEquals("r".repeat(64) + "...[truncated, 100 chars]", values.get(0).asText());
+        assertEquals("k".repeat(64) + "...[truncated, 100 chars]", values.get(1).asText());
+        assertEquals("short", values.get(2).asText());
+        assertEquals(("[" + "1,".repeat(50)).substring(0, 64) + "...[truncated, 103 chars]", values.get(3).asText());
+        assertEquals(OBJECT_MAPPER.readTree("[1]"), values.get(4));
+        assertEquals(truncatedBinary, values.get(5).asText());
+        assertEquals(truncatedBinary, values.get(6).asText());
+        assertEquals(truncatedBinary, values.get(7).asText());
+        assertArrayEquals(new byte[10], values.get(8).binaryValue());
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.Arrays;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testing that recycled generators and buffers produce exactly the same output as fresh ones, record after record.
+ * <p>
+ * The console formatter recycles its buffers with a small cap, the file formatter does not, both share every other configuration option.
+ *
+ * @author BareMetalCode
+ */
+public class RecycleBuffersOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-recycle-buffers.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class));
+
+    static Formatter freshFormatter;
+    static Formatter recycledFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        recycledFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        freshFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                               .findFirst()
+                               .orElseThrow()
+                               .getFormatter();
+    }
+
+    @Test
+    public void recycledOutputMatchesFreshOutputTest() {
+
+        final String[] messages = {"first message", "x".repeat(4096), "message after an oversized record", "last message"};
+
+        for (final String message : messages) {
+            final ExtLogRecord record = new ExtLogRecord(INFO, message, getClass().getName());
+            record.setLoggerName("loggerName");
+
+            assertEquals(freshFormatter.format(record), recycledFormatter.format(record));
+        }
+    }
+
+}
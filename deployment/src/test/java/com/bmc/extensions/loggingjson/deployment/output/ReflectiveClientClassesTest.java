@@ -0,0 +1,63 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.List;
+import java.util.Map;
+
+import com.bmc.extensions.loggingjson.deployment.ReflectiveClientClasses;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Map.entry;
+import static java.util.Map.ofEntries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing the resolution of the client classes registered for reflection from the configuration visible to the build.
+ *
+ * @author BareMetalCode
+ */
+public class ReflectiveClientClassesTest {
+
+    private static SmallRyeConfig config(final Map<String, String> properties) {
+
+        return new SmallRyeConfigBuilder().withSources(new PropertiesConfigSource(properties, "test", 500)).build();
+    }
+
+    @Test
+    public void customSerializersOfEveryOutputAreResolvedOnceTest() {
+
+        final SmallRyeConfig config = config(ofEntries(
+                entry("quarkus.log.console.json.client-serializers.custom-serializers.id", "org.acme.IdSerializer"),
+                entry("quarkus.log.console.json.client-serializers.custom-serializers.money", "org.acme.MoneySerializer"),
+                entry("quarkus.log.file.json.client-serializers.custom-serializers.id", " org.acme.IdSerializer "),
+                entry("quarkus.log.console.json.client-serializers.instant-format", "yyyy"),
+                entry("quarkus.other.custom-serializers.id", "org.acme.OtherSerializer")));
+
+        assertEquals(List.of("org.acme.IdSerializer", "org.acme.MoneySerializer"),
+                     ReflectiveClientClasses.customSerializers(config).stream().sorted().toList());
+    }
+
+    @Test
+    public void nothingIsResolvedWithoutClientClassesTest() {
+
+        final SmallRyeConfig config = config(Map.of("quarkus.log.console.json.pretty-print", "true"));
+
+        assertTrue(ReflectiveClientClasses.customSerializers(config).isEmpty());
+        assertTrue(ReflectiveClientClasses.warmUpClasses(config).isEmpty());
+    }
+
+    @Test
+    public void warmUpClassesOfEveryOutputAreResolvedOnceTest() {
+
+        final SmallRyeConfig config = config(Map.of("quarkus.log.console.json.client-serializers.warm-up-classes", "org.acme.Order,org.acme.Customer",
+                                                     "quarkus.log.file.json.client-serializers.warm-up-classes", "org.acme.Order"));
+
+        assertEquals(List.of("org.acme.Order", "org.acme.Customer"), ReflectiveClientClasses.warmUpClasses(config));
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that the dedicated file handler refuses to start when the standard file handler is enabled and writes to the same file.
+ *
+ * @author BareMetalCode
+ */
+public class SharedFileHandlerTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-shared-file-handler.properties")
+            .assertException(throwable -> {
+                Throwable cause = throwable;
+                while (!(cause instanceof IllegalArgumentException) && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertTrue(cause.getMessage().contains("both write to"), cause::toString);
+            });
+
+    @Test
+    public void sharedFileFailsStartupTest() {
+        // the startup failure is asserted by the extension
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceCache;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ThrowableFingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Testing rendered stack traces are reused for equal exceptions thrown from the same place, and only for them.
+ *
+ * @author BareMetalCode
+ */
+public class StackTraceCacheTest {
+
+    /**
+     * Creates one throwable per message and cause pair, all with the same frames.
+     */
+    private static List<Throwable> throwFromSamePlace(final String[] messages, final Throwable[] causes) {
+
+        return IntStream.range(0, messages.length).<Throwable>mapToObj(i -> new IllegalStateException(messages[i], causes[i])).toList();
+    }
+
+    @Test
+    public void framesAreRenderedOncePerPlaceTest() {
+
+        final StackTraceCache cache    = new StackTraceCache(16);
+        final AtomicInteger   renders  = new AtomicInteger();
+        final List<Throwable> repeated = throwFromSamePlace(new String[]{"first", "second"}, new Throwable[2]);
+
+        final Object first  = cache.renderFrames(repeated.get(0), frames -> renders.incrementAndGet() + ":" + frames.length);
+        final Object second = cache.renderFrames(repeated.get(1), frames -> renders.incrementAndGet() + ":" + frames.length);
+        final Object other  = cache.renderFrames(new IllegalStateException("first"), frames -> renders.incrementAndGet() + ":" + frames.length);
+
+        assertSame(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    public void tracesDifferByMessageAndCauseTest() {
+
+        final IllegalArgumentException cause      = new IllegalArgumentException("cause");
+        final String[]                 messages   = {"message", "message", "other message", "message"};
+        final Throwable[]              causes     = {cause, cause, cause, new IllegalArgumentException("other cause")};
+        final List<Throwable>          throwables = throwFromSamePlace(messages, causes);
+
+        assertEquals(ThrowableFingerprint.ofTrace(throwables.get(0)), ThrowableFingerprint.ofTrace(throwables.get(1)));
+        assertNotEquals(ThrowableFingerprint.ofTrace(throwables.get(0)), ThrowableFingerprint.ofTrace(throwables.get(2)));
+        assertNotEquals(ThrowableFingerprint.ofTrace(throwables.get(0)), ThrowableFingerprint.ofTrace(throwables.get(3)));
+
+        for (final Throwable throwable : throwables) {
+            assertEquals(ThrowableFingerprint.ofFrames(throwables.get(0)), ThrowableFingerprint.ofFrames(throwable));
+        }
+    }
+
+    @Test
+    public void circularCausesAreFingerprintedTest() {
+
+        final IllegalStateException    first  = new IllegalStateException("first");
+        final IllegalArgumentException second = new IllegalArgumentException("second", first);
+        first.initCause(second);
+
+        assertEquals(ThrowableFingerprint.ofTrace(first), ThrowableFingerprint.ofTrace(first));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceFrames;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import static com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail.*;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the direct rendering of stack trace frames against Jackson's bean serialization of {@link StackTraceElement}.
+ *
+ * @author BareMetalCode
+ */
+public class StackTraceFramesTest {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().setSerializationInclusion(NON_NULL);
+
+    static final StackTraceElement[] FRAMES = {
+            new Throwable().getStackTrace()[0],
+            new StackTraceElement("app", "java.base", "21", "java.lang.Thread", "run", "Thread.java", 1583),
+            new StackTraceElement(null, null, null, "jdk.internal.misc.Unsafe", "park", null, -2),
+            new StackTraceElement("org.acme.Generated", "apply", null, -1)
+    };
+
+    @Test
+    public void classMethodLineFramesAreLimitedAndUseFrameKeysTest() throws JsonProcessingException {
+
+        final JsonNode output = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(new StackTraceFrames(FRAMES, CLASS_METHOD_LINE, 2)));
+
+        assertEquals(2, output.size());
+        assertEquals(List.of("class", "line", "method"), fieldNames(output.get(1)));
+        assertEquals("java.lang.Thread", output.get(1).get("class").asText());
+        assertEquals(1583, output.get(1).get("line").asInt());
+        assertEquals("run", output.get(1).get("method").asText());
+    }
+
+    @Test
+    public void fullFramesMatchJacksonBeanSerializationTest() throws JsonProcessingException {
+
+        assertEquals(OBJECT_MAPPER.writeValueAsString(FRAMES), OBJECT_MAPPER.writeValueAsString(new StackTraceFrames(FRAMES, FULL, FRAMES.length)));
+        assertEquals(OBJECT_MAPPER.writeValueAsString(Arrays.copyOf(FRAMES, 1)),
+                     OBJECT_MAPPER.writeValueAsString(new StackTraceFrames(FRAMES, FULL, 1)));
+    }
+
+    @Test
+    public void otherDetailsAreRejectedTest() {
+
+        assertThrows(IllegalArgumentException.class, () -> new StackTraceFrames(FRAMES, ONE_LINER, FRAMES.length));
+    }
+
+    private static List<String> fieldNames(final JsonNode node) {
+
+        final List<String> fieldNames = new ArrayList<>();
+        node.fieldNames().forEachRemaining(fieldNames::add);
+
+        return fieldNames;
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.testutils.DummyAddressPOJO;
+import com.bmc.extensions.loggingjson.testutils.DummyPOJO;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testing that streaming fields produces exactly the same output as the map based rendering.
+ * <p>
+ * The console formatter streams fields, the file formatter populates maps, both share every other configuration option.<br>
+ * Keys the streamed path pre-encodes are also checked against the map path, byte for byte, with overrides that need escaping or are
+ * dotted ECS names.
+ *
+ * @author BareMetalCode
+ */
+public class StreamFieldsOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-stream-fields.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClass(TestUtils.class))
+            .withAdditionalDependency(javaArchive -> javaArchive.addClass(DummyPOJO.class))
+            .withAdditionalDependency(javaArchive -> javaArchive.addClass(DummyAddressPOJO.class));
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "printf", "structured", "mdc", "exception"})
+    public void streamedOutputMatchesMappedOutputTest(final String recordShape) {
+
+        final ExtLogRecord record = createRecord(recordShape);
+
+        assertEquals(mappedFormatter.format(record), streamedFormatter.format(record));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "printf", "structured", "mdc", "exception"})
+    public void escapedKeyOverridesMatchMappedOutputTest(final String recordShape) throws IOException {
+
+        final ExtLogRecord record    = createRecord(recordShape);
+        final String       streamed = ecsFormatter(true).format(record);
+
+        assertArrayEquals(ecsFormatter(false).format(record).getBytes(UTF_8), streamed.getBytes(UTF_8));
+
+        final JsonNode rendered = new ObjectMapper().readTree(streamed);
+        assertTrue(rendered.has("the \"message\"\t"));
+        assertEquals(record.getLevel().getName(), rendered.get("nível_ñ_日志").asText());
+        assertEquals("loggerName", rendered.get("log.logger").asText());
+        assertEquals("logs", rendered.get("data_stream.type").asText());
+    }
+
+    @Test
+    public void exceptionFramesAreLimitedTest() throws IOException {
+
+        final ExtLogRecord record    = createRecord("exception");
+        final JsonNode     exception = new ObjectMapper().readTree(streamedFormatter.format(record)).get("exception");
+
+        assertEquals(5, exception.get("stackTrace").size());
+        assertEquals(record.getThrown().getStackTrace().length - 5, exception.get("framesOmitted").asInt());
+    }
+
+    /**
+     * Creates a standalone ECS formatter whose message and level keys are overridden with names JSON must escape or encode as UTF-8, and
+     * whose logger name key is overridden with its dotted ECS name.
+     */
+    private static JsonFormatter ecsFormatter(final boolean streamFields) {
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("log-format", "ECS");
+        properties.put("key-overrides.message", "the \"message\"\t");
+        properties.put("key-overrides.level", "nível_ñ_日志");
+        properties.put("key-overrides.loggerName", "log.logger");
+        properties.put("stream-fields", String.valueOf(streamFields));
+
+        final JsonConfig jsonConfig = consoleJsonConfig(properties);
+
+        return new JsonFormatter(getPrecomputedStructuredLog(jsonConfig), getJacksonJSONFactory(jsonConfig));
+    }
+
+    private ExtLogRecord createRecord(final String recordShape) {
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "plain message", getClass().getName());
+        record.setLoggerName("loggerName");
+
+        switch (recordShape) {
+            case "printf" -> {
+                record.setMessage("printf message %s %d");
+                record.setParameters(new Object[]{"param", 1});
+            }
+            case "structured" -> {
+                final DummyPOJO dummyPOJO = new DummyPOJO();
+                dummyPOJO.setDummyFistName("John");
+                dummyPOJO.setDummyAddress(new DummyAddressPOJO());
+                record.setParameters(new Object[]{logEntry(of("dummyPojo", dummyPOJO), of("id", 12))});
+            }
+            case "mdc" -> record.setMdc(Map.of("mdcKey_01", "mdcValue_01", "mdcKey_02", "mdcValue_02"));
+            case "exception" -> {
+                record.setLevel(ERROR);
+                record.setThrown(new IllegalStateException("boom", new IllegalArgumentException("cause")));
+            }
+            default -> { }
+        }
+
+        return record;
+    }
+
+}
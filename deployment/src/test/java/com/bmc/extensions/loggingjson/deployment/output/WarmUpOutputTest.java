@@ -0,0 +1,140 @@
+package com.bmc.extensions.loggingjson.deployment.output;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Formatter;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.testutils.TestUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.ConsoleHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.runtime.utils.WarmUpUtils.warmUpIfEnabled;
+import static com.bmc.extensions.loggingjson.testutils.TestUtils.consoleJsonConfig;
+import static io.quarkus.bootstrap.logging.InitialConfigurator.DELAYED_HANDLER;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing that the serializers of warm-up classes are built when the formatters are created, not when a record first logs them.
+ * <p>
+ * The warm-up class serializer counts its instances: Jackson creates one when it builds the serializer of the class, and reuses it afterward.<br>
+ * Both outputs configure client serializers equally, so they share one mapper and the serializer is built only once.
+ * <p>
+ * Warm-up records must leave no trace in the state real records share: metrics, rate limiter and exception throttle.
+ *
+ * @author BareMetalCode
+ */
+public class WarmUpOutputTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest QUARKUS_UNIT_TEST = new QuarkusUnitTest()
+            .withConfigurationResource("application-warm-up.properties")
+            .withApplicationRoot(javaArchive -> javaArchive.addClasses(TestUtils.class, WarmUpPOJO.class, WarmUpPOJOSerializer.class));
+
+    static final ObjectMapper  OBJECT_MAPPER       = new ObjectMapper();
+    static final AtomicInteger SERIALIZERS_CREATED = new AtomicInteger();
+
+    static Formatter mappedFormatter;
+    static Formatter streamedFormatter;
+
+    @BeforeAll
+    static void setup() {
+
+        streamedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof ConsoleHandler)
+                                  .findFirst()
+                                  .orElseThrow()
+                                  .getFormatter();
+
+        mappedFormatter = Arrays.stream(DELAYED_HANDLER.getHandlers()).filter(handler -> handler instanceof FileHandler)
+                                .findFirst()
+                                .orElseThrow()
+                                .getFormatter();
+    }
+
+    @Test
+    public void warmUpClassSerializersAreBuiltAtStartupTest() throws IOException {
+
+        final int serializersCreatedAtStartup = SERIALIZERS_CREATED.get();
+
+        final ExtLogRecord record = new ExtLogRecord(INFO, "warm", WarmUpOutputTest.class.getName());
+        record.setLoggerName("loggerName");
+        record.setParameters(new Object[]{logEntry(of("warmUp", new WarmUpPOJO()))});
+
+        final String streamed = streamedFormatter.format(record);
+
+        assertEquals(1, serializersCreatedAtStartup);
+        assertEquals(mappedFormatter.format(record), streamed);
+        assertEquals("warmed", OBJECT_MAPPER.readTree(streamed).get("message").get("warmUp").asText());
+        assertEquals(serializersCreatedAtStartup, SERIALIZERS_CREATED.get());
+    }
+
+    @Test
+    public void warmUpRecordsLeaveNoSharedStateTest() throws IOException {
+
+        final JsonConfig    jsonConfig    = consoleJsonConfig(Map.of("warm-up-records", "60",
+                                                                     "metrics.enable", "true",
+                                                                     "exceptions.throttle-window", "PT1H",
+                                                                     "rate-limit.categories.\"com.bmc.extensions.loggingjson\"", "1",
+                                                                     "stream-fields", "true"));
+        final StructuredLog structuredLog = getPrecomputedStructuredLog(jsonConfig);
+
+        warmUpIfEnabled(structuredLog, getJacksonJSONFactory(jsonConfig));
+
+        assertEquals(0, structuredLog.getFormatterMetrics().getRecordsFormatted());
+        assertEquals(0, structuredLog.getFormatterMetrics().getLatencySamples());
+        assertNull(structuredLog.getExceptionThrottle().finalSummary());
+
+        final ExtLogRecord record = new ExtLogRecord(ERROR, "real", WarmUpOutputTest.class.getName());
+        record.setLoggerName("com.bmc.extensions.loggingjson.warmup");
+        record.setThrown(new IllegalStateException("real exception"));
+
+        final String formatted = new JsonFormatter(structuredLog, getJacksonJSONFactory(jsonConfig)).format(record);
+
+        assertFalse(formatted.isEmpty(), "the rate limited category still has its budget");
+        assertEquals("real", OBJECT_MAPPER.readTree(formatted).get("message").asText());
+        assertEquals(1, structuredLog.getFormatterMetrics().getRecordsFormatted());
+    }
+
+    @JsonSerialize(using = WarmUpPOJOSerializer.class)
+    public static class WarmUpPOJO {
+
+    }
+
+    public static class WarmUpPOJOSerializer extends JsonSerializer<WarmUpPOJO> {
+
+        public WarmUpPOJOSerializer() {
+
+            SERIALIZERS_CREATED.incrementAndGet();
+        }
+
+        @Override
+        public void serialize(final WarmUpPOJO value, final JsonGenerator generator, final SerializerProvider serializers) throws IOException {
+
+            generator.writeString("warmed");
+        }
+
+    }
+
+}
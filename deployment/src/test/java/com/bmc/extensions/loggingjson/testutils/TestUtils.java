@@ -1,11 +1,17 @@
 package com.bmc.extensions.loggingjson.testutils;
 
 import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
 import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
 import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
 
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
 /**
  * Testing utilities.
  *
@@ -15,6 +21,28 @@ public class TestUtils {
 
     private TestUtils() {}
 
+    /**
+     * Maps a standalone console {@link JsonConfig}, independent of the application's, to build templates a test cannot start an application
+     * with.
+     *
+     * @param properties properties relative to {@code quarkus.log.console.json}, i.e.: {@code mdc.promoted-keys=traceId}
+     *
+     * @return the console JSON configuration, with defaults for everything else.
+     */
+    public static JsonConfig consoleJsonConfig(final Map<String, String> properties) {
+
+        final Map<String, String> prefixedProperties = properties.entrySet().stream()
+                                                                 .collect(Collectors.toMap(entry -> "quarkus.log.console.json." + entry.getKey(),
+                                                                                           Map.Entry::getValue));
+
+        return new SmallRyeConfigBuilder().withMapping(JsonLogConfig.class)
+                                          .withValidateUnknown(false)
+                                          .withSources(new PropertiesConfigSource(prefixedProperties, "test-utils", 500))
+                                          .build()
+                                          .getConfigMapping(JsonLogConfig.class)
+                                          .consoleJson();
+    }
+
     /**
      * Retrieves a {@link JsonConfig} from a {@link JsonFormatter}.
      *
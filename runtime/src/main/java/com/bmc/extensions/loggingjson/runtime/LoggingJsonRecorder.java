@@ -1,8 +1,11 @@
 package com.bmc.extensions.loggingjson.runtime;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Formatter;
+import java.util.logging.Handler;
 
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
 import com.bmc.extensions.loggingjson.runtime.config.JsonLogConfig;
 import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
@@ -12,9 +15,15 @@ import com.fasterxml.jackson.core.JsonFactory;
 
 import io.quarkus.runtime.RuntimeValue;
 import io.quarkus.runtime.annotations.Recorder;
+import io.quarkus.runtime.metrics.MetricsFactory;
 
+import static com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode.FORMATTER;
 import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JsonFileHandlerFactory.getJsonFileHandler;
 import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.runtime.utils.MetricsUtils.bindMetrics;
+import static com.bmc.extensions.loggingjson.runtime.utils.MetricsUtils.registerMetricsIfEnabled;
+import static com.bmc.extensions.loggingjson.runtime.utils.WarmUpUtils.warmUpIfEnabled;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
@@ -56,22 +65,77 @@ public class LoggingJsonRecorder {
     public RuntimeValue<Optional<Formatter>> getJsonFormatterForLogOutputType(final LogOutput logOutput) {
 
         return switch (logOutput) {
-            case FILE -> createJsonFormater(runtimeJsonConfig.getValue().fileJson());
-            case CONSOLE -> createJsonFormater(runtimeJsonConfig.getValue().consoleJson());
+            case FILE -> isDedicatedFileHandlerEnabled(runtimeJsonConfig.getValue().fileJson())
+                         ? new RuntimeValue<>(empty())
+                         : createJsonFormater(runtimeJsonConfig.getValue().fileJson(), logOutput);
+            case CONSOLE -> createJsonFormater(runtimeJsonConfig.getValue().consoleJson(), logOutput);
         };
     }
 
     /**
-     * Creates a JSON formatter based on the provided JSON configuration.
+     * Creates the dedicated JSON file handler, writing records to the file itself instead of formatting them for the standard file handler.
+     * <p>
+     * The dedicated handler and the file formatter are mutually exclusive: when one is created, the other is not.
+     *
+     * @return a {@link RuntimeValue} containing an {@link Optional} {@link Handler}.
+     * The optional will contain a handler if JSON file logging is enabled with an output mode other than
+     * {@link com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode#FORMATTER}; otherwise, it will be empty.
+     */
+    public RuntimeValue<Optional<Handler>> getDedicatedJsonFileHandler() {
+
+        final FileJsonConfig fileJsonConfig = runtimeJsonConfig.getValue().fileJson();
+
+        if (!isDedicatedFileHandlerEnabled(fileJsonConfig)) {
+            return new RuntimeValue<>(empty());
+        }
+
+        return new RuntimeValue<>(of(getJsonFileHandler(fileJsonConfig)));
+    }
+
+    /**
+     * Creates the binder of the formatter metrics to the metrics extension present, e.g. Micrometer, for every JSON output with metrics enabled.
+     * <p>
+     * The JMX MXBeans are registered whether a metrics extension is present or not.
+     *
+     * @return a consumer binding the metrics of the enabled outputs to the {@link MetricsFactory} it is given.
+     */
+    public Consumer<MetricsFactory> getFormatterMetricsBinder() {
+
+        final JsonLogConfig jsonLogConfig = runtimeJsonConfig.getValue();
+
+        return metricsFactory -> {
+            if (isMetricsEnabled(jsonLogConfig.consoleJson())) {
+                bindMetrics(metricsFactory, LogOutput.CONSOLE);
+            }
+            if (isMetricsEnabled(jsonLogConfig.fileJson())) {
+                bindMetrics(metricsFactory, LogOutput.FILE);
+            }
+        };
+    }
+
+    private static boolean isDedicatedFileHandlerEnabled(final FileJsonConfig fileJsonConfig) {
+
+        return fileJsonConfig.enable() && fileJsonConfig.handler().outputMode() != FORMATTER;
+    }
+
+    private static boolean isMetricsEnabled(final JsonConfig jsonConfig) {
+
+        return jsonConfig.enable() && jsonConfig.metrics().enable();
+    }
+
+    /**
+     * Creates a JSON formatter based on the provided JSON configuration, warmed up with synthetic records if so configured, and registers its
+     * metrics if enabled.
      *
      * @param jsonConfig the {@link JsonConfig} for creating a {@link JsonFormatter}, specifying options additional fields,
      *                   pretty-printing, key overrides, serializers client configuration etc...
+     * @param logOutput  the output the formatter renders for, naming its metrics.
      *
      * @return a {@link RuntimeValue} containing an optional {@link Formatter}.<br>
      * If JSON formatting is disabled in the configuration, it returns an {@link Optional#empty()}, otherwise, it returns an optional containing a
      * {@link JsonFormatter} instance.
      */
-    private RuntimeValue<Optional<Formatter>> createJsonFormater(final JsonConfig jsonConfig) {
+    private RuntimeValue<Optional<Formatter>> createJsonFormater(final JsonConfig jsonConfig, final LogOutput logOutput) {
 
         if (!jsonConfig.enable()) {
             return new RuntimeValue<>(empty());
@@ -81,6 +145,9 @@ public class LoggingJsonRecorder {
         final JsonFactory   jsonFactory   = getJacksonJSONFactory(jsonConfig);
         final JsonFormatter jsonFormatter = new JsonFormatter(structuredLog, jsonFactory);
 
+        warmUpIfEnabled(structuredLog, jsonFactory);
+        registerMetricsIfEnabled(structuredLog, logOutput);
+
         return new RuntimeValue<>(of(jsonFormatter));
     }
 
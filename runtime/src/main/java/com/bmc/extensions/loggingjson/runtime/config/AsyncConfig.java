@@ -0,0 +1,39 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithParentName;
+
+/**
+ * Asynchronous Writing Configuration Section.
+ * <p>
+ * Mirrors the Quarkus {@code quarkus.log.file.async} options, for the dedicated JSON file handler.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface AsyncConfig {
+
+    /**
+     * Hand records over to a background writer thread instead of writing them on the logging thread.
+     */
+    @WithParentName
+    @WithDefault("false")
+    boolean enable();
+
+    /**
+     * What to do when the queue is full: {@link OverflowAction#BLOCK} the logging thread until there is room, or {@link OverflowAction#DISCARD}
+     * the record.
+     */
+    @WithDefault("BLOCK")
+    OverflowAction overflow();
+
+    /**
+     * The number of records the queue can hold, rounded up to the next power of two.
+     */
+    @WithDefault("8192")
+    int queueLength();
+
+}
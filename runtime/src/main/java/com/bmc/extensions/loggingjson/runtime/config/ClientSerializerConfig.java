@@ -2,11 +2,13 @@ package com.bmc.extensions.loggingjson.runtime.config;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import io.quarkus.runtime.annotations.ConfigDocMapKey;
 import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
 
 /**
  * Interface In charge of client application serialization configuration.
@@ -35,6 +37,15 @@ public interface ClientSerializerConfig {
     @ConfigDocMapKey("serializer-name")
     Map<String, String> customSerializers();
 
+    /**
+     * Detect client objects being written again inside themselves, i.e. bidirectional entity relations, and write {@code "[cycle]"} in
+     * their place instead of recursing until serialization fails.
+     * <p>
+     * Detection is by identity and only tracks the objects being written, so an object referenced twice side by side is written twice.
+     */
+    @WithDefault("false")
+    boolean detectCycles();
+
     /**
      * Convenience formatter for client app {@link Instant} instances using {@link DateTimeFormatter} string patterns.
      *
@@ -63,6 +74,35 @@ public interface ClientSerializerConfig {
      */
     Optional<String> localTimeFormat();
 
+    /**
+     * The largest number of elements written for a client collection, array or map.
+     * <p>
+     * Bigger ones are written with their first elements followed by a {@code "...N more"} element, or a {@code "..."} entry whose value is
+     * {@code "N more"} for maps.
+     * <p>
+     * Defaults to 0, which disables the limit.
+     */
+    @WithDefault("0")
+    int maxCollectionElements();
+
+    /**
+     * The deepest nesting level written for client objects, the values passed to a structured log entry being at level 1.
+     * <p>
+     * Objects, collections and maps nested deeper are written as {@code "[max depth]"}.
+     * <p>
+     * Defaults to 0, which disables the limit.
+     */
+    @WithDefault("0")
+    int maxDepth();
+
+    /**
+     * Client app classes whose serializers are resolved when the formatter is created, using their fully qualified names.
+     * <p>
+     * Jackson introspects a class and builds its serializer the first time an instance is serialized: listing the classes logged through
+     * structured arguments moves that cost from the first request logging them to startup.
+     */
+    Optional<List<String>> warmUpClasses();
+
     /**
      * Convenience formatter for client app {@link ZonedDateTime} instances using {@link DateTimeFormatter} string patterns.
      *
@@ -1,5 +1,8 @@
 package com.bmc.extensions.loggingjson.runtime.config;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail;
 
 import io.quarkus.runtime.annotations.ConfigGroup;
@@ -27,6 +30,16 @@ public interface ExceptionConfig {
     @WithDefault("ONE_LINER")
     StackTraceDetail exceptionDetail();
 
+    /**
+     * The maximum number of frames rendered for the stack trace inside the exception field, the outermost frames being left out.
+     * <p>
+     * When frames are left out, their number is rendered in the {@code framesOmitted} field of the exception.<br>
+     * Applies to {@link StackTraceDetail#ONE_LINER}, {@link StackTraceDetail#CLASS_METHOD_LINE} and {@link StackTraceDetail#FULL}.<br>
+     * Defaults to 0, which renders every frame.
+     */
+    @WithDefault("0")
+    int exceptionMaxFrames();
+
     /**
      * Depth of the Suppressed StackTrace to print if any is present.
      * <p>
@@ -35,6 +48,39 @@ public interface ExceptionConfig {
     @WithDefault("0")
     int exceptionSTSuppressedDepth();
 
+    /**
+     * The maximum number of rendered stack traces kept for reuse, so that an exception logged over and over is only rendered once.
+     * <p>
+     * Renderings are looked up by the exception class and frames, plus messages, causes and suppressed exceptions for the classic
+     * rendering.<br>
+     * Defaults to 256, 0 disables caching.
+     */
+    @WithDefault("256")
+    int stackTraceCacheSize();
+
+    /**
+     * The window within which an exception is rendered in full only once.
+     * <p>
+     * The first occurrence of an exception, told apart by its class and frames, is rendered in full with a reference id.<br>
+     * Later occurrences within the window only carry the exception type, message and the reference id of the full one.<br>
+     * The first occurrence after the window is rendered in full again, along with the number of occurrences the previous window suppressed.
+     * <p>
+     * The windows of an exception that stops occurring, or evicted to track new exceptions, are reported by a summary record rendered after
+     * the next record of any kind, at most once per window and once a whole window went by after they expired, and by a final summary when
+     * the handler closes.
+     * <p>
+     * Not set by default, which renders every occurrence in full.
+     */
+    Optional<Duration> throttleWindow();
+
+    /**
+     * The maximum number of distinct exceptions tracked by the throttle window.
+     * <p>
+     * Defaults to 1024.
+     */
+    @WithDefault("1024")
+    int throttleMaxExceptions();
+
     /**
      * Controls if the stacktrace is shown as a separate field.
      * <p>
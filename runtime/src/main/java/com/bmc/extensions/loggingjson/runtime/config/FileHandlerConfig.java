@@ -0,0 +1,105 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import java.nio.file.Path;
+
+import com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode;
+import com.bmc.extensions.loggingjson.runtime.models.enums.RecordEncoding;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Dedicated JSON File Handler Configuration Section.
+ * <p>
+ * Any output mode other than {@link FileOutputMode#FORMATTER} replaces the formatter given to the standard Quarkus file handler with a handler
+ * of this extension writing the file itself.<br>
+ * The standard file handler keeps writing plain text to its own path, so startup fails if it is enabled and the dedicated handler writes to
+ * the same file, which it does by default: disable it ({@code quarkus.log.file.enable=false}) or give the dedicated handler its own
+ * {@code path}.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface FileHandlerConfig {
+
+    /**
+     * Write records from a background thread, fed through a lock-free ring buffer, so the logging thread never waits on disk I/O.
+     * <p>
+     * Records pending in the buffer are written before the handler closes.
+     */
+    AsyncConfig async();
+
+    /**
+     * The size in bytes of the direct buffer records are written into before being drained to the file.
+     */
+    @WithDefault("65536")
+    int bufferSize();
+
+    /**
+     * How records are encoded in the file.
+     * <p>
+     * {@link RecordEncoding#JSON}: records are written as UTF-8 JSON text, followed by the record delimiter and a new line.<br>
+     * {@link RecordEncoding#CBOR} and {@link RecordEncoding#SMILE}: the same template is rendered through Jackson's binary generator of
+     * that format, every record being written as a frame: its length in bytes, as a 4 bytes big-endian integer, followed by the record as a
+     * standalone document.<br>
+     * Binary records are never pretty printed nor delimited, and cannot be written as a JSON array.
+     * <p>
+     * Standalone frames are a deliberate trade-off for Smile: every frame repeats the Smile header, and its shared name and value
+     * back-references only point within the same record, so the field names all records have are written in full in each frame.<br>
+     * In exchange any frame can be decoded, skipped or shipped on its own, and a frame cut short by a crash never corrupts the ones after
+     * it, which a generator shared across a whole file could not offer.
+     */
+    @WithDefault("JSON")
+    RecordEncoding encoding();
+
+    /**
+     * Compression and rotation of the {@link FileOutputMode#GZIP} output mode.
+     */
+    GzipConfig gzip();
+
+    /**
+     * Write the records of a run as the elements of a single JSON array.
+     * <p>
+     * The array is opened when the handler starts, every record but the first is preceded by a comma, and the array is closed when the
+     * handler closes, so the output of a run that shut down cleanly is a valid JSON document whatever the last record is.<br>
+     * The configured {@code record-delimiter} is not used in this mode.<br>
+     * The file is appended to, so a run reopens the array left by the previous one, cutting off its closing bracket: the file stays a single
+     * JSON array across restarts. A file that does not end with a closed array, after a crash or when it was written without this mode, is
+     * moved aside to {@code <path>.<epoch millis>} and a new array is started.
+     */
+    @WithDefault("false")
+    boolean jsonArray();
+
+    /**
+     * The size in bytes of every region of the file mapped in memory by the {@link FileOutputMode#MAPPED} output mode.
+     * <p>
+     * The file grows by this size whenever a region is full, and is truncated to its actual content when the handler closes.
+     */
+    @WithDefault("16777216")
+    int mappedChunkSize();
+
+    /**
+     * How JSON records reach the log file.
+     * <p>
+     * {@link FileOutputMode#FORMATTER}: records are formatted into strings written by the standard Quarkus file handler.<br>
+     * {@link FileOutputMode#CHANNEL}: records are written as UTF-8 bytes straight into a buffer drained to the file, skipping the
+     * string round-trip.<br>
+     * {@link FileOutputMode#MAPPED}: records are written as UTF-8 bytes straight into a memory-mapped region of the file, so appending is
+     * a memory copy. While the handler is open, the file ends with zero bytes past the last record.<br>
+     * {@link FileOutputMode#GZIP}: records are compressed through a streaming deflater into gzip segments named after the path, rotated on
+     * size or time. A closed segment is finished on a background thread.
+     */
+    @WithDefault("FORMATTER")
+    FileOutputMode outputMode();
+
+    /**
+     * The file the dedicated handler writes to.
+     * <p>
+     * Defaults to the standard file handler path, which requires the standard file handler to be disabled.<br>
+     * The {@link FileOutputMode#GZIP} output mode writes segments next to it instead, named after it with their start time and sequence
+     * number, i.e.: {@code quarkus.log.20261018-035447-00000.gz}.
+     */
+    @WithDefault("${quarkus.log.file.path:quarkus.log}")
+    Path path();
+
+}
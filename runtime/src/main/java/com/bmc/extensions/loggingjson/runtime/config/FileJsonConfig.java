@@ -0,0 +1,20 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+
+/**
+ * Configuration interface for structuring JSON output to files.
+ * <p>
+ * Same as {@link JsonConfig}, plus the settings of the dedicated file handler.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface FileJsonConfig extends JsonConfig {
+
+    /**
+     * Configuration for the dedicated JSON file handler.
+     */
+    FileHandlerConfig handler();
+
+}
@@ -0,0 +1,47 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Compressed Output Configuration Section.
+ * <p>
+ * Only used by the {@link FileOutputMode#GZIP} output mode.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface GzipConfig {
+
+    /**
+     * How often the compressed output is sync flushed to the file.
+     * <p>
+     * A sync flush ends the pending deflate block on a byte boundary, so everything written before it can be decompressed even if the process
+     * dies before the segment is finished.<br>
+     * Every sync flush slightly lowers the compression ratio, records written since the last one are lost on a crash.<br>
+     * 0 sync flushes after every record.
+     */
+    @WithDefault("PT1S")
+    Duration flushInterval();
+
+    /**
+     * How long a segment is written to before rotating to a new one.
+     * <p>
+     * Not set by default, which rotates on size only.
+     */
+    Optional<Duration> rotateInterval();
+
+    /**
+     * The compressed size in bytes a segment reaches before rotating to a new one.
+     * <p>
+     * 0 rotates on time only.
+     */
+    @WithDefault("104857600")
+    long rotateSize();
+
+}
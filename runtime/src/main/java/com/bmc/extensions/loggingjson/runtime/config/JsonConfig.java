@@ -87,6 +87,43 @@ public interface JsonConfig {
 
     Optional<String> logZoneId();
 
+    /**
+     * The largest record, in bytes, a formatter renders.
+     * <p>
+     * Records are rendered into a buffer that never grows past this size: a record going over it is abandoned as soon as it does, and
+     * replaced by a record with the same core fields, without MDC nor exception, whose message reports the limit and starts with the
+     * original message.<br>
+     * The dedicated file handler enforces it the same way, whatever its encoding: with this limit set, JSON records are rendered into a
+     * bounded buffer before being written to the file, instead of straight to it, and binary frames always are.
+     * <p>
+     * Defaults to 0, which disables the limit.
+     */
+    @WithDefault("0")
+    int maxRecordBytes();
+
+    /**
+     * The longest string value, in chars, rendered as is.
+     * <p>
+     * Longer values, including the properties of client objects at any depth, are cut to this length while being written, and followed by
+     * a marker with their original length, i.e. {@code "abc...[truncated, 1048576 chars]"}.<br>
+     * Longer raw values, and binary values longer in bytes, are written as a truncated string the same way.<br>
+     * Field names are never truncated.
+     * <p>
+     * Defaults to 0, which disables truncation.
+     */
+    @WithDefault("0")
+    int maxStringLength();
+
+    /**
+     * Configuration for rendering the MDC: which keys are rendered, and which ones are promoted to top level fields.
+     */
+    MdcConfig mdc();
+
+    /**
+     * Configuration for the formatter metrics: record, byte, exception and failure counters, and a sampled latency histogram.
+     */
+    MetricsConfig metrics();
+
     /**
      * Enable "pretty printing" of the JSON record. Note that some JSON parsers will fail to read the pretty printed output.
      */
@@ -108,13 +145,64 @@ public interface JsonConfig {
     @WithDefault("false")
     boolean printDetails();
 
+    /**
+     * Configuration for rate limiting records per logger category, with a summary of the records dropped.
+     */
+    RateLimitConfig rateLimit();
+
     /**
      * The special end-of-record delimiter to be used.
      * <p>
      * By default, a system-dependent newline is used and appended after each record in addition to any custom delimiter
+     * <p>
+     * The delimiter is appended after every record, the last one included.<br>
+     * The dedicated file handler can write a valid JSON array instead, see {@link FileHandlerConfig#jsonArray()}.
      *
      * @see System#lineSeparator()
      */
     Optional<String> recordDelimiter();
 
+    /**
+     * Reuse the JSON generator and its output buffer for every record formatted on the same thread, instead of creating them per record.
+     * <p>
+     * Virtual threads are not given a recycled output and format as if this was disabled.
+     *
+     * @see #recycledBufferMaxBytes()
+     */
+    @WithDefault("false")
+    boolean recycleBuffers();
+
+    /**
+     * The largest output buffer, in bytes, a thread keeps between records when recycling buffers.
+     * <p>
+     * A record rendering bigger than this is formatted normally, but its grown buffer is dropped afterward, so a single huge record doesn't
+     * pin memory for the lifetime of the thread.
+     */
+    @WithDefault("65536")
+    int recycledBufferMaxBytes();
+
+    /**
+     * Write each field straight to the JSON generator from the precomputed template instead of collecting the record's fields into intermediate
+     * maps that are then serialized.
+     * <p>
+     * The output is the same; only client objects still go through an intermediate structure.<br>
+     * This removes several short-lived maps per record, which matters on high log volumes.
+     */
+    @WithDefault("false")
+    boolean streamFields();
+
+    /**
+     * The number of synthetic records formatted and discarded when the formatter is created, before the application reports ready.
+     * <p>
+     * Records cycle through plain, printf, structured, MDC and exception shapes, so that every rendering path gets loaded, initialized and
+     * profiled.<br>
+     * Getting the hot path compiled by the JIT takes a few thousand records.<br>
+     * They are formatted through a copy of the template without metrics, rate limiter, exception throttle nor stack trace cache, so they
+     * leave no trace in the state real records share.
+     * <p>
+     * Defaults to 0, which disables warming up.
+     */
+    @WithDefault("0")
+    int warmUpRecords();
+
 }
@@ -28,6 +28,6 @@ public interface JsonLogConfig {
      */
     @ConfigDocSection
     @WithName("file.json")
-    JsonConfig fileJson();
+    FileJsonConfig fileJson();
 
 }
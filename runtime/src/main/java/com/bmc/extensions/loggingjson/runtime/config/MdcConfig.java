@@ -0,0 +1,32 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+
+/**
+ * MDC Configuration Section.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface MdcConfig {
+
+    /**
+     * The MDC keys rendered in the MDC field, in this order. Keys missing from a record are not rendered.
+     * <p>
+     * Only the listed keys are read from the record, instead of copying its whole MDC.<br>
+     * Omitting this value renders every MDC entry.
+     */
+    Optional<List<String>> includedKeys();
+
+    /**
+     * The MDC keys rendered as top level fields, named after the key, instead of inside the MDC field.
+     * <p>
+     * Promoted fields are placed right after the MDC field, and can be renamed with {@code key-overrides} like any other top level field.
+     * A promoted key, or its override, cannot be the name of another top level field, which fails startup: exclude that field first.
+     */
+    Optional<List<String>> promotedKeys();
+
+}
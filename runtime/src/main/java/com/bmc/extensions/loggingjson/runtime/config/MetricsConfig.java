@@ -0,0 +1,43 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import java.time.Duration;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Formatter Metrics Configuration Section.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface MetricsConfig {
+
+    /**
+     * Count the records formatted, the bytes produced, the exceptions rendered and the serialization failures, and sample the formatting
+     * latency.
+     * <p>
+     * The metrics are exposed as a JMX MXBean named {@code com.bmc.extensions.loggingjson:type=FormatterMetrics,output=<output>}.
+     * With {@code quarkus-micrometer} present, they are also bound to Micrometer as {@code logging.json.*} meters tagged {@code output=<output>}.
+     */
+    @WithDefault("false")
+    boolean enable();
+
+    /**
+     * Time one record out of this many, rounded up to a power of two, into the latency histogram.
+     * <p>
+     * Counters are updated for every record, only reading the clock is sampled.
+     */
+    @WithDefault("64")
+    int latencySampleRate();
+
+    /**
+     * How long the latency histogram records into a window before rotating it.
+     * <p>
+     * Latency percentiles and max are reported over the current window and the previous one, i.e. the last one to two windows, so a latency
+     * spike stops being reported once two windows went by.
+     */
+    @WithDefault("PT1M")
+    Duration latencyWindow();
+
+}
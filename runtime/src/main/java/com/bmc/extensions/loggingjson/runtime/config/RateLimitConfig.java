@@ -0,0 +1,39 @@
+package com.bmc.extensions.loggingjson.runtime.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.quarkus.runtime.annotations.ConfigDocMapKey;
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Rate Limiting Configuration Section.
+ *
+ * @author BareMetalCode
+ */
+@ConfigGroup
+public interface RateLimitConfig {
+
+    /**
+     * The records per second allowed for each logger category, i.e.: {@code rate-limit.categories."org.acme.noisy"=100}.
+     * <p>
+     * A category applies to its logger and to every logger below it, the most specific category wins; loggers under no category are never
+     * limited.<br>
+     * A category can burst up to one second worth of records; records over its budget are dropped before any field is extracted.<br>
+     * Rates must be positive, startup fails otherwise.
+     */
+    @ConfigDocMapKey("category")
+    Map<String, Integer> categories();
+
+    /**
+     * The minimum interval between two summary records reporting the number of records dropped per category.
+     * <p>
+     * The output cannot log on its own, so the summary is rendered right before the first record allowed once the interval elapsed, and only
+     * if records were dropped: once a flood stops and the application goes quiet, the records dropped since the last summary are only
+     * reported by the next record, or by a final summary when the handler closes.
+     */
+    @WithDefault("PT1M")
+    Duration summaryInterval();
+
+}
@@ -0,0 +1,31 @@
+package com.bmc.extensions.loggingjson.runtime.core;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * Implemented by template data extracting {@link Function}s that can also write their value straight to a {@link JsonGenerator}, without
+ * producing an intermediate object first.
+ * <p>
+ * The compiled {@link FieldWriter}s use this instead of applying the function whenever it is available.<br>
+ * A direct writer always writes a value: fields that can be missing must not implement it.
+ *
+ * @author BareMetalCode
+ */
+public interface DirectValueWriter {
+
+    /**
+     * Writes this field's value for the given record.
+     *
+     * @param generator the generator positioned right after the field name
+     * @param record    the {@link ExtLogRecord} being rendered
+     *
+     * @throws IOException if the generator fails to write
+     */
+    void writeValue(JsonGenerator generator, ExtLogRecord record) throws IOException;
+
+}
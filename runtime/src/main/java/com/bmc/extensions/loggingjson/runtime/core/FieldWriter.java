@@ -0,0 +1,31 @@
+package com.bmc.extensions.loggingjson.runtime.core;
+
+import java.io.IOException;
+
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * Writes one field (name and value) of a log record straight to a {@link JsonGenerator}.
+ * <p>
+ * An ordered array of these writers is the "compiled" form of a {@link StructuredLog} template: rendering a record is a plain loop over the
+ * array, with no intermediate map holding the extracted values.
+ *
+ * @author BareMetalCode
+ */
+@FunctionalInterface
+public interface FieldWriter {
+
+    /**
+     * Writes this field of the given record, or nothing if the field has no value for it.
+     *
+     * @param generator the generator positioned inside the record's JSON object
+     * @param record    the {@link ExtLogRecord} being rendered
+     *
+     * @throws IOException if the generator fails to write
+     */
+    void write(JsonGenerator generator, ExtLogRecord record) throws IOException;
+
+}
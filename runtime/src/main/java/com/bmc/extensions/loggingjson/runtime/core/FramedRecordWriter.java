@@ -0,0 +1,84 @@
+package com.bmc.extensions.loggingjson.runtime.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.core.StructuredLogWriter.writeFields;
+
+/**
+ * Writes records rendered by a binary generator (CBOR, Smile) as length-prefixed frames.
+ * <p>
+ * Binary records have no delimiter a reader could split them on, so every record is rendered into a frame buffer first, then written as
+ * its length in bytes, a 4 bytes big-endian integer, followed by the frame.<br>
+ * Every frame is rendered by a generator of its own, so it is a standalone document: Smile frames start with their header, and shared field
+ * names only refer to names of the same record, so any frame can be decoded, skipped or shipped on its own.
+ * <p>
+ * The template's compiled field writers are the ones the JSON output runs, so the same fields are rendered whatever the encoding.<br>
+ * When a max record size is set, the frame buffer never grows past it: an oversized record fails with a
+ * {@link com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException} before anything is written, and the handler writes
+ * its replacement instead.
+ * <p>
+ * Instances are not thread safe, the handler writing them serializes their use.
+ *
+ * @author BareMetalCode
+ */
+public class FramedRecordWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final JsonFactory                   binaryFactory;
+    private final FieldWriter[]                 fieldWriters;
+    private final ReusableByteArrayOutputStream frame;
+    private final byte[]                        lengthPrefix = new byte[4];
+    private final int                           recycledFrameMaxBytes;
+
+    /**
+     * Creates a writer rendering the records of the given template.
+     *
+     * @param structuredLog the {@link StructuredLog} template, with its field writers compiled.
+     * @param binaryFactory the factory of the binary generators records are rendered by.
+     */
+    public FramedRecordWriter(final StructuredLog structuredLog, final JsonFactory binaryFactory) {
+
+        final JsonConfig jsonConfig     = structuredLog.getJsonConfig();
+        final int        maxRecordBytes = jsonConfig.maxRecordBytes() > 0 ? jsonConfig.maxRecordBytes() : Integer.MAX_VALUE;
+
+        this.binaryFactory         = binaryFactory;
+        this.fieldWriters          = structuredLog.getFieldWriters();
+        this.frame                 = new ReusableByteArrayOutputStream(INITIAL_CAPACITY, maxRecordBytes);
+        this.recycledFrameMaxBytes = jsonConfig.recycledBufferMaxBytes();
+    }
+
+    /**
+     * Renders the record into a frame and writes it, prefixed with its length, to the given stream.
+     *
+     * @param outputStream the stream the frame is written to.
+     * @param record       the {@link ExtLogRecord} to render.
+     *
+     * @throws IOException if the record cannot be rendered, or the stream fails to write.
+     */
+    public void writeRecord(final OutputStream outputStream, final ExtLogRecord record) throws IOException {
+
+        frame.reset(recycledFrameMaxBytes);
+        try (JsonGenerator generator = binaryFactory.createGenerator(frame)) {
+            writeFields(generator, record, fieldWriters);
+        }
+
+        final int length = frame.size();
+        lengthPrefix[0] = (byte) (length >>> 24);
+        lengthPrefix[1] = (byte) (length >>> 16);
+        lengthPrefix[2] = (byte) (length >>> 8);
+        lengthPrefix[3] = (byte) length;
+
+        outputStream.write(lengthPrefix);
+        frame.writeTo(outputStream);
+    }
+
+}
@@ -2,14 +2,19 @@ package com.bmc.extensions.loggingjson.runtime.core;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.logging.Handler;
 
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle;
+import com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
+import com.bmc.extensions.loggingjson.runtime.core.ratelimit.RecordRateLimiter;
 import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
 import com.fasterxml.jackson.core.JsonFactory;
 
 import org.jboss.logmanager.ExtFormatter;
 import org.jboss.logmanager.ExtLogRecord;
 
-import static com.bmc.extensions.loggingjson.runtime.core.StructuredLogWriter.formatRecord;
+import static com.bmc.extensions.loggingjson.runtime.core.limits.OversizedRecords.replacementOf;
 import static com.bmc.extensions.loggingjson.runtime.utils.StructuredLogDataUtils.*;
 
 /**
@@ -23,13 +28,100 @@ import static com.bmc.extensions.loggingjson.runtime.utils.StructuredLogDataUtil
  */
 public class JsonFormatter extends ExtFormatter {
 
-    private final JsonFactory   jsonFactory;
-    private final StructuredLog structuredLog;
+    private static final String DROPPED_RECORD = "";
+
+    private final ExceptionThrottle   exceptionThrottle;
+    private final FormatterMetrics    formatterMetrics;
+    private final RecordRateLimiter   recordRateLimiter;
+    private final StructuredLog       structuredLog;
+    private final StructuredLogWriter structuredLogWriter;
 
     public JsonFormatter(final StructuredLog structuredLog, final JsonFactory jsonFactory) {
 
-        this.jsonFactory   = jsonFactory;
-        this.structuredLog = structuredLog;
+        this.exceptionThrottle   = structuredLog.getExceptionThrottle();
+        this.formatterMetrics    = structuredLog.getFormatterMetrics();
+        this.recordRateLimiter   = structuredLog.getRecordRateLimiter();
+        this.structuredLog       = structuredLog;
+        this.structuredLogWriter = new StructuredLogWriter(jsonFactory, structuredLog.getJsonConfig(), formatterMetrics);
+    }
+
+    /**
+     * Formats the provided log record into a JSON representation.
+     * <p>
+     * If the template was compiled into field writers (streaming fields enabled), every field is written straight to the generator,
+     * otherwise the fields are first populated into a map that is then serialized.
+     * <p>
+     * When its logger category is rate limited and out of budget, the record is dropped before any field is extracted, and an empty string
+     * returned.<br>
+     * When a summary of dropped records is due, it is rendered right before the record.<br>
+     * When a summary of the exception occurrences suppressed by expired throttle windows is due, it is rendered right after the record, so
+     * that the record reports its own exception's window first.
+     * <p>
+     * When a max record size is set and the record goes over it, it is replaced by a record with the same core fields, without MDC nor
+     * exception, whose message reports the limit followed by the beginning of the original message.
+     *
+     * @param record the {@link ExtLogRecord} to format.
+     *
+     * @return a JSON string representation {@link ExtLogRecord}.
+     */
+    @Override
+    public String format(final ExtLogRecord record) {
+
+        final String formatted = formatRateLimited(record);
+
+        if (exceptionThrottle == null) {
+            return formatted;
+        }
+
+        final ExtLogRecord summary = exceptionThrottle.pendingSummary();
+
+        return summary == null ? formatted : formatted + formatMeasured(summary);
+    }
+
+    /**
+     * Renders the summaries of the records dropped and of the exception occurrences suppressed since the previous ones as the handler closes,
+     * so that they are reported even though no record follows them.
+     *
+     * @param handler the handler being closed.
+     *
+     * @return the final summaries, or an empty string if nothing was dropped nor suppressed.
+     */
+    @Override
+    public String getTail(final Handler handler) {
+
+        final ExtLogRecord droppedSummary    = recordRateLimiter == null ? null : recordRateLimiter.finalSummary();
+        final ExtLogRecord suppressedSummary = exceptionThrottle == null ? null : exceptionThrottle.finalSummary();
+        final String       droppedTail       = droppedSummary == null ? "" : formatMeasured(droppedSummary);
+
+        return suppressedSummary == null ? droppedTail : droppedTail + formatMeasured(suppressedSummary);
+    }
+
+    private String formatFields(final ExtLogRecord record) {
+
+        final FieldWriter[] fieldWriters = structuredLog.getFieldWriters();
+
+        if (fieldWriters != null) {
+            return structuredLogWriter.formatRecord(record, fieldWriters);
+        }
+
+        return formatPopulatedFields(record);
+    }
+
+    /**
+     * When metrics are enabled, the record is counted once formatted, and its latency recorded if it is sampled.
+     */
+    private String formatMeasured(final ExtLogRecord record) {
+
+        if (formatterMetrics == null) {
+            return formatRecord(record);
+        }
+
+        final long   sampleStart = formatterMetrics.startLatencySample();
+        final String formatted   = formatRecord(record);
+
+        formatterMetrics.recordFormatted(record, sampleStart);
+
+        return formatted;
     }
 
     /**
@@ -47,8 +139,7 @@ public class JsonFormatter extends ExtFormatter {
      *
      * @return a JSON string representation {@link ExtLogRecord}.
      */
-    @Override
-    public String format(final ExtLogRecord record) {
+    private String formatPopulatedFields(final ExtLogRecord record) {
 
         final Map<String, Object> fieldsToPrint = new LinkedHashMap<>();
 
@@ -57,7 +148,34 @@ public class JsonFormatter extends ExtFormatter {
         populateDetailsIfEnabled(record, structuredLog, fieldsToPrint);
         populateExceptionIfPresent(record, structuredLog, fieldsToPrint);
 
-        return formatRecord(fieldsToPrint, jsonFactory, structuredLog.getJsonConfig());
+        return structuredLogWriter.formatRecord(fieldsToPrint);
+    }
+
+    private String formatRateLimited(final ExtLogRecord record) {
+
+        if (recordRateLimiter == null) {
+            return formatMeasured(record);
+        }
+
+        if (!recordRateLimiter.tryAcquire(record)) {
+            return DROPPED_RECORD;
+        }
+
+        final ExtLogRecord summary = recordRateLimiter.pendingSummary();
+
+        return summary == null ? formatMeasured(record) : formatMeasured(summary) + formatMeasured(record);
+    }
+
+    private String formatRecord(final ExtLogRecord record) {
+
+        try {
+            return formatFields(record);
+        } catch (final RuntimeException e) {
+            if (e.getCause() instanceof final RecordTooLargeException tooLarge) {
+                return formatFields(replacementOf(record, tooLarge));
+            }
+            throw e;
+        }
     }
 
 }
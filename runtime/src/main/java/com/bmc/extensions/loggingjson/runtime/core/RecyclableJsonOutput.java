@@ -0,0 +1,131 @@
+package com.bmc.extensions.loggingjson.runtime.core;
+
+import java.io.IOException;
+
+import com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import static com.bmc.extensions.loggingjson.runtime.core.StructuredLogWriter.createRecordGenerator;
+
+/**
+ * A {@link JsonGenerator} bound to a {@link ReusableByteArrayOutputStream}, rendering one record at a time.
+ * <p>
+ * A recycled output is kept by its formatting thread and reused for every record it formats: the generator, its internal buffers and the
+ * byte buffer are created once, so that rendering a record costs, in steady state, the decoding of the result into a {@link String}.<br>
+ * A one-shot output is created per record and closed after it, which is the behaviour when recycling is disabled.
+ * <p>
+ * Either way, the output can be bounded to a max record size, past which rendering fails with a {@link RecordTooLargeException}.
+ *
+ * @author BareMetalCode
+ */
+public class RecyclableJsonOutput {
+
+    private static final int INITIAL_CAPACITY              = 1024;
+    // a one-shot buffer is allocated per record, so it starts small and only grows for the records that need it
+    private static final int NON_RECYCLED_INITIAL_CAPACITY = 256;
+
+    private final JsonGenerator                 generator;
+    private final int                           maxBytes;
+    private final ReusableByteArrayOutputStream outputStream;
+    private final boolean                       recycled;
+
+    private RecyclableJsonOutput(final JsonFactory jsonFactory, final boolean prettyPrint, final int maxBytes, final int maxRecordBytes,
+                                 final boolean recycled) throws IOException {
+
+        this.maxBytes     = maxBytes;
+        this.recycled     = recycled;
+        this.outputStream = new ReusableByteArrayOutputStream(recycled ? INITIAL_CAPACITY : NON_RECYCLED_INITIAL_CAPACITY, maxRecordBytes);
+        this.generator    = createRecordGenerator(outputStream, jsonFactory, prettyPrint);
+    }
+
+    /**
+     * Creates an output used for a single record, closed once the record is rendered.
+     *
+     * @param jsonFactory    the factory to create the generator from.
+     * @param prettyPrint    whether to pretty print the record.
+     * @param maxRecordBytes the largest record, in bytes, the output can hold.
+     *
+     * @return a new one-shot output.
+     *
+     * @throws IOException if the generator cannot be created.
+     */
+    public static RecyclableJsonOutput oneShot(final JsonFactory jsonFactory, final boolean prettyPrint, final int maxRecordBytes)
+            throws IOException {
+
+        return new RecyclableJsonOutput(jsonFactory, prettyPrint, Integer.MAX_VALUE, maxRecordBytes, false);
+    }
+
+    /**
+     * Creates an output to be kept and reused by the current thread.
+     *
+     * @param jsonFactory    the factory to create the generator from.
+     * @param prettyPrint    whether to pretty print the records.
+     * @param maxBytes       the largest buffer to keep between records, a bigger record has its buffer dropped once rendered.
+     * @param maxRecordBytes the largest record, in bytes, the output can hold.
+     *
+     * @return a new recyclable output.
+     *
+     * @throws IOException if the generator cannot be created.
+     */
+    public static RecyclableJsonOutput recycled(final JsonFactory jsonFactory, final boolean prettyPrint, final int maxBytes,
+                                                final int maxRecordBytes) throws IOException {
+
+        return new RecyclableJsonOutput(jsonFactory, prettyPrint, maxBytes, maxRecordBytes, true);
+    }
+
+    /**
+     * Closes the generator and drops whatever was written, used when rendering failed and the generator is left in an unknown state.
+     */
+    public void discard() {
+
+        try {
+            generator.close();
+        } catch (final IOException | RuntimeException ignored) {
+            // the output is being dropped because of a previous failure, which is the one being reported
+        }
+    }
+
+    public JsonGenerator generator() {
+
+        return generator;
+    }
+
+    public boolean isRecycled() {
+
+        return recycled;
+    }
+
+    /**
+     * Returns the number of bytes rendered since the output was last released.
+     *
+     * @return the size of the rendered record, once the generator is flushed.
+     */
+    public int size() {
+
+        return outputStream.size();
+    }
+
+    /**
+     * Returns the rendered record and gets the output ready for the next one, or closes it if it is a one-shot output.
+     * <p>
+     * The generator must have been flushed.
+     *
+     * @return the rendered record.
+     *
+     * @throws IOException if closing a one-shot generator fails.
+     */
+    public String release() throws IOException {
+
+        final String rendered = outputStream.toString();
+
+        if (recycled) {
+            outputStream.reset(maxBytes);
+        } else {
+            generator.close();
+        }
+
+        return rendered;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.bmc.extensions.loggingjson.runtime.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A growable in-memory {@link OutputStream} meant to be reset and written again, record after record.
+ * <p>
+ * Unlike {@link ByteArrayOutputStream} it is not synchronized, as every instance is confined to a single formatting thread, and it can
+ * give back its buffer when a single big record made it grow beyond what is worth keeping around.
+ * <p>
+ * It can also be bounded: a write that would take it over its maximum size fails with a {@link RecordTooLargeException} instead of growing
+ * the buffer, so rendering a record never takes more memory than that, whatever the record holds.
+ *
+ * @author BareMetalCode
+ */
+public class ReusableByteArrayOutputStream extends OutputStream {
+
+    private final int    initialCapacity;
+    private final int    maxSize;
+    private       byte[] buffer;
+    private       int    count;
+
+    public ReusableByteArrayOutputStream(final int initialCapacity) {
+
+        this(initialCapacity, Integer.MAX_VALUE);
+    }
+
+    public ReusableByteArrayOutputStream(final int initialCapacity, final int maxSize) {
+
+        this.initialCapacity = Math.min(initialCapacity, maxSize);
+        this.maxSize         = maxSize;
+        this.buffer          = new byte[this.initialCapacity];
+    }
+
+    /**
+     * Returns the current size of the internal buffer, which is at least the number of bytes written since the last reset.
+     *
+     * @return the capacity in bytes.
+     */
+    public int capacity() {
+
+        return buffer.length;
+    }
+
+    /**
+     * Discards the written bytes, keeping the internal buffer unless it grew over the given capacity, in which case it goes back to the
+     * initial one.
+     *
+     * @param maxCapacity the largest buffer, in bytes, to keep for the next use.
+     */
+    public void reset(final int maxCapacity) {
+
+        count = 0;
+        if (buffer.length > maxCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+    }
+
+    /**
+     * Returns the number of bytes written since the last reset.
+     *
+     * @return the number of valid bytes in the buffer.
+     */
+    public int size() {
+
+        return count;
+    }
+
+    /**
+     * Decodes the written bytes as UTF-8, which is what Jackson generators produce.
+     *
+     * @return the buffer's content as a string.
+     */
+    @Override
+    public String toString() {
+
+        return new String(buffer, 0, count, UTF_8);
+    }
+
+    @Override
+    public void write(final int b) throws RecordTooLargeException {
+
+        ensureCapacity(1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws RecordTooLargeException {
+
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Writes the bytes written since the last reset to the given stream.
+     *
+     * @param outputStream the stream to copy the buffer's content to.
+     *
+     * @throws IOException if the stream fails to write.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+
+        outputStream.write(buffer, 0, count);
+    }
+
+    private void ensureCapacity(final int length) throws RecordTooLargeException {
+
+        if (length > maxSize - count) {
+            throw new RecordTooLargeException(maxSize);
+        }
+
+        final int minCapacity = count + length;
+        if (minCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(Math.max((long) buffer.length << 1, minCapacity), maxSize));
+        }
+    }
+
+}
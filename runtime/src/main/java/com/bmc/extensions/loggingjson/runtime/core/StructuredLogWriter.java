@@ -1,67 +1,272 @@
 package com.bmc.extensions.loggingjson.runtime.core;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+import org.jboss.logmanager.ExtLogRecord;
 
 /**
  * StructuredLogWriter is responsible for writing the prepopulated fields to a Writer / OutputStream.
  * <p>
  * This is the class that will actually generate a full log record output.
+ * <p>
+ * When buffer recycling is enabled, every formatting thread keeps its own {@link RecyclableJsonOutput} and reuses it for each record.
+ * Virtual threads are short-lived and potentially numerous, so they always get a one-shot output instead of pinning one each.
+ * <p>
+ * When metrics are enabled, the bytes of every record formatted into a string and every failure to render a record are counted.
+ * <p>
+ * When a max record size is set, records are formatted into an output bounded to it: an oversized record fails as soon as its rendering
+ * goes over the limit, with a {@link RecordTooLargeException} as the cause, and the output it partially filled is dropped.
  *
  * @author BareMetalCode
  */
 public class StructuredLogWriter {
 
-    private static final String NEW_LINE = System.lineSeparator();
+    private static final char   ARRAY_END       = ']';
+    private static final char   ARRAY_SEPARATOR = ',';
+    private static final char   ARRAY_START     = '[';
+    private static final String NEW_LINE        = System.lineSeparator();
+
+    private final FormatterMetrics                  formatterMetrics;
+    private final JsonConfig                        jsonConfig;
+    private final JsonFactory                       jsonFactory;
+    private final int                               maxRecordBytes;
+    private final ThreadLocal<RecyclableJsonOutput> recycledOutputs;
+
+    public StructuredLogWriter(final JsonFactory jsonFactory, final JsonConfig jsonConfig, final FormatterMetrics formatterMetrics) {
+
+        this.formatterMetrics = formatterMetrics;
+        this.jsonConfig       = jsonConfig;
+        this.jsonFactory      = jsonFactory;
+        this.maxRecordBytes   = jsonConfig.maxRecordBytes() > 0 ? jsonConfig.maxRecordBytes() : Integer.MAX_VALUE;
+        this.recycledOutputs  = jsonConfig.recycleBuffers() ? new ThreadLocal<>() : null;
+    }
+
+    /**
+     * Creates a generator to write consecutive records to the given output stream.
+     * <p>
+     * Consecutive records are independent root values, so the generator is set up without a root value separator: every record starts
+     * exactly as it would from a brand-new generator.
+     *
+     * @param outputStream the stream the records are written to
+     * @param jsonFactory  the factory used to create the JSON generator
+     * @param prettyPrint  whether to pretty print the records
+     *
+     * @return a generator ready to write records
+     *
+     * @throws IOException if the generator cannot be created
+     */
+    public static JsonGenerator createRecordGenerator(final OutputStream outputStream, final JsonFactory jsonFactory, final boolean prettyPrint)
+            throws IOException {
+
+        final JsonGenerator generator = jsonFactory.createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+
+        if (prettyPrint) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter(PrettyPrinter.DEFAULT_SEPARATORS.withRootSeparator(null)));
+        }
+
+        return generator;
+    }
+
+    /**
+     * Writes the provided log record as an element of a JSON array opened with {@link #writeArrayStart}, and flushes the generator.
+     * <p>
+     * The separator goes before the record, so the array is complete as soon as it is closed, whatever record came last.<br>
+     * The configured record delimiter is not used, as it would break the array.
+     *
+     * @param generator    the generator to write to, positioned between array elements
+     * @param record       the {@link ExtLogRecord} to render
+     * @param fieldWriters the ordered {@link FieldWriter}s compiled from the template
+     * @param firstElement whether this is the first element of the array, which is not preceded by a separator
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public static void writeArrayElement(final JsonGenerator generator, final ExtLogRecord record, final FieldWriter[] fieldWriters,
+                                         final boolean firstElement) throws IOException {
+
+        if (!firstElement) {
+            generator.writeRaw(ARRAY_SEPARATOR);
+        }
+        writeFields(generator, record, fieldWriters);
+        generator.writeRaw(NEW_LINE);
+        generator.flush();
+    }
+
+    /**
+     * Closes a JSON array opened with {@link #writeArrayStart}, and flushes the generator.
+     *
+     * @param generator the generator to write to, positioned between array elements
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public static void writeArrayEnd(final JsonGenerator generator) throws IOException {
+
+        generator.writeRaw(ARRAY_END + NEW_LINE);
+        generator.flush();
+    }
+
+    /**
+     * Opens a JSON array whose elements are written with {@link #writeArrayElement}, and flushes the generator.
+     * <p>
+     * The array is written raw, so that every element is still written as an independent root value, exactly like a standalone record.
+     *
+     * @param generator the generator to write to, positioned between records
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public static void writeArrayStart(final JsonGenerator generator) throws IOException {
+
+        generator.writeRaw(ARRAY_START + NEW_LINE);
+        generator.flush();
+    }
+
+    /**
+     * Ends the current line, and flushes the generator.
+     * <p>
+     * Used after a failed record, whose beginning may already be written, so that the next record starts on a line of its own.
+     *
+     * @param generator the generator to write to
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public static void writeLineEnd(final JsonGenerator generator) throws IOException {
+
+        generator.writeRaw(NEW_LINE);
+        generator.flush();
+    }
 
     /**
-     * Formats the provided map of fields to render into a JSON record as a string, using the specified JSON factory and configuration.
+     * Formats the provided map of fields to render into a JSON record as a string.
      *
      * @param fieldsToRender a map of keys and values representing the fields to include in the JSON record
-     * @param jsonFactory    the factory used to create a JSON generator for formatting the output
-     * @param jsonConfig     the configuration object specifying formatting options, such as pretty printing and delimiters
      *
      * @return the formatted JSON record as a string
      *
      * @throws RuntimeException if an I/O operation or any other runtime error occurs during formatting
      */
-    public static String formatRecord(final Map<String, Object> fieldsToRender, final JsonFactory jsonFactory, final JsonConfig jsonConfig) {
+    public String formatRecord(final Map<String, Object> fieldsToRender) {
 
-        final ByteArrayOutputStream writer = new ByteArrayOutputStream();
-        try (final JsonGenerator generator = getJsonGenerator(writer, jsonFactory, jsonConfig)) {
+        final RecyclableJsonOutput output = acquireOutput();
+        try {
+            final JsonGenerator generator = output.generator();
             generator.writeObject(fieldsToRender);
+            writeRecordEnd(generator);
 
-            if (jsonConfig.recordDelimiter().isPresent() && !thisIsTheLastRecord(fieldsToRender)) {
-                generator.writeRaw(jsonConfig.recordDelimiter().get());
-            }
+            return release(output);
+        } catch (final RuntimeException | IOException e) {
+            discardOutput(output);
+            throw new RuntimeException(e);
+        }
+    }
 
-            generator.writeRaw(NEW_LINE);
-            generator.flush();
+    /**
+     * Formats the provided log record into a JSON record as a string, by running the compiled field writers of its template in order.
+     * <p>
+     * No intermediate structure is built: every writer extracts its value from the record and writes it straight to the generator.
+     *
+     * @param record       the {@link ExtLogRecord} to render
+     * @param fieldWriters the ordered {@link FieldWriter}s compiled from the template
+     *
+     * @return the formatted JSON record as a string
+     *
+     * @throws RuntimeException if an I/O operation or any other runtime error occurs during formatting
+     */
+    public String formatRecord(final ExtLogRecord record, final FieldWriter[] fieldWriters) {
 
-            return writer.toString();
+        final RecyclableJsonOutput output = acquireOutput();
+        try {
+            writeRecord(output.generator(), record, fieldWriters);
+
+            return release(output);
         } catch (final RuntimeException | IOException e) {
+            discardOutput(output);
             throw new RuntimeException(e);
         }
+    }
 
+    /**
+     * Writes the provided log record, followed by its end of record delimiters, to the given generator and flushes it.
+     *
+     * @param generator    the generator to write to, positioned between records
+     * @param record       the {@link ExtLogRecord} to render
+     * @param fieldWriters the ordered {@link FieldWriter}s compiled from the template
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public void writeRecord(final JsonGenerator generator, final ExtLogRecord record, final FieldWriter[] fieldWriters) throws IOException {
+
+        writeFields(generator, record, fieldWriters);
+        writeRecordEnd(generator);
     }
 
-    private static JsonGenerator getJsonGenerator(final ByteArrayOutputStream writer, final JsonFactory jsonFactory, final JsonConfig jsonConfig)
-            throws IOException {
+    private RecyclableJsonOutput acquireOutput() {
 
-        final JsonGenerator generator = jsonFactory.createGenerator(writer);
-        return jsonConfig.prettyPrint() ? generator.useDefaultPrettyPrinter() : generator;
+        try {
+            if (recycledOutputs == null || Thread.currentThread().isVirtual()) {
+                return RecyclableJsonOutput.oneShot(jsonFactory, jsonConfig.prettyPrint(), maxRecordBytes);
+            }
+
+            RecyclableJsonOutput output = recycledOutputs.get();
+            if (output == null) {
+                output = RecyclableJsonOutput.recycled(jsonFactory, jsonConfig.prettyPrint(), jsonConfig.recycledBufferMaxBytes(),
+                                                       maxRecordBytes);
+                recycledOutputs.set(output);
+            }
+
+            return output;
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void discardOutput(final RecyclableJsonOutput output) {
+
+        if (formatterMetrics != null) {
+            formatterMetrics.serializationFailed();
+        }
+
+        if (output.isRecycled()) {
+            recycledOutputs.remove();
+        }
+        output.discard();
     }
 
-    // FIXME: this seems a very innocent implementation.
-    private static boolean thisIsTheLastRecord(final Map<String, Object> fieldsToRender) {
+    private String release(final RecyclableJsonOutput output) throws IOException {
+
+        if (formatterMetrics != null) {
+            formatterMetrics.addBytesProduced(output.size());
+        }
+
+        return output.release();
+    }
+
+    static void writeFields(final JsonGenerator generator, final ExtLogRecord record, final FieldWriter[] fieldWriters) throws IOException {
+
+        generator.writeStartObject();
+        for (final FieldWriter fieldWriter : fieldWriters) {
+            fieldWriter.write(generator, record);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeRecordEnd(final JsonGenerator generator) throws IOException {
+
+        if (jsonConfig.recordDelimiter().isPresent()) {
+            generator.writeRaw(jsonConfig.recordDelimiter().get());
+        }
 
-        final Object messageField = fieldsToRender.get("message");
-        return messageField instanceof String && ((String) messageField).contains("stopped in");
+        generator.writeRaw(NEW_LINE);
+        generator.flush();
     }
 
 }
@@ -0,0 +1,239 @@
+package com.bmc.extensions.loggingjson.runtime.core.exceptions;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.BoundedCache;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static org.jboss.logmanager.Level.WARN;
+
+/**
+ * Decides which occurrences of an exception are rendered in full, and which ones are suppressed to a reference to the full one.
+ * <p>
+ * Exceptions are told apart by their {@link ThrowableFingerprint#ofFrames frames fingerprint}: the same failure thrown from every request
+ * thread is the same exception, whatever its message says.<br>
+ * The first occurrence of an exception opens a window, and is rendered in full with a reference id.<br>
+ * Every other occurrence within the window is suppressed: it only carries its type, message and the reference id of the full occurrence.<br>
+ * The first occurrence after the window is rendered in full again, opening a new window, and reports how many occurrences the previous window
+ * suppressed.
+ * <p>
+ * A formatter cannot emit records on its own, so the windows of an exception that stops occurring are reported by a summary record, handed
+ * to the caller of {@link #pendingSummary()} to be rendered along with the record it is formatting, whatever that record is.<br>
+ * Windows are swept at most once per window duration, and a window is only reported by the summary once a whole window went by after it
+ * expired, giving the next occurrence of its exception the time to report it first. Windows are also reported by the summary when they are
+ * evicted, and by the final summary taken as the handler closes.
+ * <p>
+ * A window is closed once reported, atomically with reading its count: an occurrence counted into a window as it is closed is rendered in
+ * full instead, so every suppressed occurrence is reported exactly once.
+ * <p>
+ * Windows are kept in a {@link BoundedCache}, so a flood of distinct exceptions cannot grow it.
+ *
+ * @author BareMetalCode
+ */
+public class ExceptionThrottle {
+
+    /**
+     * The logger name of the summary records.
+     */
+    public static final String SUMMARY_LOGGER_NAME = "com.bmc.extensions.loggingjson.exceptions";
+
+    private static final String SUPPRESSED_OCCURRENCES_KEY = "suppressedOccurrences";
+
+    private final AtomicLong                                 nextSweepNanos;
+    private final Queue<Map.Entry<String, Long>>             reportedWindows = new ConcurrentLinkedQueue<>();
+    private final BoundedCache<ThrowableFingerprint, Window> windows;
+    private final long                                       windowNanos;
+
+    public ExceptionThrottle(final Duration window, final int maxExceptions) {
+
+        this.windowNanos    = window.toNanos();
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + windowNanos);
+        this.windows        = new BoundedCache<>(maxExceptions, (fingerprint, evicted) -> report(evicted));
+    }
+
+    /**
+     * Returns the summary of the occurrences suppressed by every window not reported yet, expired or not, as the output closes and no
+     * record may follow to carry it.
+     *
+     * @return a summary record, or null if no window suppressed any occurrence.
+     */
+    public ExtLogRecord finalSummary() {
+
+        windows.forEach((fingerprint, window) -> {
+            if (windows.remove(fingerprint, window)) {
+                report(window);
+            }
+        });
+
+        return drainSummary();
+    }
+
+    /**
+     * Returns the summary of the occurrences suppressed by the windows expired for a whole window, or evicted, since the previous summary.
+     * <p>
+     * The windows are only swept once per window duration, other calls cost a clock read. Only one caller gets a given summary.
+     *
+     * @return a summary record, or null if no summary is due.
+     */
+    public ExtLogRecord pendingSummary() {
+
+        final long now       = System.nanoTime();
+        final long nextSweep = nextSweepNanos.get();
+
+        if (now - nextSweep < 0 || !nextSweepNanos.compareAndSet(nextSweep, now + windowNanos)) {
+            return null;
+        }
+
+        windows.forEach((fingerprint, window) -> {
+            if (now - window.startNanos >= 2 * windowNanos && windows.remove(fingerprint, window)) {
+                report(window);
+            }
+        });
+
+        return drainSummary();
+    }
+
+    /**
+     * Registers an occurrence of the given exception.
+     *
+     * @param throwable the exception being logged.
+     *
+     * @return how the occurrence must be rendered.
+     */
+    public Occurrence register(final Throwable throwable) {
+
+        final ThrowableFingerprint fingerprint = ThrowableFingerprint.ofFrames(throwable);
+
+        while (true) {
+            final long   now     = System.nanoTime();
+            final Window current = windows.get(fingerprint);
+
+            if (current != null && now - current.startNanos < windowNanos && current.suppressed.getAndIncrement() >= 0) {
+                return new Occurrence(current.referenceId, true, 0);
+            }
+
+            final Window next = new Window(fingerprint, now);
+
+            if (current == null ? windows.putIfAbsent(fingerprint, next) == null : windows.replace(fingerprint, current, next)) {
+                return new Occurrence(next.referenceId, false, current == null ? 0 : current.close());
+            }
+        }
+    }
+
+    private static ExtLogRecord createSummary(final Map<String, Long> suppressedOccurrences) {
+
+        final ExtLogRecord summary = new ExtLogRecord(WARN, "Throttled exception occurrences suppressed", ExceptionThrottle.class.getName());
+        summary.setLoggerName(SUMMARY_LOGGER_NAME);
+        summary.setParameters(new Object[]{logEntry(of(SUPPRESSED_OCCURRENCES_KEY, suppressedOccurrences))});
+
+        return summary;
+    }
+
+    private ExtLogRecord drainSummary() {
+
+        final Map<String, Long> suppressedOccurrences = new LinkedHashMap<>();
+        Map.Entry<String, Long> reported;
+
+        while ((reported = reportedWindows.poll()) != null) {
+            suppressedOccurrences.merge(reported.getKey(), reported.getValue(), Long::sum);
+        }
+
+        return suppressedOccurrences.isEmpty() ? null : createSummary(suppressedOccurrences);
+    }
+
+    private void report(final Window window) {
+
+        final long suppressed = window.close();
+        if (suppressed > 0) {
+            reportedWindows.add(Map.entry(window.referenceId, suppressed));
+        }
+    }
+
+    /**
+     * An occurrence of an exception, as decided by the throttle.
+     */
+    public static final class Occurrence {
+
+        private final long    previouslySuppressed;
+        private final String  referenceId;
+        private final boolean suppressed;
+
+        private Occurrence(final String referenceId, final boolean suppressed, final long previouslySuppressed) {
+
+            this.referenceId          = referenceId;
+            this.suppressed           = suppressed;
+            this.previouslySuppressed = previouslySuppressed;
+        }
+
+        /**
+         * Returns the number of occurrences suppressed by the previous window of a full occurrence.
+         *
+         * @return the suppressed occurrences count, 0 for suppressed occurrences.
+         */
+        public long previouslySuppressed() {
+
+            return previouslySuppressed;
+        }
+
+        /**
+         * Returns the id referencing the full occurrence of the window.
+         *
+         * @return the reference id.
+         */
+        public String referenceId() {
+
+            return referenceId;
+        }
+
+        /**
+         * Tells whether the occurrence is suppressed, or rendered in full.
+         *
+         * @return {@code true} if suppressed.
+         */
+        public boolean suppressed() {
+
+            return suppressed;
+        }
+
+    }
+
+    /**
+     * A window opened by the full occurrence of an exception, identified by the time it was opened and the exception fingerprint.
+     * <p>
+     * Closing a window swaps its count for a large negative value, so an occurrence counted into it afterward sees it closed.
+     */
+    private static final class Window {
+
+        private static final long CLOSED = Long.MIN_VALUE;
+
+        private final String     referenceId;
+        private final long       startNanos;
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(final ThrowableFingerprint fingerprint, final long startNanos) {
+
+            this.referenceId = Long.toString(System.currentTimeMillis(), 36) + "-" + Integer.toHexString(fingerprint.hashCode());
+            this.startNanos  = startNanos;
+        }
+
+        /**
+         * Closes the window.
+         *
+         * @return the occurrences it suppressed, 0 if it was already closed.
+         */
+        private long close() {
+
+            return Math.max(suppressed.getAndSet(CLOSED), 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.bmc.extensions.loggingjson.runtime.core.exceptions;
+
+import java.util.function.Function;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.BoundedCache;
+
+/**
+ * A bounded, concurrent cache of rendered stack traces, keyed by {@link ThrowableFingerprint}.
+ * <p>
+ * The same exception tends to be logged over and over, exactly when the application is under stress: its rendering is computed once and
+ * reused as long as it stays in the cache.<br>
+ * Renderings of the frames alone and renderings of whole traces are kept apart, as they are keyed by fingerprints of different depths.
+ * <p>
+ * Cached renderings are shared by every record and thread, so they must not be modified once rendered.
+ *
+ * @author BareMetalCode
+ */
+public class StackTraceCache {
+
+    private final BoundedCache<ThrowableFingerprint, Object> renderedFrames;
+    private final BoundedCache<ThrowableFingerprint, String> renderedTraces;
+
+    public StackTraceCache(final int maxEntries) {
+
+        this.renderedFrames = new BoundedCache<>(maxEntries);
+        this.renderedTraces = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Returns the rendering of the frames of the given throwable, rendering them on a miss.
+     *
+     * @param throwable the throwable to render the frames of.
+     * @param renderer  the function rendering frames, must not return null.
+     *
+     * @return the rendered frames.
+     */
+    public Object renderFrames(final Throwable throwable, final Function<StackTraceElement[], Object> renderer) {
+
+        return renderedFrames.get(ThrowableFingerprint.ofFrames(throwable), fingerprint -> renderer.apply(fingerprint.frames()));
+    }
+
+    /**
+     * Returns the rendering of the whole trace of the given throwable, rendering it on a miss.
+     *
+     * @param throwable the throwable to render the trace of.
+     * @param renderer  the function rendering a trace, must not return null.
+     *
+     * @return the rendered trace.
+     */
+    public String renderTrace(final Throwable throwable, final Function<Throwable, String> renderer) {
+
+        return renderedTraces.get(ThrowableFingerprint.ofTrace(throwable), fingerprint -> renderer.apply(throwable));
+    }
+
+}
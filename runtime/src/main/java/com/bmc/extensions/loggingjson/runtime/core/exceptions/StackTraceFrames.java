@@ -0,0 +1,132 @@
+package com.bmc.extensions.loggingjson.runtime.core.exceptions;
+
+import java.io.IOException;
+
+import com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.*;
+
+/**
+ * The frames of a stack trace rendered as an array of objects, written field by field straight to the generator.
+ * <p>
+ * Letting Jackson serialize frames means bean introspection of every {@link StackTraceElement} property, or one intermediate object per
+ * frame: deep framework stacks easily hold 150+ frames, which makes an exception record far more expensive than a plain one.
+ * <p>
+ * {@link StackTraceDetail#CLASS_METHOD_LINE} frames are written with the {@code class}, {@code line} and {@code method} keys.<br>
+ * {@link StackTraceDetail#FULL} frames are written with every {@link StackTraceElement} property, named and ordered as Jackson's bean
+ * serialization of the element does, {@code null} properties omitted.
+ * <p>
+ * Being {@link JsonSerializable}, the same instance renders the same bytes whether it is written by the streaming field writers or serialized
+ * by the {@code ObjectMapper} as a map value.<br>
+ * Instances are immutable, so they can be cached and shared between records.
+ *
+ * @author BareMetalCode
+ */
+public class StackTraceFrames implements JsonSerializable {
+
+    private static final SerializableString CLASS_LOADER_NAME = new SerializedString("classLoaderName");
+    private static final SerializableString CLASS_NAME        = new SerializedString("className");
+    private static final SerializableString FILE_NAME         = new SerializedString("fileName");
+    private static final SerializableString FRAME_CLASS       = new SerializedString(EXCEPTION_FRAME_CLASS.getValue());
+    private static final SerializableString FRAME_LINE        = new SerializedString(EXCEPTION_FRAME_LINE.getValue());
+    private static final SerializableString FRAME_METHOD      = new SerializedString(EXCEPTION_FRAME_METHOD.getValue());
+    private static final SerializableString LINE_NUMBER       = new SerializedString("lineNumber");
+    private static final SerializableString METHOD_NAME       = new SerializedString("methodName");
+    private static final SerializableString MODULE_NAME       = new SerializedString("moduleName");
+    private static final SerializableString MODULE_VERSION    = new SerializedString("moduleVersion");
+    private static final SerializableString NATIVE_METHOD     = new SerializedString("nativeMethod");
+
+    private final boolean             fullDetail;
+    private final int                 frameCount;
+    private final StackTraceElement[] frames;
+
+    /**
+     * Creates the frames rendering of a stack trace.
+     *
+     * @param frames     the stack trace frames, not modified afterward.
+     * @param detail     either {@link StackTraceDetail#CLASS_METHOD_LINE} or {@link StackTraceDetail#FULL}.
+     * @param frameCount the number of leading frames to write, at most the number of frames.
+     */
+    public StackTraceFrames(final StackTraceElement[] frames, final StackTraceDetail detail, final int frameCount) {
+
+        if (detail != StackTraceDetail.CLASS_METHOD_LINE && detail != StackTraceDetail.FULL) {
+            throw new IllegalArgumentException("Frames can only be rendered as CLASS_METHOD_LINE or FULL, not " + detail);
+        }
+
+        this.frames     = frames;
+        this.fullDetail = detail == StackTraceDetail.FULL;
+        this.frameCount = frameCount;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers) throws IOException {
+
+        writeTo(generator);
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator generator, final SerializerProvider serializers, final TypeSerializer typeSerializer)
+            throws IOException {
+
+        writeTo(generator);
+    }
+
+    /**
+     * Writes the frames as a JSON array to the given generator.
+     *
+     * @param generator the generator to write to, positioned where a value is expected.
+     *
+     * @throws IOException if the generator fails to write.
+     */
+    public void writeTo(final JsonGenerator generator) throws IOException {
+
+        generator.writeStartArray(frames, frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            generator.writeStartObject();
+            if (fullDetail) {
+                writeFullFrame(generator, frames[i]);
+            } else {
+                writeClassMethodLineFrame(generator, frames[i]);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeClassMethodLineFrame(final JsonGenerator generator, final StackTraceElement frame) throws IOException {
+
+        writeStringIfPresent(generator, FRAME_CLASS, frame.getClassName());
+        generator.writeFieldName(FRAME_LINE);
+        generator.writeNumber(frame.getLineNumber());
+        writeStringIfPresent(generator, FRAME_METHOD, frame.getMethodName());
+    }
+
+    private static void writeFullFrame(final JsonGenerator generator, final StackTraceElement frame) throws IOException {
+
+        writeStringIfPresent(generator, CLASS_LOADER_NAME, frame.getClassLoaderName());
+        writeStringIfPresent(generator, MODULE_NAME, frame.getModuleName());
+        writeStringIfPresent(generator, MODULE_VERSION, frame.getModuleVersion());
+        writeStringIfPresent(generator, METHOD_NAME, frame.getMethodName());
+        writeStringIfPresent(generator, FILE_NAME, frame.getFileName());
+        generator.writeFieldName(LINE_NUMBER);
+        generator.writeNumber(frame.getLineNumber());
+        writeStringIfPresent(generator, CLASS_NAME, frame.getClassName());
+        generator.writeFieldName(NATIVE_METHOD);
+        generator.writeBoolean(frame.isNativeMethod());
+    }
+
+    private static void writeStringIfPresent(final JsonGenerator generator, final SerializableString key, final String value) throws IOException {
+
+        if (value != null) {
+            generator.writeFieldName(key);
+            generator.writeString(value);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.bmc.extensions.loggingjson.runtime.core.exceptions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A value identifying everything a rendering of a {@link Throwable} depends on, so that equal fingerprints render equally.
+ * <p>
+ * Two depths are available:<br>
+ * - {@link #ofFrames}: the throwable class and its frames, for renderings made of the frames only.<br>
+ * - {@link #ofTrace}: the throwable description and message, its frames, and the same again for its causes and suppressed throwables, for
+ * renderings of the whole trace.
+ * <p>
+ * Frames are compared by value, as every throwable instance gets its own {@link StackTraceElement}s.<br>
+ * The hash is computed once, when the fingerprint is taken.
+ *
+ * @author BareMetalCode
+ */
+public final class ThrowableFingerprint {
+
+    private static final ThrowableFingerprint[] NONE      = {};
+    private static final int                    MAX_DEPTH = 64;
+
+    private final String                 description;
+    private final StackTraceElement[]    frames;
+    private final int                    hash;
+    private final String                 message;
+    private final ThrowableFingerprint[] related;
+    private final Class<?>               type;
+
+    private ThrowableFingerprint(final Class<?> type, final String description, final String message, final StackTraceElement[] frames,
+                                 final ThrowableFingerprint[] related) {
+
+        this.type        = type;
+        this.description = description;
+        this.message     = message;
+        this.frames      = frames;
+        this.related     = related;
+        this.hash        = Objects.hash(type, description, message, Arrays.hashCode(frames), Arrays.hashCode(related));
+    }
+
+    /**
+     * Takes the fingerprint of the class and frames of the given throwable.
+     *
+     * @param throwable the throwable, not null.
+     *
+     * @return the fingerprint.
+     */
+    public static ThrowableFingerprint ofFrames(final Throwable throwable) {
+
+        return new ThrowableFingerprint(throwable.getClass(), null, null, throwable.getStackTrace(), NONE);
+    }
+
+    /**
+     * Takes the fingerprint of the whole trace of the given throwable, causes and suppressed throwables included.
+     *
+     * @param throwable the throwable, not null.
+     *
+     * @return the fingerprint.
+     */
+    public static ThrowableFingerprint ofTrace(final Throwable throwable) {
+
+        return ofTrace(throwable, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static ThrowableFingerprint ofTrace(final Throwable throwable, final Set<Throwable> visited, final int depth) {
+
+        final Throwable              cause      = throwable.getCause();
+        final Throwable[]            suppressed = throwable.getSuppressed();
+        final ThrowableFingerprint[] related    = new ThrowableFingerprint[suppressed.length + 1];
+
+        visited.add(throwable);
+        for (int i = 0; i < suppressed.length; i++) {
+            related[i] = relatedFingerprint(suppressed[i], visited, depth);
+        }
+        related[suppressed.length] = relatedFingerprint(cause, visited, depth);
+
+        return new ThrowableFingerprint(throwable.getClass(), throwable.toString(), throwable.getMessage(), throwable.getStackTrace(), related);
+    }
+
+    /**
+     * Throwables already seen, or too deep, are rendered as references by the trace renderers: their identity is enough.
+     */
+    private static ThrowableFingerprint relatedFingerprint(final Throwable throwable, final Set<Throwable> visited, final int depth) {
+
+        if (throwable == null) {
+            return null;
+        }
+        if (visited.contains(throwable) || depth >= MAX_DEPTH) {
+            return new ThrowableFingerprint(throwable.getClass(), throwable.toString(), null, null, NONE);
+        }
+
+        return ofTrace(throwable, visited, depth + 1);
+    }
+
+    /**
+     * Returns the frames of the fingerprinted throwable.
+     * <p>
+     * The array is the one taken with the fingerprint, it must not be modified.
+     *
+     * @return the frames.
+     */
+    public StackTraceElement[] frames() {
+
+        return frames;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+
+        if (this == other) {
+            return true;
+        }
+
+        return other instanceof final ThrowableFingerprint fingerprint
+               && hash == fingerprint.hash
+               && type == fingerprint.type
+               && Objects.equals(description, fingerprint.description)
+               && Objects.equals(message, fingerprint.message)
+               && Arrays.equals(frames, fingerprint.frames)
+               && Arrays.equals(related, fingerprint.related);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return hash;
+    }
+
+}
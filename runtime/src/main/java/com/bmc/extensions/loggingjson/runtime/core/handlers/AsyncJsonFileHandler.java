@@ -0,0 +1,205 @@
+package com.bmc.extensions.loggingjson.runtime.core.handlers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.MpscRingBuffer;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+
+/**
+ * Handler publishing records to a {@link JsonFileHandler} from a single background writer thread.
+ * <p>
+ * Logging threads only prepare the record to be read from another thread and put it in a {@link MpscRingBuffer}.<br>
+ * The writer thread takes records out in order and writes them without flushing, so consecutive records fill the file handler's buffer
+ * before it drains to disk: the file handler is flushed whenever the ring buffer runs empty.
+ * <p>
+ * Closing this handler stops accepting records and waits for the logging threads already publishing, blocked on a full buffer included, to
+ * queue their record. The writer thread then writes every pending record before the file handler is closed, whatever is still queued
+ * when it stops being written by the closing thread.
+ *
+ * @author BareMetalCode
+ */
+public class AsyncJsonFileHandler extends ExtHandler {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final    JsonFileHandler              delegate;
+    private final    AtomicInteger                inFlightPublishers = new AtomicInteger();
+    private final    OverflowAction               overflowAction;
+    private final    MpscRingBuffer<ExtLogRecord> ringBuffer;
+    private final    Thread                       writerThread;
+    private volatile boolean                      running            = true;
+    private volatile boolean                      stopped;
+    private volatile boolean                      writerParked;
+
+    /**
+     * Creates the handler and starts its writer thread.
+     *
+     * @param delegate       the handler writing the records, owned and closed by this handler.
+     * @param queueLength    the number of records the ring buffer can hold.
+     * @param overflowAction whether to block or discard when the ring buffer is full.
+     */
+    public AsyncJsonFileHandler(final JsonFileHandler delegate, final int queueLength, final OverflowAction overflowAction) {
+
+        this.delegate       = delegate;
+        this.overflowAction = overflowAction;
+        this.ringBuffer     = new MpscRingBuffer<>(queueLength);
+        this.writerThread   = new Thread(this::writeRecords, "bmc-logging-json-writer");
+
+        delegate.setAutoFlush(false);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void close() throws SecurityException {
+
+        running = false;
+
+        while (inFlightPublishers.get() > 0 && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+
+        stopped = true;
+        LockSupport.unpark(writerThread);
+
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        writePendingRecords();
+        delegate.close();
+        super.close();
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the records published so far to be written, then flushes the file handler.
+     */
+    @Override
+    public void flush() {
+
+        final long published = ringBuffer.produced();
+
+        while (ringBuffer.consumed() < published && writerThread.isAlive() && Thread.currentThread() != writerThread) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+
+        delegate.flush();
+        super.flush();
+    }
+
+    @Override
+    public boolean isCallerCalculationRequired() {
+
+        return delegate.isCallerCalculationRequired();
+    }
+
+    /**
+     * A logging thread counts as publishing before it checks whether the handler is running, so that closing, which stops running before
+     * waiting for the publishing threads, either sees it publishing or is seen by it.
+     */
+    @Override
+    protected void doPublish(final ExtLogRecord record) {
+
+        inFlightPublishers.incrementAndGet();
+        try {
+            if (running) {
+                enqueue(record);
+            }
+        } finally {
+            inFlightPublishers.decrementAndGet();
+        }
+    }
+
+    /**
+     * A full buffer is waited on as long as the writer thread runs, even while closing, as closing waits for the record to be queued.
+     */
+    private void enqueue(final ExtLogRecord record) {
+
+        if (isCallerCalculationRequired()) {
+            record.copyAll();
+        } else {
+            record.disableCallerCalculation();
+            record.copyMdc();
+        }
+
+        if (Thread.currentThread() == writerThread) {
+            delegate.publish(record);
+            return;
+        }
+
+        while (!ringBuffer.offer(record)) {
+            if (overflowAction == OverflowAction.DISCARD || !writerThread.isAlive()) {
+                return;
+            }
+            wakeUpWriter();
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+
+        wakeUpWriter();
+    }
+
+    private void wakeUpWriter() {
+
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Only called once the writer thread is over, the closing thread being the single consumer from then on.
+     */
+    private void writePendingRecords() {
+
+        ExtLogRecord record;
+        while ((record = ringBuffer.poll()) != null) {
+            delegate.publish(record);
+        }
+    }
+
+    private void writeRecords() {
+
+        boolean pendingFlush = false;
+
+        while (!stopped || !ringBuffer.isEmpty()) {
+            final ExtLogRecord record = ringBuffer.poll();
+
+            if (record != null) {
+                delegate.publish(record);
+                pendingFlush = true;
+                continue;
+            }
+
+            if (pendingFlush) {
+                delegate.flush();
+                pendingFlush = false;
+                continue;
+            }
+
+            writerParked = true;
+            if (!stopped && ringBuffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+
+        delegate.flush();
+    }
+
+}
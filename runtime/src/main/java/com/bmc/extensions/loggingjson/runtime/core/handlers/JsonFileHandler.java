@@ -0,0 +1,376 @@
+package com.bmc.extensions.loggingjson.runtime.core.handlers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.logging.ErrorManager;
+
+import com.bmc.extensions.loggingjson.runtime.core.FieldWriter;
+import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.FramedRecordWriter;
+import com.bmc.extensions.loggingjson.runtime.core.ReusableByteArrayOutputStream;
+import com.bmc.extensions.loggingjson.runtime.core.StructuredLogWriter;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle;
+import com.bmc.extensions.loggingjson.runtime.core.limits.RecordTooLargeException;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
+import com.bmc.extensions.loggingjson.runtime.core.ratelimit.RecordRateLimiter;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.CountingOutputStream;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.core.StructuredLogWriter.*;
+import static com.bmc.extensions.loggingjson.runtime.core.limits.OversizedRecords.replacementOf;
+import static com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics.NOT_SAMPLED;
+
+/**
+ * Handler writing JSON records as UTF-8 bytes straight to an {@link OutputStream}, without going through a {@link java.util.logging.Formatter}.
+ * <p>
+ * A formatter must return a {@link String}, which the file handler then encodes back into bytes.<br>
+ * This handler keeps a single {@link JsonGenerator} over its stream instead, and runs the compiled {@link FieldWriter}s of the
+ * {@link StructuredLog} template on it: the bytes Jackson produces are the bytes written to the file.
+ * <p>
+ * In JSON array mode the array is opened as the handler is created, or the array of a previous run reopened, and closed as the handler is
+ * closed, records being written as its elements.
+ * <p>
+ * With a binary encoding, records are rendered by a {@link FramedRecordWriter} and written as length-prefixed frames instead.
+ * <p>
+ * When a max record size is set, every record is rendered into a buffer bounded to it, and only written to the stream once complete: the
+ * generator writes to a record buffer instead of the stream, and frames are already rendered into one.<br>
+ * A record going over the limit is dropped from its buffer and replaced, whatever the encoding, by the record the formatter renders in
+ * its place: the same core fields, without MDC nor exception, and a message reporting the limit.
+ * <p>
+ * The generator does not pass its end of record flushes on to the stream, which is only flushed when the handler is: after every record
+ * while auto flush is on, or whenever its queue runs empty when an {@link AsyncJsonFileHandler} turned it off, so consecutive records are
+ * drained to the file together.
+ * <p>
+ * When metrics are enabled, sampled latencies cover the whole write of a record, waiting for the handler's lock included.<br>
+ * The stream is then wrapped to count the bytes written, every record being written through to it before the lock is released, so the bytes
+ * produced by a record are the bytes counted while writing it, frame length prefix included.<br>
+ * Rate limited records are dropped before taking the lock, a due summary of dropped records is written right before the next record, and
+ * a final one as the handler closes.<br>
+ * A due summary of the exception occurrences suppressed by expired throttle windows is written right after the next record, and a final one
+ * as the handler closes.
+ *
+ * @author BareMetalCode
+ */
+public class JsonFileHandler extends ExtHandler {
+
+    private static final int RECORD_BUFFER_INITIAL_CAPACITY = 1024;
+
+    private final CountingOutputStream          countingOutputStream;
+    private final ExceptionThrottle             exceptionThrottle;
+    private final FieldWriter[]                 fieldWriters;
+    private final FormatterMetrics              formatterMetrics;
+    private final FramedRecordWriter            framedRecordWriter;
+    private final boolean                       jsonArray;
+    private final JsonFactory                   jsonFactory;
+    private final OutputStream                  outputStream;
+    private final boolean                       printDetails;
+    private final boolean                       prettyPrint;
+    private final ReusableByteArrayOutputStream recordBuffer;
+    private final int                           recordBufferMaxBytes;
+    private final RecordRateLimiter             recordRateLimiter;
+    private final StructuredLogWriter           structuredLogWriter;
+    private       boolean                       arrayElementWritten;
+    private       JsonGenerator                 generator;
+
+    /**
+     * Creates a handler writing to the given output stream, which is closed when the handler is closed.
+     *
+     * @param structuredLog the {@link StructuredLog} template, with its field writers compiled.
+     * @param jsonFactory   the factory used to create the JSON generator.
+     * @param outputStream  the stream records are written to.
+     * @param jsonArray     whether records are written as the elements of a JSON array.
+     *
+     * @throws IOException if the generator cannot be created, or the array cannot be opened.
+     */
+    public JsonFileHandler(final StructuredLog structuredLog, final JsonFactory jsonFactory, final OutputStream outputStream, final boolean jsonArray)
+            throws IOException {
+
+        this(structuredLog, jsonFactory, outputStream, jsonArray ? JsonArrayState.NEW : JsonArrayState.NONE, null);
+    }
+
+    /**
+     * Creates a handler writing to the given output stream, which is closed when the handler is closed, records being written as frames
+     * if a framed record writer is given.
+     *
+     * @param structuredLog      the {@link StructuredLog} template, with its field writers compiled.
+     * @param jsonFactory        the factory used to create the JSON generator.
+     * @param outputStream       the stream records are written to.
+     * @param jsonArrayState     the state of the JSON array records are written as the elements of, not allowed with frames: a reopened
+     *                           array is not opened again, and its next element is preceded by a comma if it has any.
+     * @param framedRecordWriter the writer of binary frames, or {@code null} to write JSON text.
+     *
+     * @throws IOException if the generator cannot be created, or the array cannot be opened.
+     */
+    public JsonFileHandler(final StructuredLog structuredLog, final JsonFactory jsonFactory, final OutputStream outputStream,
+                           final JsonArrayState jsonArrayState, final FramedRecordWriter framedRecordWriter) throws IOException {
+
+        if (jsonArrayState != JsonArrayState.NONE && framedRecordWriter != null) {
+            throw new IllegalArgumentException("Records written as binary frames cannot be written as a JSON array");
+        }
+
+        final JsonConfig jsonConfig = structuredLog.getJsonConfig();
+        final boolean    bounded    = jsonConfig.maxRecordBytes() > 0 && framedRecordWriter == null;
+
+        this.exceptionThrottle    = structuredLog.getExceptionThrottle();
+        this.fieldWriters         = structuredLog.getFieldWriters();
+        this.formatterMetrics     = structuredLog.getFormatterMetrics();
+        this.framedRecordWriter   = framedRecordWriter;
+        this.jsonArray            = jsonArrayState != JsonArrayState.NONE;
+        this.jsonFactory          = jsonFactory;
+        this.countingOutputStream = formatterMetrics != null ? new CountingOutputStream(outputStream) : null;
+        this.outputStream         = countingOutputStream != null ? countingOutputStream : outputStream;
+        this.printDetails         = jsonConfig.printDetails();
+        this.prettyPrint          = jsonConfig.prettyPrint();
+        this.recordBuffer         = bounded ? new ReusableByteArrayOutputStream(RECORD_BUFFER_INITIAL_CAPACITY, jsonConfig.maxRecordBytes()) : null;
+        this.recordBufferMaxBytes = jsonConfig.recycledBufferMaxBytes();
+        this.recordRateLimiter    = structuredLog.getRecordRateLimiter();
+        this.structuredLogWriter  = new StructuredLogWriter(jsonFactory, jsonConfig, formatterMetrics);
+        this.generator            = createGenerator();
+        this.arrayElementWritten  = jsonArrayState == JsonArrayState.REOPENED;
+
+        if (jsonArrayState == JsonArrayState.NEW) {
+            writeArrayStart(generator);
+            drainRecordBuffer();
+        }
+    }
+
+    @Override
+    public void close() throws SecurityException {
+
+        final ExtLogRecord droppedSummary = recordRateLimiter == null ? null : recordRateLimiter.finalSummary();
+        if (droppedSummary != null) {
+            writeRecord(droppedSummary);
+        }
+
+        final ExtLogRecord suppressedSummary = exceptionThrottle == null ? null : exceptionThrottle.finalSummary();
+        if (suppressedSummary != null) {
+            writeRecord(suppressedSummary);
+        }
+
+        lock.lock();
+        try {
+            if (jsonArray) {
+                writeArrayEnd(generator);
+                drainRecordBuffer();
+            }
+            generator.close();
+        } catch (final IOException e) {
+            reportError("Failed to close the JSON log output", e, ErrorManager.CLOSE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+        super.close();
+    }
+
+    @Override
+    public void flush() {
+
+        lock.lock();
+        try {
+            generator.flush();
+            outputStream.flush();
+        } catch (final IOException e) {
+            reportError("Failed to flush the JSON log output", e, ErrorManager.FLUSH_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+        super.flush();
+    }
+
+    /**
+     * Caller details are only read when they are printed.
+     *
+     * @return whether the template prints the record details.
+     */
+    @Override
+    public boolean isCallerCalculationRequired() {
+
+        return printDetails;
+    }
+
+    @Override
+    protected void doPublish(final ExtLogRecord record) {
+
+        writeRateLimited(record);
+
+        final ExtLogRecord summary = exceptionThrottle == null ? null : exceptionThrottle.pendingSummary();
+        if (summary != null) {
+            writeRecord(summary);
+        }
+    }
+
+    private void closeGenerator() throws IOException {
+
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT).close();
+    }
+
+    private JsonGenerator createGenerator() throws IOException {
+
+        final OutputStream target = recordBuffer != null ? recordBuffer : outputStream;
+
+        return createRecordGenerator(target, jsonFactory, prettyPrint).disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    /**
+     * Drops the oversized record from its buffer, nothing of it was written to the stream.
+     * <p>
+     * A JSON record leaves the generator in the middle of it, so a fresh one is created over the emptied buffer; a frame is reset as the
+     * next one is rendered.
+     */
+    private void discardRecord() throws IOException {
+
+        if (recordBuffer == null) {
+            return;
+        }
+
+        closeGenerator();
+        recordBuffer.reset(recordBufferMaxBytes);
+        generator = createGenerator();
+    }
+
+    /**
+     * Writes what the generator rendered into the record buffer to the stream, if records are buffered.
+     */
+    private void drainRecordBuffer() throws IOException {
+
+        if (recordBuffer != null) {
+            recordBuffer.writeTo(outputStream);
+            recordBuffer.reset(recordBufferMaxBytes);
+        }
+    }
+
+    /**
+     * A failure may leave the generator in the middle of a record, whose beginning may already be in the stream.
+     * <p>
+     * The generator is closed, releasing its buffers, without closing the stream nor completing the record, which would make a truncated
+     * record look valid.<br>
+     * A fresh generator over the same stream ends the line of the failed record, so the next record is not appended to it. In JSON array mode
+     * the failed element counts as written, so the next one is still preceded by its separator.<br>
+     * Buffered records and frames are only written once complete: the buffer of a failed record is emptied without ending any line, and a
+     * failed frame leaves nothing to reset.
+     */
+    private void resetGenerator() {
+
+        if (framedRecordWriter != null) {
+            return;
+        }
+
+        try {
+            closeGenerator();
+        } catch (final IOException e) {
+            reportError("Failed to close the JSON generator", e, ErrorManager.GENERIC_FAILURE);
+        }
+
+        try {
+            if (recordBuffer != null) {
+                recordBuffer.reset(recordBufferMaxBytes);
+                generator = createGenerator();
+                return;
+            }
+            generator = createGenerator();
+            writeLineEnd(generator);
+        } catch (final IOException e) {
+            reportError("Failed to recreate the JSON generator", e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    /**
+     * The separator of a record may be written before it fails, so the record counts as written from the start, the next one being
+     * separated from whatever was written.
+     */
+    private void writeArrayRecord(final ExtLogRecord record) throws IOException {
+
+        final boolean firstElement = !arrayElementWritten;
+        arrayElementWritten = true;
+
+        writeArrayElement(generator, record, fieldWriters, firstElement);
+    }
+
+    /**
+     * Writes the record in the handler's encoding, a buffered JSON record being written to the stream once complete.
+     */
+    private void writeEncoded(final ExtLogRecord record) throws IOException {
+
+        if (framedRecordWriter != null) {
+            framedRecordWriter.writeRecord(outputStream, record);
+            return;
+        }
+
+        if (jsonArray) {
+            writeArrayRecord(record);
+        } else {
+            structuredLogWriter.writeRecord(generator, record, fieldWriters);
+        }
+        drainRecordBuffer();
+    }
+
+    private void writeRateLimited(final ExtLogRecord record) {
+
+        if (recordRateLimiter == null) {
+            writeRecord(record);
+            return;
+        }
+
+        if (!recordRateLimiter.tryAcquire(record)) {
+            return;
+        }
+
+        final ExtLogRecord summary = recordRateLimiter.pendingSummary();
+        if (summary != null) {
+            writeRecord(summary);
+        }
+        writeRecord(record);
+    }
+
+    private void writeRecord(final ExtLogRecord record) {
+
+        final long sampleStart = formatterMetrics != null ? formatterMetrics.startLatencySample() : NOT_SAMPLED;
+
+        lock.lock();
+        try {
+            final long bytesBefore = countingOutputStream != null ? countingOutputStream.count() : 0;
+
+            writeWithinLimit(record);
+            if (formatterMetrics != null) {
+                formatterMetrics.addBytesProduced((int) (countingOutputStream.count() - bytesBefore));
+                formatterMetrics.recordFormatted(record, sampleStart);
+            }
+            super.doPublish(record);
+        } catch (final IOException | RuntimeException e) {
+            if (formatterMetrics != null) {
+                formatterMetrics.serializationFailed();
+            }
+            reportError("Failed to write the JSON log record", e, ErrorManager.WRITE_FAILURE);
+            resetGenerator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An oversized record counts as a failure, as it does for the formatter, and is replaced by its core fields.<br>
+     * Its separator was only written to the dropped buffer, so in JSON array mode the replacement is preceded by one if the record was.
+     */
+    private void writeWithinLimit(final ExtLogRecord record) throws IOException {
+
+        final boolean elementWritten = arrayElementWritten;
+
+        try {
+            writeEncoded(record);
+        } catch (final RecordTooLargeException tooLarge) {
+            if (formatterMetrics != null) {
+                formatterMetrics.serializationFailed();
+            }
+            discardRecord();
+            arrayElementWritten = elementWritten;
+            writeEncoded(replacementOf(record, tooLarge));
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.bmc.extensions.loggingjson.runtime.core.limits;
+
+import java.util.Map;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.NO_FORMAT;
+
+/**
+ * Utility class creating the record rendered in place of a record that went over the max record size.
+ * <p>
+ * The formatter and the dedicated file handler, whatever its encoding, render the same replacement, so an oversized record looks the same
+ * wherever it is written.
+ *
+ * @author BareMetalCode
+ */
+public class OversizedRecords {
+
+    private static final int    OVERSIZED_MESSAGE_CHARS  = 256;
+    private static final String OVERSIZED_RECORD_MESSAGE = "[oversized record, over %d bytes] %s";
+
+    private OversizedRecords() {}
+
+    /**
+     * Creates the replacement of an oversized record.
+     * <p>
+     * The replacement is a copy of the record, so it keeps its core fields and caller details, while everything that can make it big is
+     * dropped: parameters, exception, MDC and NDC.<br>
+     * The original message is used unformatted, formatting it with its parameters is what could have made the record oversized.
+     *
+     * @param record   the {@link ExtLogRecord} that went over the max record size.
+     * @param tooLarge the failure reporting the max record size.
+     *
+     * @return a new record whose message reports the limit followed by the beginning of the original message.
+     */
+    public static ExtLogRecord replacementOf(final ExtLogRecord record, final RecordTooLargeException tooLarge) {
+
+        final String message = record.getMessage() == null ? "" : record.getMessage();
+
+        int messageEnd = Math.min(message.length(), OVERSIZED_MESSAGE_CHARS);
+        if (messageEnd < message.length() && Character.isHighSurrogate(message.charAt(messageEnd - 1))) {
+            messageEnd--;
+        }
+
+        final ExtLogRecord replacement = new ExtLogRecord(record);
+        replacement.setMessage(OVERSIZED_RECORD_MESSAGE.formatted(tooLarge.getMaxRecordBytes(), message.substring(0, messageEnd)), NO_FORMAT);
+        replacement.setParameters(null);
+        replacement.setThrown(null);
+        replacement.setMdc(Map.of());
+        replacement.setNdc("");
+
+        return replacement;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.bmc.extensions.loggingjson.runtime.core.limits;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+/**
+ * Thrown by a bounded output when a record being rendered goes over the max record size.
+ * <p>
+ * It is an {@link IOException} so that Jackson lets it through untouched, even when it is raised while serializing a client object.
+ *
+ * @author BareMetalCode
+ */
+@Getter
+public class RecordTooLargeException extends IOException {
+
+    private final int maxRecordBytes;
+
+    public RecordTooLargeException(final int maxRecordBytes) {
+
+        super("Record rendering exceeded the max record size of " + maxRecordBytes + " bytes");
+        this.maxRecordBytes = maxRecordBytes;
+    }
+
+}
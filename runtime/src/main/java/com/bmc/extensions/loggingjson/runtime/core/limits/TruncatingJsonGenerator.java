@@ -0,0 +1,214 @@
+package com.bmc.extensions.loggingjson.runtime.core.limits;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDecorator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+/**
+ * A {@link JsonGenerator} that writes string values longer than a maximum length cut at that length, followed by a truncation marker
+ * carrying the original length, i.e. {@code "abc...[truncated, 1048576 chars]"}.
+ * <p>
+ * Strings are cut before they reach the underlying generator, so a huge value is never encoded nor buffered as a whole.<br>
+ * Client objects are serialized through this generator, not the delegate, so their string properties are truncated too, at any depth.
+ * <p>
+ * Raw values longer than the maximum length are written as a truncated string, as cutting raw content would not be valid JSON.<br>
+ * Binary values longer than the maximum length in bytes are written as a truncated string too: the Base64 encoding of their first bytes,
+ * followed by the marker carrying their original length in bytes.
+ * <p>
+ * Field names, numbers and pre-encoded strings are written untouched.
+ *
+ * @author BareMetalCode
+ */
+public class TruncatingJsonGenerator extends JsonGeneratorDelegate {
+
+    private static final String BINARY_MARKER_END = " bytes]";
+    private static final String MARKER_END        = " chars]";
+    private static final String MARKER_START      = "...[truncated, ";
+
+    private final int maxStringLength;
+
+    public TruncatingJsonGenerator(final JsonGenerator delegate, final int maxStringLength) {
+
+        super(delegate, false);
+        this.maxStringLength = maxStringLength;
+    }
+
+    /**
+     * Creates a decorator wrapping every generator of a {@link JsonFactory} into a truncating one.
+     *
+     * @param maxStringLength the longest string value written as is, in chars.
+     *
+     * @return the decorator to register on the factory builder.
+     */
+    public static JsonGeneratorDecorator decorator(final int maxStringLength) {
+
+        return (jsonFactory, generator) -> new TruncatingJsonGenerator(generator, maxStringLength);
+    }
+
+    @Override
+    public void writeBinary(final Base64Variant b64variant, final byte[] data, final int offset, final int length) throws IOException {
+
+        if (length <= maxStringLength) {
+            delegate.writeBinary(b64variant, data, offset, length);
+        } else {
+            delegate.writeString(truncateBinary(b64variant, Arrays.copyOfRange(data, offset, offset + maxStringLength), length));
+        }
+    }
+
+    /**
+     * Only the bytes written are read into memory: the rest of a longer stream is skipped, to count them.
+     */
+    @Override
+    public int writeBinary(final Base64Variant b64variant, final InputStream data, final int dataLength) throws IOException {
+
+        if (dataLength >= 0 && dataLength <= maxStringLength) {
+            return delegate.writeBinary(b64variant, data, dataLength);
+        }
+
+        final byte[] head = data.readNBytes(maxStringLength);
+        final long   length;
+
+        if (dataLength >= 0) {
+            data.skipNBytes(dataLength - head.length);
+            length = dataLength;
+        } else {
+            length = head.length + data.transferTo(OutputStream.nullOutputStream());
+        }
+
+        if (length <= maxStringLength) {
+            delegate.writeBinary(b64variant, head, 0, head.length);
+        } else {
+            delegate.writeString(truncateBinary(b64variant, head, length));
+        }
+
+        return (int) length;
+    }
+
+    @Override
+    public void writeRawValue(final String text) throws IOException {
+
+        if (text.length() <= maxStringLength) {
+            delegate.writeRawValue(text);
+        } else {
+            delegate.writeString(truncate(text, 0, text.length()));
+        }
+    }
+
+    @Override
+    public void writeRawValue(final String text, final int offset, final int length) throws IOException {
+
+        if (length <= maxStringLength) {
+            delegate.writeRawValue(text, offset, length);
+        } else {
+            delegate.writeString(truncate(text, offset, length));
+        }
+    }
+
+    @Override
+    public void writeRawValue(final char[] text, final int offset, final int length) throws IOException {
+
+        if (length <= maxStringLength) {
+            delegate.writeRawValue(text, offset, length);
+        } else {
+            delegate.writeString(truncate(CharBuffer.wrap(text), offset, length));
+        }
+    }
+
+    @Override
+    public void writeString(final String text) throws IOException {
+
+        if (text == null || text.length() <= maxStringLength) {
+            delegate.writeString(text);
+        } else {
+            delegate.writeString(truncate(text, 0, text.length()));
+        }
+    }
+
+    @Override
+    public void writeString(final char[] buffer, final int offset, final int length) throws IOException {
+
+        if (length <= maxStringLength) {
+            delegate.writeString(buffer, offset, length);
+        } else {
+            delegate.writeString(truncate(CharBuffer.wrap(buffer), offset, length));
+        }
+    }
+
+    /**
+     * Only the chars written are read into memory: the rest of a longer reader is skipped, to count them.
+     */
+    @Override
+    public void writeString(final Reader reader, final int length) throws IOException {
+
+        if (length >= 0 && length <= maxStringLength) {
+            delegate.writeString(reader, length);
+            return;
+        }
+
+        final char[] head      = new char[maxStringLength];
+        final int    headChars = readHead(reader, head);
+        final long   textChars = headChars + (length >= 0 ? skipChars(reader, length - headChars) : reader.transferTo(Writer.nullWriter()));
+
+        if (textChars <= maxStringLength) {
+            delegate.writeString(head, 0, headChars);
+        } else {
+            delegate.writeString(truncate(CharBuffer.wrap(head), 0, textChars));
+        }
+    }
+
+    private static int readHead(final Reader reader, final char[] head) throws IOException {
+
+        int read = 0;
+        int chars;
+        while (read < head.length && (chars = reader.read(head, read, head.length - read)) >= 0) {
+            read += chars;
+        }
+
+        return read;
+    }
+
+    private static long skipChars(final Reader reader, final long chars) throws IOException {
+
+        long skipped = 0;
+        long count;
+        while (skipped < chars && (count = reader.skip(chars - skipped)) > 0) {
+            skipped += count;
+        }
+
+        return skipped;
+    }
+
+    /**
+     * The cut never splits a surrogate pair, so the truncated value stays valid UTF-16.
+     */
+    private String truncate(final CharSequence text, final int offset, final long length) {
+
+        int cut = offset + maxStringLength;
+        if (cut > offset && Character.isHighSurrogate(text.charAt(cut - 1))) {
+            cut--;
+        }
+
+        return new StringBuilder(cut - offset + MARKER_START.length() + MARKER_END.length() + 20)
+                .append(text, offset, cut)
+                .append(MARKER_START)
+                .append(length)
+                .append(MARKER_END)
+                .toString();
+    }
+
+    private static String truncateBinary(final Base64Variant b64variant, final byte[] head, final long length) {
+
+        return b64variant.encode(head) + MARKER_START + length + BINARY_MARKER_END;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.bmc.extensions.loggingjson.runtime.core.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * Counters and latency histogram of the records formatted by one log output.
+ * <p>
+ * Records are formatted concurrently by every logging thread, so counters are {@link LongAdder}s: an increment lands in a cell striped by
+ * thread instead of contending on a single value, and values are only summed when read.
+ * <p>
+ * Reading the clock twice per record would cost more than the counters themselves, so only one record out of the sample rate is timed,
+ * picked at random so that periodic logging patterns cannot bias the samples.<br>
+ * Latencies are reported over a rotating window, so they follow the current behavior of the output rather than its whole history.
+ *
+ * @author BareMetalCode
+ */
+public class FormatterMetrics implements FormatterMetricsMXBean {
+
+    /**
+     * The sample start of a record whose latency is not sampled.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final LongAdder        bytesProduced         = new LongAdder();
+    private final LongAdder        exceptionsRendered    = new LongAdder();
+    private final LatencyHistogram latencyHistogram;
+    private final LongAdder        recordsFormatted      = new LongAdder();
+    private final int              sampleMask;
+    private final LongAdder        serializationFailures = new LongAdder();
+
+    /**
+     * Creates the metrics of one log output.
+     *
+     * @param latencySampleRate time one record out of this many, rounded up to a power of two; 1 or less times every record.
+     * @param latencyWindow     how long the latency histogram records into a window before rotating it.
+     */
+    public FormatterMetrics(final int latencySampleRate, final Duration latencyWindow) {
+
+        this.latencyHistogram = new LatencyHistogram(latencyWindow);
+        this.sampleMask       = latencySampleRate <= 1 ? 0 : Integer.highestOneBit(latencySampleRate - 1) * 2 - 1;
+    }
+
+    public void addBytesProduced(final int bytes) {
+
+        bytesProduced.add(bytes);
+    }
+
+    @Override
+    public long getBytesProduced() {
+
+        return bytesProduced.sum();
+    }
+
+    @Override
+    public long getExceptionsRendered() {
+
+        return exceptionsRendered.sum();
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+
+        return latencyHistogram.max();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+
+        return latencyHistogram.percentile(50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+
+        return latencyHistogram.percentile(99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+
+        return latencyHistogram.percentile(99.9);
+    }
+
+    @Override
+    public long getLatencySamples() {
+
+        return latencyHistogram.count();
+    }
+
+    @Override
+    public long getRecordsFormatted() {
+
+        return recordsFormatted.sum();
+    }
+
+    @Override
+    public long getSerializationFailures() {
+
+        return serializationFailures.sum();
+    }
+
+    /**
+     * Counts a record formatted successfully, and records its latency if it was sampled.
+     *
+     * @param record      the record formatted.
+     * @param sampleStart the value returned by {@link #startLatencySample()} before formatting the record.
+     */
+    public void recordFormatted(final ExtLogRecord record, final long sampleStart) {
+
+        recordsFormatted.increment();
+
+        if (record.getThrown() != null) {
+            exceptionsRendered.increment();
+        }
+
+        if (sampleStart != NOT_SAMPLED) {
+            final long now = System.nanoTime();
+            latencyHistogram.record(now - sampleStart, now);
+        }
+    }
+
+    public void serializationFailed() {
+
+        serializationFailures.increment();
+    }
+
+    /**
+     * Decides whether the latency of the record about to be formatted is sampled.
+     *
+     * @return the current {@link System#nanoTime()} if the record is sampled, {@link #NOT_SAMPLED} otherwise.
+     */
+    public long startLatencySample() {
+
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.bmc.extensions.loggingjson.runtime.core.metrics;
+
+/**
+ * JMX view of the {@link FormatterMetrics} of one log output.
+ *
+ * @author BareMetalCode
+ */
+public interface FormatterMetricsMXBean {
+
+    /**
+     * @return the bytes of the records formatted into strings, or written to the file by the dedicated handler.
+     */
+    long getBytesProduced();
+
+    /**
+     * @return the records formatted that carried an exception.
+     */
+    long getExceptionsRendered();
+
+    /**
+     * @return the highest sampled formatting latency over the latency window, in nanoseconds.
+     */
+    long getLatencyMaxNanos();
+
+    /**
+     * @return the median sampled formatting latency over the latency window, in nanoseconds, rounded up to a power of two.
+     */
+    long getLatencyP50Nanos();
+
+    /**
+     * @return the 99th percentile of the formatting latencies sampled over the latency window, in nanoseconds, rounded up to a power of two.
+     */
+    long getLatencyP99Nanos();
+
+    /**
+     * @return the 99.9th percentile of the formatting latencies sampled over the latency window, in nanoseconds, rounded up to a power of two.
+     */
+    long getLatencyP999Nanos();
+
+    /**
+     * @return the number of formatting latencies sampled over the latency window.
+     */
+    long getLatencySamples();
+
+    /**
+     * @return the records formatted successfully.
+     */
+    long getRecordsFormatted();
+
+    /**
+     * @return the records that failed to be formatted or written.
+     */
+    long getSerializationFailures();
+
+}
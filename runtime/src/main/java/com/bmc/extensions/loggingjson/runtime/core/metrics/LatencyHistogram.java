@@ -0,0 +1,165 @@
+package com.bmc.extensions.loggingjson.runtime.core.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds, with one bucket per power of two, reporting the recent latencies only.
+ * <p>
+ * Recording a latency is one increment of the bucket matching its highest bit, no matter how many latencies were recorded.<br>
+ * The price is precision: percentiles are reported as the upper bound of the bucket they fall in, which is at most twice the real value.
+ * <p>
+ * Latencies are recorded into the window of the current interval, and reported over it and the previous one: every interval the previous
+ * window is dropped and the current one takes its place, so reported values cover between one and two intervals and a spike stops being
+ * reported two intervals later, instead of weighing on the percentiles since the application started.<br>
+ * A latency recorded by a thread still holding the window that just rotated lands in the previous window, and is still reported.
+ *
+ * @author BareMetalCode
+ */
+public class LatencyHistogram {
+
+    private static final int    BUCKETS      = Long.SIZE;
+    private static final Window EMPTY_WINDOW = new Window(0);
+
+    private final long                      intervalNanos;
+    private final AtomicReference<Window[]> windows;
+
+    /**
+     * Creates a histogram reporting the latencies of the last interval or two.
+     *
+     * @param interval how long a window records latencies before it is rotated, positive.
+     */
+    public LatencyHistogram(final Duration interval) {
+
+        this.intervalNanos = interval.toNanos();
+        this.windows       = new AtomicReference<>(new Window[]{new Window(System.nanoTime()), EMPTY_WINDOW});
+    }
+
+    /**
+     * Returns the number of latencies recorded over the reported windows.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long count() {
+
+        long count = 0;
+        for (final long bucketCount : bucketCounts()) {
+            count += bucketCount;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the highest latency recorded over the reported windows.
+     *
+     * @return the highest latency in nanoseconds, 0 if none was recorded.
+     */
+    public long max() {
+
+        final Window[] reported = windowsAt(System.nanoTime());
+
+        return Math.max(reported[0].max.get(), reported[1].max.get());
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile of the latencies recorded over the reported windows.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     *
+     * @return the percentile latency in nanoseconds, capped to the highest latency recorded; 0 if none was recorded.
+     */
+    public long percentile(final double percentile) {
+
+        final long[] counts = bucketCounts();
+        long         total  = 0;
+
+        for (final long count : counts) {
+            total += count;
+        }
+
+        final long rank    = (long) Math.ceil(total * percentile / 100);
+        long       reached = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            reached += counts[i];
+            if (reached > 0 && reached >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Records a latency into the window of the current interval.
+     *
+     * @param nanos the latency in nanoseconds, negative values are recorded as 0.
+     * @param now   the current {@link System#nanoTime()}, already read to measure the latency.
+     */
+    public void record(final long nanos, final long now) {
+
+        final long   latency = Math.max(nanos, 0);
+        final Window current = windowsAt(now)[0];
+
+        current.buckets.incrementAndGet(Math.max(BUCKETS - 1 - Long.numberOfLeadingZeros(latency), 0));
+        current.max.accumulate(latency);
+    }
+
+    private static long upperBound(final int bucket) {
+
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+
+    private long[] bucketCounts() {
+
+        final Window[] reported = windowsAt(System.nanoTime());
+        final long[]   counts   = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = reported[0].buckets.get(i) + reported[1].buckets.get(i);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Returns the current and previous windows at the given time, rotating them first if the current interval elapsed.
+     * <p>
+     * A window whose interval elapsed becomes the previous one; when a whole interval went by without any rotation, both are dropped.
+     */
+    private Window[] windowsAt(final long now) {
+
+        Window[] reported = windows.get();
+
+        while (now - reported[0].start >= intervalNanos) {
+            final Window   current = reported[0];
+            final Window[] rotated = now - current.start >= 2 * intervalNanos
+                                     ? new Window[]{new Window(now), EMPTY_WINDOW}
+                                     : new Window[]{new Window(current.start + intervalNanos), current};
+
+            if (windows.compareAndSet(reported, rotated)) {
+                return rotated;
+            }
+            reported = windows.get();
+        }
+
+        return reported;
+    }
+
+    private static final class Window {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAccumulator max     = new LongAccumulator(Math::max, 0);
+        private final long            start;
+
+        private Window(final long start) {
+
+            this.start = start;
+        }
+
+    }
+
+}
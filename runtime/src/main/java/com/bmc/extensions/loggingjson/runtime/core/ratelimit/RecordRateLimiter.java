@@ -0,0 +1,159 @@
+package com.bmc.extensions.loggingjson.runtime.core.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.BoundedCache;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static org.jboss.logmanager.Level.WARN;
+
+/**
+ * Rate limits records per logger category, each category drawing from its own {@link TokenBucket}.
+ * <p>
+ * The bucket of a logger is resolved once, by walking its name up to the most specific configured category, and cached by logger name:
+ * records of a logger under budget cost a cache hit and a compare-and-set, records of loggers under no category cost a cache hit.
+ * <p>
+ * A formatter cannot publish records of its own, so dropped records are reported by a summary record handed to the first caller asking
+ * for it once the summary interval elapsed, to be rendered along with the record it is formatting.<br>
+ * Records dropped after the last summary are only reported when a record is allowed again, or by the final summary taken as the handler
+ * closes.
+ *
+ * @author BareMetalCode
+ */
+public class RecordRateLimiter {
+
+    /**
+     * The logger name of the summary records, never rate limited.
+     */
+    public static final String SUMMARY_LOGGER_NAME = "com.bmc.extensions.loggingjson.ratelimit";
+
+    private static final String      DROPPED_RECORDS_KEY = "droppedRecords";
+    private static final int         MAX_LOGGERS         = 4096;
+    private static final TokenBucket UNLIMITED           = new TokenBucket(1);
+
+    private final Map<String, TokenBucket>          categoryBuckets;
+    private final BoundedCache<String, TokenBucket> loggerBuckets = new BoundedCache<>(MAX_LOGGERS);
+    private final AtomicLong                        nextSummaryNanos;
+    private final long                              summaryIntervalNanos;
+
+    /**
+     * Creates a rate limiter with one full bucket per category.
+     *
+     * @param categories      the records per second allowed for each logger category, all positive.
+     * @param summaryInterval the minimum interval between two summary records, positive.
+     *
+     * @throws IllegalArgumentException if a category rate or the summary interval is not positive.
+     */
+    public RecordRateLimiter(final Map<String, Integer> categories, final Duration summaryInterval) {
+
+        categories.forEach((category, recordsPerSecond) -> {
+            if (recordsPerSecond <= 0) {
+                throw new IllegalArgumentException("The rate limit of the category [%s] must be a positive number of records per second, not %d"
+                                                           .formatted(category, recordsPerSecond));
+            }
+        });
+        if (summaryInterval.isNegative() || summaryInterval.isZero()) {
+            throw new IllegalArgumentException("The rate limit summary interval must be positive, not " + summaryInterval);
+        }
+
+        this.categoryBuckets      = new LinkedHashMap<>();
+        this.summaryIntervalNanos = summaryInterval.toNanos();
+        this.nextSummaryNanos     = new AtomicLong(System.nanoTime() + summaryIntervalNanos);
+
+        categories.forEach((category, recordsPerSecond) -> categoryBuckets.put(category, new TokenBucket(recordsPerSecond)));
+    }
+
+    /**
+     * Returns the summary of the records dropped per category since the previous one, whether the summary interval elapsed or not, as the
+     * output closes and no record may follow to carry it.
+     *
+     * @return a summary record, or null if no record was dropped since the previous summary.
+     */
+    public ExtLogRecord finalSummary() {
+
+        return drainSummary();
+    }
+
+    /**
+     * Returns the summary of the records dropped per category since the previous one, if the summary interval elapsed and records were
+     * dropped.
+     * <p>
+     * Only one caller gets a given summary.
+     *
+     * @return a summary record, or null if no summary is due.
+     */
+    public ExtLogRecord pendingSummary() {
+
+        final long now         = System.nanoTime();
+        final long nextSummary = nextSummaryNanos.get();
+
+        if (now - nextSummary < 0 || !nextSummaryNanos.compareAndSet(nextSummary, now + summaryIntervalNanos)) {
+            return null;
+        }
+
+        return drainSummary();
+    }
+
+    /**
+     * Takes a token from the bucket of the record's logger category, if it has one.
+     *
+     * @param record the record about to be rendered.
+     *
+     * @return whether the record can be rendered.
+     */
+    public boolean tryAcquire(final ExtLogRecord record) {
+
+        final String      loggerName = record.getLoggerName();
+        final TokenBucket bucket     = loggerBuckets.get(loggerName == null ? "" : loggerName, this::resolveBucket);
+
+        return bucket == UNLIMITED || bucket.tryAcquire();
+    }
+
+    private static ExtLogRecord createSummary(final Map<String, Long> droppedRecords) {
+
+        final ExtLogRecord summary = new ExtLogRecord(WARN, "Rate limited records dropped", RecordRateLimiter.class.getName());
+        summary.setLoggerName(SUMMARY_LOGGER_NAME);
+        summary.setParameters(new Object[]{logEntry(of(DROPPED_RECORDS_KEY, droppedRecords))});
+
+        return summary;
+    }
+
+    private ExtLogRecord drainSummary() {
+
+        final Map<String, Long> droppedRecords = new LinkedHashMap<>();
+        categoryBuckets.forEach((category, bucket) -> {
+            final long dropped = bucket.drainDropped();
+            if (dropped > 0) {
+                droppedRecords.put(category, dropped);
+            }
+        });
+
+        return droppedRecords.isEmpty() ? null : createSummary(droppedRecords);
+    }
+
+    /**
+     * Walks the logger name up, one segment at a time, to the most specific configured category.
+     */
+    private TokenBucket resolveBucket(final String loggerName) {
+
+        String category = loggerName;
+
+        while (!category.isEmpty()) {
+            final TokenBucket bucket = categoryBuckets.get(category);
+            if (bucket != null) {
+                return bucket;
+            }
+            final int lastDot = category.lastIndexOf('.');
+            category = lastDot < 0 ? "" : category.substring(0, lastDot);
+        }
+
+        return categoryBuckets.getOrDefault("", UNLIMITED);
+    }
+
+}
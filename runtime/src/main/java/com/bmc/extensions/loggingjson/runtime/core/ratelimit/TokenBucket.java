@@ -0,0 +1,71 @@
+package com.bmc.extensions.loggingjson.runtime.core.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free token bucket, refilled at a fixed rate and holding at most one second worth of tokens.
+ * <p>
+ * Instead of a token count and a refill timestamp, which cannot be updated together atomically, the bucket keeps a single value: the
+ * theoretical arrival time of the next record, as in the generic cell rate algorithm.<br>
+ * Every record allowed pushes it one emission interval further; a record is allowed while it is no further than the burst tolerance
+ * ahead of now.<br>
+ * Taking a token is one read of the clock and one compare-and-set, no thread ever blocks.
+ *
+ * @author BareMetalCode
+ */
+public class TokenBucket {
+
+    private final long       burstToleranceNanos;
+    private final LongAdder  dropped = new LongAdder();
+    private final long       emissionIntervalNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param recordsPerSecond the refill rate, also the bucket capacity; must be positive.
+     */
+    public TokenBucket(final int recordsPerSecond) {
+
+        this.emissionIntervalNanos   = TimeUnit.SECONDS.toNanos(1) / recordsPerSecond;
+        this.burstToleranceNanos     = TimeUnit.SECONDS.toNanos(1) - emissionIntervalNanos;
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Returns the number of records dropped since the last call, and resets it.
+     *
+     * @return the records dropped since the last call.
+     */
+    public long drainDropped() {
+
+        return dropped.sumThenReset();
+    }
+
+    /**
+     * Takes a token if one is available, counting the record as dropped otherwise.
+     *
+     * @return whether a token was taken.
+     */
+    public boolean tryAcquire() {
+
+        final long now = System.nanoTime();
+
+        while (true) {
+            final long theoreticalArrival = theoreticalArrivalNanos.get();
+            final long arrival            = Math.max(theoreticalArrival, now);
+
+            if (arrival - now > burstToleranceNanos) {
+                dropped.increment();
+                return false;
+            }
+
+            if (theoreticalArrivalNanos.compareAndSet(theoreticalArrival, arrival + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most a fixed number of entries.
+ * <p>
+ * Hits are a plain {@link ConcurrentHashMap} read, no access order or counter is kept.<br>
+ * Once full, loading a new entry evicts one picked at random among the first few of the map, so a flood of one-off keys cannot grow the
+ * cache, while the entries in use keep being reloaded and stay the majority.
+ * <p>
+ * Values are expected to be cheap to rebuild: two threads missing the same key may both load it, the first one stored wins.<br>
+ * Values holding state that must not be lost are handed to an eviction listener as they are evicted.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ *
+ * @author BareMetalCode
+ */
+public class BoundedCache<K, V> {
+
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final ConcurrentHashMap<K, V> entries;
+    private final BiConsumer<K, V>        evictionListener;
+    private final int                     maxEntries;
+
+    public BoundedCache(final int maxEntries) {
+
+        this(maxEntries, null);
+    }
+
+    /**
+     * Creates a cache handing every evicted entry to the given listener, on the thread whose load evicted it.
+     *
+     * @param maxEntries       the maximum number of entries.
+     * @param evictionListener the listener of evicted entries, or null.
+     */
+    public BoundedCache(final int maxEntries, final BiConsumer<K, V> evictionListener) {
+
+        this.entries          = new ConcurrentHashMap<>(maxEntries);
+        this.evictionListener = evictionListener;
+        this.maxEntries       = maxEntries;
+    }
+
+    /**
+     * Runs the given action on every cached entry, entries cached or removed concurrently may or may not be seen.
+     *
+     * @param action the action to run.
+     */
+    public void forEach(final BiConsumer<K, V> action) {
+
+        entries.forEach(action);
+    }
+
+    /**
+     * Returns the value cached for the given key.
+     *
+     * @param key the key to look up, not null.
+     *
+     * @return the cached value, or null if the key is not cached.
+     */
+    public V get(final K key) {
+
+        return entries.get(key);
+    }
+
+    /**
+     * Returns the value cached for the given key, loading and caching it if absent.
+     *
+     * @param key    the key to look up, not null.
+     * @param loader the function creating the value when the key is not cached, must not return null.
+     *
+     * @return the cached value.
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+
+        final V cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final V loaded = loader.apply(key);
+        final V raced  = putIfAbsent(key, loaded);
+
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Caches the given value if the key is not cached yet, evicting an entry if the cache is full.
+     *
+     * @param key   the key, not null.
+     * @param value the value, not null.
+     *
+     * @return the value already cached for the key, or null if the given value was cached.
+     */
+    public V putIfAbsent(final K key, final V value) {
+
+        if (entries.size() >= maxEntries) {
+            evictOne();
+        }
+
+        return entries.putIfAbsent(key, value);
+    }
+
+    /**
+     * Removes the value cached for the given key, only if it is still the expected one. The eviction listener is not called.
+     *
+     * @param key      the key, not null.
+     * @param expected the value expected to be cached.
+     *
+     * @return whether the value was removed.
+     */
+    public boolean remove(final K key, final V expected) {
+
+        return entries.remove(key, expected);
+    }
+
+    /**
+     * Replaces the value cached for the given key, only if it is still the expected one.
+     *
+     * @param key      the key, not null.
+     * @param expected the value expected to be cached.
+     * @param value    the new value, not null.
+     *
+     * @return whether the value was replaced.
+     */
+    public boolean replace(final K key, final V expected, final V value) {
+
+        return entries.replace(key, expected, value);
+    }
+
+    public int size() {
+
+        return entries.size();
+    }
+
+    private void evictOne() {
+
+        final Iterator<K> keys = entries.keySet().iterator();
+
+        for (int skipped = ThreadLocalRandom.current().nextInt(EVICTION_SAMPLE); skipped > 0 && keys.hasNext(); skipped--) {
+            keys.next();
+        }
+
+        if (keys.hasNext()) {
+            final K key     = keys.next();
+            final V evicted = entries.remove(key);
+
+            if (evicted != null && evictionListener != null) {
+                evictionListener.accept(key, evicted);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free, multi-producer / single-consumer ring buffer.
+ * <p>
+ * This is Dmitry Vyukov's bounded queue: every slot carries a sequence number telling whether it is free for the producer claiming a given
+ * position, or filled for the consumer reading it.<br>
+ * Producers claim positions with a single CAS on a shared counter, the consumer needs no atomic operation at all as it is the only one
+ * reading.
+ * <p>
+ * Slots and sequences are allocated once, with the capacity rounded up to the next power of two.
+ *
+ * @param <E> the type of the elements held.
+ *
+ * @author BareMetalCode
+ */
+public class MpscRingBuffer<E> {
+
+    private final int             capacity;
+    private final AtomicLong      consumerIndex = new AtomicLong();
+    private final int             mask;
+    private final AtomicLong      producerIndex = new AtomicLong();
+    private final AtomicLongArray sequences;
+    private final Object[]        slots;
+
+    public MpscRingBuffer(final int requestedCapacity) {
+
+        this.capacity  = requestedCapacity <= 2 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask      = capacity - 1;
+        this.slots     = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+
+        return capacity;
+    }
+
+    /**
+     * Returns the number of elements taken out by the consumer so far.
+     *
+     * @return the consumer position.
+     */
+    public long consumed() {
+
+        return consumerIndex.get();
+    }
+
+    public boolean isEmpty() {
+
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    /**
+     * Adds an element if there is a free slot. Safe to call from any thread.
+     *
+     * @param element the element to add, not null.
+     *
+     * @return {@code true} if added, {@code false} if the buffer is full.
+     */
+    public boolean offer(final E element) {
+
+        long position = producerIndex.get();
+
+        while (true) {
+            final int  index      = (int) (position & mask);
+            final long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = producerIndex.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = producerIndex.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest element out, must only be called from the single consumer thread.
+     *
+     * @return the element, or {@code null} if there is none ready.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+
+        final long position = consumerIndex.get();
+        final int  index    = (int) (position & mask);
+
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+
+        final E element = (E) slots[index];
+        slots[index] = null;
+        sequences.setRelease(index, position + capacity);
+        consumerIndex.lazySet(position + 1);
+
+        return element;
+    }
+
+    /**
+     * Returns the number of positions claimed by producers so far.
+     *
+     * @return the producer position.
+     */
+    public long produced() {
+
+        return producerIndex.get();
+    }
+
+}
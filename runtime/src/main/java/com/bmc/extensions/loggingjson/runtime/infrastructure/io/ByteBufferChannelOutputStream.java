@@ -0,0 +1,101 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * An {@link OutputStream} copying bytes into a direct {@link ByteBuffer} that is drained to a {@link FileChannel} when full or flushed.
+ * <p>
+ * The buffer is allocated once and reused for the lifetime of the stream.<br>
+ * This class is not thread-safe, the owning handler serializes access to it.
+ *
+ * @author BareMetalCode
+ */
+public class ByteBufferChannelOutputStream extends OutputStream {
+
+    private final ByteBuffer  buffer;
+    private final FileChannel channel;
+
+    public ByteBufferChannelOutputStream(final FileChannel channel, final int bufferSize) {
+
+        this.buffer  = ByteBuffer.allocateDirect(bufferSize);
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the given file for appending, creating it and its parent directories if needed, and wraps it in a new stream.
+     *
+     * @param path       the file to append to.
+     * @param bufferSize the size in bytes of the direct buffer.
+     *
+     * @return a stream appending to the file.
+     *
+     * @throws IOException if the file cannot be opened.
+     */
+    public static ByteBufferChannelOutputStream appendingTo(final Path path, final int bufferSize) throws IOException {
+
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        return new ByteBufferChannelOutputStream(FileChannel.open(path, CREATE, WRITE, APPEND), bufferSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        try (channel) {
+            drain();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+
+        drain();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+        int offset    = off;
+        int remaining = len;
+
+        while (remaining > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+
+            final int chunk = Math.min(buffer.remaining(), remaining);
+            buffer.put(b, offset, chunk);
+            offset    += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private void drain() throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link OutputStream} counting the bytes written through it to the stream it wraps.
+ * <p>
+ * Writes are passed on as they are, arrays included, unlike {@link java.io.FilterOutputStream} which writes arrays byte by byte.<br>
+ * This class is not thread-safe, the owning handler serializes access to it.
+ *
+ * @author BareMetalCode
+ */
+public class CountingOutputStream extends OutputStream {
+
+    private final OutputStream outputStream;
+    private       long         count;
+
+    public CountingOutputStream(final OutputStream outputStream) {
+
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        outputStream.close();
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return the bytes written through this stream.
+     */
+    public long count() {
+
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+
+        outputStream.flush();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        outputStream.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+        outputStream.write(b, off, len);
+        count += len;
+    }
+
+}
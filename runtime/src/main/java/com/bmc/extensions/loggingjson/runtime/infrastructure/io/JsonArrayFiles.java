@@ -0,0 +1,149 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Utility class reopening the JSON array a previous run left in a file, so that appending a new run keeps the file a single valid JSON
+ * document instead of a sequence of arrays.
+ * <p>
+ * The closing bracket of an array closed cleanly is cut off, so the records of the new run become its next elements.<br>
+ * Whitespace, and zero bytes a memory-mapped run may have left past its content, are ignored.
+ * <p>
+ * A file that cannot be resumed is moved aside to {@code <file>.<epoch millis>}, and the new run starts a new array: a run that crashed
+ * leaves its array unclosed, possibly in the middle of a record, and a file written without json-array mode holds no array at all.
+ *
+ * @author BareMetalCode
+ */
+public class JsonArrayFiles {
+
+    private static final int SCAN_BLOCK_SIZE = 8192;
+
+    private JsonArrayFiles() {}
+
+    /**
+     * Prepares the given file for a run appending its records as the elements of a JSON array.
+     *
+     * @param path the file the records are appended to.
+     *
+     * @return the state of the array the run writes into, never {@link JsonArrayState#NONE}.
+     *
+     * @throws IOException if the file cannot be read, truncated or moved aside.
+     */
+    public static JsonArrayState reopenArray(final Path path) throws IOException {
+
+        if (!Files.exists(path)) {
+            return JsonArrayState.NEW;
+        }
+
+        final JsonArrayState jsonArrayState;
+        try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+            final long last = lastContentByte(channel, channel.size());
+
+            if (last < 0) {
+                channel.truncate(0);
+                return JsonArrayState.NEW;
+            }
+
+            jsonArrayState = resumedArrayState(channel, last);
+        }
+
+        if (jsonArrayState == JsonArrayState.NEW) {
+            Files.move(path, path.resolveSibling(path.getFileName() + "." + System.currentTimeMillis()));
+        }
+
+        return jsonArrayState;
+    }
+
+    private static boolean isContent(final byte b) {
+
+        return b != 0 && b != ' ' && b != '\t' && b != '\r' && b != '\n';
+    }
+
+    /**
+     * Finds the position of the first byte of the file that is neither zero nor whitespace.
+     */
+    private static long firstContentByte(final FileChannel channel, final long end) throws IOException {
+
+        final ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+
+        for (long blockStart = 0; blockStart < end; blockStart += SCAN_BLOCK_SIZE) {
+            readBlock(channel, block, blockStart, end);
+
+            for (int i = 0; i < block.position(); i++) {
+                if (isContent(block.get(i))) {
+                    return blockStart + i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds the position of the last byte before the given end of the file that is neither zero nor whitespace.
+     */
+    private static long lastContentByte(final FileChannel channel, final long end) throws IOException {
+
+        final ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long             limit = end;
+
+        while (limit > 0) {
+            final long blockStart = Math.max(0, limit - SCAN_BLOCK_SIZE);
+            readBlock(channel, block, blockStart, limit);
+
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (isContent(block.get(i))) {
+                    return blockStart + i;
+                }
+            }
+            limit = blockStart;
+        }
+
+        return -1;
+    }
+
+    private static byte readByte(final FileChannel channel, final long position) throws IOException {
+
+        final ByteBuffer single = ByteBuffer.allocate(1);
+        channel.read(single, position);
+
+        return single.get(0);
+    }
+
+    private static void readBlock(final FileChannel channel, final ByteBuffer block, final long blockStart, final long limit) throws IOException {
+
+        block.clear().limit((int) Math.min(SCAN_BLOCK_SIZE, limit - blockStart));
+        while (block.hasRemaining() && channel.read(block, blockStart + block.position()) >= 0) {
+            // keep reading until the block is full
+        }
+    }
+
+    /**
+     * Cuts the file right before its closing bracket, keeping the line end of the last element, and tells how the array is resumed.
+     *
+     * @return the state of the resumed array, or {@link JsonArrayState#NEW} if the file cannot be resumed and must be moved aside.
+     */
+    private static JsonArrayState resumedArrayState(final FileChannel channel, final long last) throws IOException {
+
+        final long first = firstContentByte(channel, last + 1);
+
+        if (last == first || readByte(channel, first) != '[' || readByte(channel, last) != ']') {
+            return JsonArrayState.NEW;
+        }
+
+        final long beforeBracket = lastContentByte(channel, last);
+        channel.truncate(last);
+
+        return beforeBracket == first ? JsonArrayState.REOPENED_EMPTY : JsonArrayState.REOPENED;
+    }
+
+}
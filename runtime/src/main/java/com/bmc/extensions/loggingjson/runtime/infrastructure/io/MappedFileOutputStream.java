@@ -0,0 +1,156 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * An {@link OutputStream} appending to a file through a memory-mapped region that grows in fixed-size chunks.
+ * <p>
+ * Writing is a copy into mapped memory, the kernel writes the pages back to the file on its own: there is no system call per write, only
+ * one {@code mmap} per chunk.<br>
+ * Mapping a chunk extends the file to the end of that chunk, so while the stream is open the file ends with zero bytes past the last
+ * record. Closing the stream truncates the file to what was actually written.
+ * <p>
+ * JSON output never contains a zero byte, so when a file is reopened after a crash left that padding behind, appending resumes right after
+ * the last written byte.<br>
+ * This class is not thread-safe, the owning handler serializes access to it.
+ *
+ * @author BareMetalCode
+ */
+public class MappedFileOutputStream extends OutputStream {
+
+    private static final int SCAN_BLOCK_SIZE = 8192;
+
+    private final FileChannel      channel;
+    private final int              chunkSize;
+    private       MappedByteBuffer region;
+    private       long             regionStart;
+
+    public MappedFileOutputStream(final FileChannel channel, final long start, final int chunkSize) throws IOException {
+
+        this.channel     = channel;
+        this.chunkSize   = chunkSize;
+        this.regionStart = start;
+        this.region      = channel.map(READ_WRITE, start, chunkSize);
+    }
+
+    /**
+     * Opens the given file for appending, creating it and its parent directories if needed, and maps its first chunk after the existing
+     * content.
+     *
+     * @param path      the file to append to.
+     * @param chunkSize the size in bytes of every mapped region.
+     *
+     * @return a stream appending to the file.
+     *
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public static MappedFileOutputStream appendingTo(final Path path, final int chunkSize) throws IOException {
+
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            return new MappedFileOutputStream(channel, endOfContent(channel), chunkSize);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Finds where the content of the file ends, ignoring the zero bytes a previous, unclosed, mapping may have left at its end.
+     */
+    private static long endOfContent(final FileChannel channel) throws IOException {
+
+        final ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long             end   = channel.size();
+
+        while (end > 0) {
+            final long blockStart = Math.max(0, end - SCAN_BLOCK_SIZE);
+
+            block.clear().limit((int) (end - blockStart));
+            while (block.hasRemaining() && channel.read(block, blockStart + block.position()) >= 0) {
+                // keep reading until the block is full
+            }
+
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (block.get(i) != 0) {
+                    return blockStart + i + 1;
+                }
+            }
+            end = blockStart;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        try (channel) {
+            channel.truncate(position());
+        }
+    }
+
+    /**
+     * Mapped memory is shared with the page cache, written bytes are already visible to any reader of the file: there is nothing to flush.
+     */
+    @Override
+    public void flush() {}
+
+    /**
+     * Returns the position in the file the next byte will be written at.
+     *
+     * @return the number of bytes in the file that hold content.
+     */
+    public long position() {
+
+        return regionStart + region.position();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        if (!region.hasRemaining()) {
+            mapNextChunk();
+        }
+        region.put((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+
+        int offset    = off;
+        int remaining = len;
+
+        while (remaining > 0) {
+            if (!region.hasRemaining()) {
+                mapNextChunk();
+            }
+
+            final int chunk = Math.min(region.remaining(), remaining);
+            region.put(b, offset, chunk);
+            offset    += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private void mapNextChunk() throws IOException {
+
+        regionStart += region.position();
+        region       = channel.map(READ_WRITE, regionStart, chunkSize);
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * An {@link OutputStream} compressing bytes through a streaming deflater into gzip segments, rotated on size or time.
+ * <p>
+ * Segments are written next to the base path, named after it with their start time and sequence number, so a segment is never renamed nor
+ * reopened once rotated out.<br>
+ * Every {@link #flush()} is taken as a record boundary, where the segment is rotated if it is due: a record never spans two segments.<br>
+ * Flushing the stream does not flush the deflater, which would lower the compression ratio with every record.
+ * <p>
+ * A background thread sync flushes the deflater every flush interval, so what was written before can be decompressed even if the process
+ * dies, and finishes the segments rotated out: the logging thread only opens the next segment, it never waits on the previous one being
+ * compressed to its end.<br>
+ * A background failure is thrown by the next flush, or by the close of the stream.
+ * <p>
+ * Writes and flushes are serialized with the background sync flushes, the owning handler serializes the rest.
+ *
+ * @author BareMetalCode
+ */
+public class RotatingGzipOutputStream extends OutputStream {
+
+    private static final DateTimeFormatter SEGMENT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final    Path                     basePath;
+    private final    int                      bufferSize;
+    private final    ScheduledExecutorService executor;
+    private final    long                     rotateIntervalNanos;
+    private final    long                     rotateSize;
+    private final    boolean                  syncFlushOnFlush;
+    private volatile IOException              backgroundFailure;
+    private          boolean                  pendingSyncFlush;
+    private          Segment                  segment;
+    private          int                      segmentSequence;
+
+    /**
+     * Opens the first segment, creating its parent directories if needed, and starts the background thread.
+     *
+     * @param basePath       the path segments are named after.
+     * @param bufferSize     the size in bytes of the deflater output buffer and of the direct buffer drained to the segment file.
+     * @param rotateSize     the compressed size in bytes a segment reaches before rotating, 0 to rotate on time only.
+     * @param rotateInterval how long a segment is written to before rotating, zero to rotate on size only.
+     * @param flushInterval  how often the deflater is sync flushed, zero to sync flush on every flush of the stream.
+     *
+     * @throws IOException if the first segment cannot be opened.
+     */
+    public RotatingGzipOutputStream(final Path basePath, final int bufferSize, final long rotateSize, final Duration rotateInterval,
+                                    final Duration flushInterval) throws IOException {
+
+        this.basePath            = basePath.toAbsolutePath();
+        this.bufferSize          = bufferSize;
+        this.rotateIntervalNanos = rotateInterval.toNanos();
+        this.rotateSize          = rotateSize;
+        this.syncFlushOnFlush    = !flushInterval.isPositive();
+        this.segment             = openSegment();
+        this.executor            = Executors.newSingleThreadScheduledExecutor(RotatingGzipOutputStream::newBackgroundThread);
+
+        if (!syncFlushOnFlush) {
+            executor.scheduleWithFixedDelay(this::syncFlushIfPending, flushInterval.toNanos(), flushInterval.toNanos(), NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops the periodic sync flushes, waits for the segments rotated out to be finished, then finishes the current one.
+     */
+    @Override
+    public void close() throws IOException {
+
+        executor.shutdown();
+
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, NANOSECONDS);
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        try {
+            synchronized (this) {
+                segment.close();
+            }
+            throwBackgroundFailureIfAny();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+
+        throwBackgroundFailureIfAny();
+
+        if (isRotationDue()) {
+            rotate();
+        } else if (syncFlushOnFlush) {
+            syncFlush();
+        }
+    }
+
+    @Override
+    public synchronized void write(final int b) throws IOException {
+
+        segment.write(b);
+        pendingSyncFlush = true;
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+
+        segment.write(b, off, len);
+        pendingSyncFlush = true;
+    }
+
+    private static Thread newBackgroundThread(final Runnable runnable) {
+
+        final Thread thread = new Thread(runnable, "bmc-logging-json-gzip");
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    private void finish(final Segment rotated) {
+
+        try {
+            rotated.close();
+        } catch (final IOException e) {
+            backgroundFailure = new IOException("Failed to finish the log segment " + rotated.path, e);
+        }
+    }
+
+    private boolean isRotationDue() {
+
+        return rotateSize > 0 && segment.compressedSize() >= rotateSize
+               || rotateIntervalNanos > 0 && System.nanoTime() - segment.openedAt >= rotateIntervalNanos;
+    }
+
+    private Segment openSegment() throws IOException {
+
+        final String fileName = "%s.%s-%05d.gz".formatted(basePath.getFileName(), LocalDateTime.now().format(SEGMENT_TIME_FORMAT),
+                                                          segmentSequence++);
+        final Path   path     = basePath.resolveSibling(fileName);
+
+        return new Segment(path, ByteBufferChannelOutputStream.appendingTo(path, bufferSize), bufferSize);
+    }
+
+    /**
+     * The next segment is opened before the rotated one is handed over, so a failure to open it leaves the stream on the current segment.
+     */
+    private void rotate() throws IOException {
+
+        final Segment rotated = segment;
+        segment          = openSegment();
+        pendingSyncFlush = false;
+
+        executor.execute(() -> finish(rotated));
+    }
+
+    private void syncFlush() throws IOException {
+
+        if (pendingSyncFlush) {
+            segment.flush();
+            pendingSyncFlush = false;
+        }
+    }
+
+    private synchronized void syncFlushIfPending() {
+
+        try {
+            syncFlush();
+        } catch (final IOException e) {
+            backgroundFailure = new IOException("Failed to flush the log segment " + segment.path, e);
+        }
+    }
+
+    private void throwBackgroundFailureIfAny() throws IOException {
+
+        final IOException failure = backgroundFailure;
+        if (failure != null) {
+            backgroundFailure = null;
+            throw failure;
+        }
+    }
+
+    /**
+     * A gzip segment whose flushes are sync flushes of its deflater, and whose compressed size is the deflater output so far.
+     */
+    private static final class Segment extends GZIPOutputStream {
+
+        private final long openedAt;
+        private final Path path;
+
+        private Segment(final Path path, final OutputStream outputStream, final int bufferSize) throws IOException {
+
+            super(outputStream, bufferSize, true);
+            this.openedAt = System.nanoTime();
+            this.path     = path;
+        }
+
+        private long compressedSize() {
+
+            return def.getBytesWritten();
+        }
+
+    }
+
+}
@@ -0,0 +1,312 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.serializers;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.bmc.extensions.loggingjson.runtime.models.StructuredEntries;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+/**
+ * Wraps the serializer of a client bean, collection, array or map to enforce the depth, collection size and cycle limits while the value
+ * is being written.
+ * <p>
+ * Limits only apply below the {@link StructuredEntries} of a record, whose own serializer is wrapped as the boundary: it starts a fresh guard
+ * state, kept as a per-call attribute of the serializer provider, that every guard below reads.<br>
+ * Record fields are serialized with no guard state in place, so their guards just delegate, whatever the rendering path.
+ * <p>
+ * A value nested deeper than the max depth is written as {@value #MAX_DEPTH_MARKER}.<br>
+ * A collection or array over the max elements is written with its first elements followed by a {@code "...N more"} element, a map with its
+ * first entries followed by a {@code "..."} entry whose value is {@code "N more"}.<br>
+ * A value being written again inside itself is written as {@value #CYCLE_MARKER}; only the values being written are tracked, so an object
+ * referenced twice side by side is written twice.
+ *
+ * @author BareMetalCode
+ */
+public class ClientGuardSerializer extends StdSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+
+    public static final String CYCLE_MARKER     = "[cycle]";
+    public static final String MAX_DEPTH_MARKER = "[max depth]";
+
+    private static final String MORE_KEY    = "...";
+    private static final String MORE_PREFIX = "...";
+    private static final String MORE_SUFFIX = " more";
+
+    private final JsonSerializer<Object> delegate;
+    private final GuardedKind            kind;
+    private final Limits                 limits;
+
+    @SuppressWarnings("unchecked")
+    ClientGuardSerializer(final JsonSerializer<?> delegate, final GuardedKind kind, final Limits limits) {
+
+        super(Object.class);
+        this.delegate = (JsonSerializer<Object>) delegate;
+        this.kind     = kind;
+        this.limits   = limits;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(final SerializerProvider provider, final BeanProperty property) throws JsonMappingException {
+
+        if (!(delegate instanceof final ContextualSerializer contextualSerializer)) {
+            return this;
+        }
+
+        final JsonSerializer<?> contextual = contextualSerializer.createContextual(provider, property);
+
+        return contextual == delegate ? this : new ClientGuardSerializer(contextual, kind, limits);
+    }
+
+    @Override
+    public boolean isEmpty(final SerializerProvider provider, final Object value) {
+
+        return delegate.isEmpty(provider, value);
+    }
+
+    @Override
+    public boolean isUnwrappingSerializer() {
+
+        return delegate.isUnwrappingSerializer();
+    }
+
+    @Override
+    public void resolve(final SerializerProvider provider) throws JsonMappingException {
+
+        if (delegate instanceof final ResolvableSerializer resolvableSerializer) {
+            resolvableSerializer.resolve(provider);
+        }
+    }
+
+    @Override
+    public void serialize(final Object value, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
+
+        if (kind == GuardedKind.BOUNDARY) {
+            serializeBoundary(value, generator, provider, null);
+        } else {
+            serializeGuarded(value, generator, provider, null);
+        }
+    }
+
+    @Override
+    public void serializeWithType(final Object value, final JsonGenerator generator, final SerializerProvider provider,
+                                  final TypeSerializer typeSerializer) throws IOException {
+
+        if (kind == GuardedKind.BOUNDARY) {
+            serializeBoundary(value, generator, provider, typeSerializer);
+        } else {
+            serializeGuarded(value, generator, provider, typeSerializer);
+        }
+    }
+
+    @Override
+    public JsonSerializer<Object> unwrappingSerializer(final NameTransformer unwrapper) {
+
+        final JsonSerializer<Object> unwrapping = delegate.unwrappingSerializer(unwrapper);
+
+        return unwrapping == delegate ? this : new ClientGuardSerializer(unwrapping, kind, limits);
+    }
+
+    @Override
+    public boolean usesObjectId() {
+
+        return delegate.usesObjectId();
+    }
+
+    private void serializeBoundary(final Object value, final JsonGenerator generator, final SerializerProvider provider,
+                                   final TypeSerializer typeSerializer) throws IOException {
+
+        final Object previousState = provider.getAttribute(GuardState.class);
+        provider.setAttribute(GuardState.class, new GuardState(generator.getOutputContext().getNestingDepth(), limits));
+        try {
+            serializeDelegate(value, generator, provider, typeSerializer);
+        } finally {
+            provider.setAttribute(GuardState.class, previousState);
+        }
+    }
+
+    private void serializeDelegate(final Object value, final JsonGenerator generator, final SerializerProvider provider,
+                                   final TypeSerializer typeSerializer) throws IOException {
+
+        if (typeSerializer == null) {
+            delegate.serialize(value, generator, provider);
+        } else {
+            delegate.serializeWithType(value, generator, provider, typeSerializer);
+        }
+    }
+
+    private void serializeGuarded(final Object value, final JsonGenerator generator, final SerializerProvider provider,
+                                  final TypeSerializer typeSerializer) throws IOException {
+
+        final GuardState state = (GuardState) provider.getAttribute(GuardState.class);
+        if (state == null) {
+            serializeDelegate(value, generator, provider, typeSerializer);
+            return;
+        }
+
+        if (state.isTooDeep(generator)) {
+            generator.writeString(MAX_DEPTH_MARKER);
+            return;
+        }
+
+        if (!state.enter(value)) {
+            generator.writeString(CYCLE_MARKER);
+            return;
+        }
+
+        try {
+            final int size = sizeOf(value);
+            if (limits.maxElements > 0 && size > limits.maxElements) {
+                writeTruncated(value, size, generator, provider);
+            } else {
+                serializeDelegate(value, generator, provider, typeSerializer);
+            }
+        } finally {
+            state.exit(value);
+        }
+    }
+
+    private int sizeOf(final Object value) {
+
+        return switch (kind) {
+            case ARRAY -> Array.getLength(value);
+            case COLLECTION -> ((Collection<?>) value).size();
+            case MAP -> ((Map<?, ?>) value).size();
+            default -> 0;
+        };
+    }
+
+    private static void writeKey(final Object key, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
+
+        final JsonSerializer<Object> keySerializer = key == null
+                                                     ? provider.findNullKeySerializer(provider.constructType(Object.class), null)
+                                                     : provider.findKeySerializer(key.getClass(), null);
+
+        keySerializer.serialize(key, generator, provider);
+    }
+
+    private void writeTruncated(final Object value, final int size, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException {
+
+        final String more = size - limits.maxElements + MORE_SUFFIX;
+
+        if (kind == GuardedKind.MAP) {
+            writeTruncatedMap((Map<?, ?>) value, more, generator, provider);
+            return;
+        }
+
+        generator.writeStartArray(value, limits.maxElements + 1);
+        if (kind == GuardedKind.ARRAY) {
+            for (int i = 0; i < limits.maxElements; i++) {
+                provider.defaultSerializeValue(Array.get(value, i), generator);
+            }
+        } else {
+            final Iterator<?> elements = ((Collection<?>) value).iterator();
+            for (int i = 0; i < limits.maxElements; i++) {
+                provider.defaultSerializeValue(elements.next(), generator);
+            }
+        }
+        generator.writeString(MORE_PREFIX + more);
+        generator.writeEndArray();
+    }
+
+    /**
+     * Entries with a {@code null} value are counted but not written, as the mapper only includes non-null values.
+     */
+    private void writeTruncatedMap(final Map<?, ?> map, final String more, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException {
+
+        generator.writeStartObject(map);
+
+        final Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+        for (int i = 0; i < limits.maxElements; i++) {
+            final Map.Entry<?, ?> entry = entries.next();
+            if (entry.getValue() != null) {
+                writeKey(entry.getKey(), generator, provider);
+                provider.defaultSerializeValue(entry.getValue(), generator);
+            }
+        }
+        generator.writeStringField(MORE_KEY, more);
+        generator.writeEndObject();
+    }
+
+    /**
+     * The kinds of client values a serializer is guarded for, and the boundary under which guards apply.
+     */
+    enum GuardedKind {
+        ARRAY,
+        BEAN,
+        BOUNDARY,
+        COLLECTION,
+        MAP
+    }
+
+    /**
+     * The configured limits, 0 disabling a limit.
+     */
+    static final class Limits {
+
+        private final boolean detectCycles;
+        private final int     maxDepth;
+        private final int     maxElements;
+
+        Limits(final boolean detectCycles, final int maxDepth, final int maxElements) {
+
+            this.detectCycles = detectCycles;
+            this.maxDepth     = maxDepth;
+            this.maxElements  = maxElements;
+        }
+
+    }
+
+    /**
+     * The guard state of the structured entries being written: the nesting depth they start at, and the values being written when cycles
+     * are detected.
+     */
+    private static final class GuardState {
+
+        private final IdentityHashMap<Object, Boolean> ancestors;
+        private final int                              baseDepth;
+        private final Limits                           limits;
+
+        private GuardState(final int baseDepth, final Limits limits) {
+
+            this.ancestors = limits.detectCycles ? new IdentityHashMap<>() : null;
+            this.baseDepth = baseDepth;
+            this.limits    = limits;
+        }
+
+        private boolean enter(final Object value) {
+
+            return ancestors == null || ancestors.put(value, Boolean.TRUE) == null;
+        }
+
+        private void exit(final Object value) {
+
+            if (ancestors != null) {
+                ancestors.remove(value);
+            }
+        }
+
+        /**
+         * The entries object is at depth 0, so an entry value is at depth 1 when it is written.
+         */
+        private boolean isTooDeep(final JsonGenerator generator) {
+
+            return limits.maxDepth > 0 && generator.getOutputContext().getNestingDepth() - baseDepth > limits.maxDepth;
+        }
+
+    }
+
+}
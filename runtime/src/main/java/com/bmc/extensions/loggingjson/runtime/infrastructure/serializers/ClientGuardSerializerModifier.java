@@ -0,0 +1,93 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.serializers;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.bmc.extensions.loggingjson.runtime.config.ClientSerializerConfig;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.serializers.ClientGuardSerializer.GuardedKind;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.serializers.ClientGuardSerializer.Limits;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredEntries;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.type.ArrayType;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.MapType;
+
+/**
+ * Wraps the serializers the mapper builds into {@link ClientGuardSerializer}s, so the client object limits are enforced while writing.
+ * <p>
+ * Beans, collections, arrays and maps are guarded, the {@link StructuredEntries} of a record being the boundary below which guards apply.
+ * <br>
+ * Scalars, byte and char arrays (written as strings) and client custom serializers other than bean ones are left as they are.
+ * <p>
+ * Jackson builds container serializers apart from the others, and only hands them to the container specific hooks.
+ *
+ * @author BareMetalCode
+ */
+public class ClientGuardSerializerModifier extends BeanSerializerModifier {
+
+    private final Limits limits;
+
+    public ClientGuardSerializerModifier(final ClientSerializerConfig clientSerializerConfig) {
+
+        this.limits = new Limits(clientSerializerConfig.detectCycles(), clientSerializerConfig.maxDepth(),
+                                 clientSerializerConfig.maxCollectionElements());
+    }
+
+    @Override
+    public JsonSerializer<?> modifyArraySerializer(final SerializationConfig config, final ArrayType valueType,
+                                                   final BeanDescription beanDescription, final JsonSerializer<?> serializer) {
+
+        return guard(beanDescription.getBeanClass(), serializer);
+    }
+
+    @Override
+    public JsonSerializer<?> modifyCollectionSerializer(final SerializationConfig config, final CollectionType valueType,
+                                                        final BeanDescription beanDescription, final JsonSerializer<?> serializer) {
+
+        return guard(beanDescription.getBeanClass(), serializer);
+    }
+
+    @Override
+    public JsonSerializer<?> modifyMapSerializer(final SerializationConfig config, final MapType valueType,
+                                                 final BeanDescription beanDescription, final JsonSerializer<?> serializer) {
+
+        return guard(beanDescription.getBeanClass(), serializer);
+    }
+
+    @Override
+    public JsonSerializer<?> modifySerializer(final SerializationConfig config, final BeanDescription beanDescription,
+                                              final JsonSerializer<?> serializer) {
+
+        return guard(beanDescription.getBeanClass(), serializer);
+    }
+
+    private JsonSerializer<?> guard(final Class<?> type, final JsonSerializer<?> serializer) {
+
+        final GuardedKind kind = guardedKind(type, serializer);
+
+        return kind == null ? serializer : new ClientGuardSerializer(serializer, kind, limits);
+    }
+
+    private static GuardedKind guardedKind(final Class<?> type, final JsonSerializer<?> serializer) {
+
+        if (type == StructuredEntries.class) {
+            return GuardedKind.BOUNDARY;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return GuardedKind.COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return GuardedKind.MAP;
+        }
+        if (type.isArray()) {
+            return type == byte[].class || type == char[].class ? null : GuardedKind.ARRAY;
+        }
+
+        return serializer instanceof BeanSerializerBase ? GuardedKind.BEAN : null;
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.bmc.extensions.loggingjson.runtime.infrastructure.time;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import com.bmc.extensions.loggingjson.runtime.core.DirectValueWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Renders log record timestamps with a {@link DateTimeFormatter}, formatting only once per second.
+ * <p>
+ * Everything a timestamp shows but its fraction of a second changes at most once per second, so the text before and after the fraction is
+ * cached for the current second, and every record only patches in its own sub-second digits.
+ * <p>
+ * How the fraction is printed is found by probing the formatter:<br>
+ * - a fixed number of digits, truncated, as printed by {@code S} pattern letters.<br>
+ * - a decimal point followed by as many digits as needed, none at all on a whole second, as printed by the ISO formatters.<br>
+ * The detected layout is then checked against the formatter on a set of sample instants, including a midnight in the formatter's zone. Any other layout, or any mismatch, makes this class
+ * format every timestamp with the formatter, as it would have been without cache.
+ * <p>
+ * Patterns without any fraction of a second are cached whole.
+ * <p>
+ * Streaming writers get the timestamp written as UTF-8 bytes straight to generators writing to an {@link OutputStream}.
+ *
+ * @author BareMetalCode
+ */
+public class CachedTimestampFormatter implements Function<ExtLogRecord, String>, DirectValueWriter {
+
+    private static final int    NANOS_PER_SECOND = 1_000_000_000;
+    private static final int    PROBE_NANOS      = 123_456_789;
+    private static final String PROBE_DIGITS     = "123456789";
+    private static final long   PROBE_SECOND     = 1_700_000_000L;
+    private static final long   SAMPLE_DAY       = 19_723L;
+    private static final int[]  SAMPLE_NANOS     = {0, 1, 10, 100, 1_000, 120_000, 1_000_000, 50_000_000, 123_000_000, 500_000_000, 999_999_999};
+    private static final long[] SAMPLE_SECONDS   = {0, 951_782_400L, PROBE_SECOND, 1_711_846_799L, 1_711_846_800L, 4_102_444_799L};
+    private static final int    SCRATCH_SIZE     = 64;
+    private static final int[]  POWERS_OF_TEN    = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, NANOS_PER_SECOND};
+
+    private final    DateTimeFormatter   formatter;
+    private final    int                 fixedDigits;
+    private final    ThreadLocal<byte[]> scratchBuffers = ThreadLocal.withInitial(() -> new byte[SCRATCH_SIZE]);
+    private volatile CachedSecond        cachedSecond;
+
+    /**
+     * Creates a formatter caching the rendering of the given {@link DateTimeFormatter}, which must have a zone.
+     *
+     * @param formatter the formatter rendering timestamps.
+     */
+    public CachedTimestampFormatter(final DateTimeFormatter formatter) {
+
+        this.formatter   = formatter;
+        this.fixedDigits = detectFixedDigits(formatter);
+    }
+
+    private CachedTimestampFormatter(final DateTimeFormatter formatter, final int fixedDigits) {
+
+        this.formatter   = formatter;
+        this.fixedDigits = fixedDigits;
+    }
+
+    /**
+     * Tells whether timestamps are rendered from the per-second cache, or the layout could not be cached and the formatter is used directly.
+     *
+     * @return {@code true} if the cache is in use.
+     */
+    public boolean isCaching() {
+
+        return fixedDigits != Layout.NONE;
+    }
+
+    @Override
+    public String apply(final ExtLogRecord record) {
+
+        return format(record.getInstant());
+    }
+
+    /**
+     * Formats the given instant, exactly as the {@link DateTimeFormatter} would.
+     *
+     * @param instant the instant to format.
+     *
+     * @return the formatted instant.
+     */
+    public String format(final Instant instant) {
+
+        if (!isCaching()) {
+            return formatter.format(instant);
+        }
+
+        final CachedSecond  second  = cachedSecond(instant.getEpochSecond());
+        final StringBuilder builder = new StringBuilder(second.prefix.length() + 10 + second.suffix.length());
+
+        builder.append(second.prefix);
+        appendFraction(builder, instant.getNano());
+        builder.append(second.suffix);
+
+        return builder.toString();
+    }
+
+    @Override
+    public void writeValue(final JsonGenerator generator, final ExtLogRecord record) throws IOException {
+
+        final Instant instant = record.getInstant();
+
+        if (!isCaching() || Thread.currentThread().isVirtual() || !(generator.getOutputTarget() instanceof OutputStream)) {
+            generator.writeString(format(instant));
+            return;
+        }
+
+        final CachedSecond second = cachedSecond(instant.getEpochSecond());
+        final int          length = second.prefixBytes.length + 10 + second.suffixBytes.length;
+        byte[]             buffer = scratchBuffers.get();
+
+        if (buffer.length < length) {
+            buffer = new byte[length];
+            scratchBuffers.set(buffer);
+        }
+
+        int position = second.prefixBytes.length;
+        System.arraycopy(second.prefixBytes, 0, buffer, 0, position);
+        position = writeFraction(buffer, position, instant.getNano());
+        System.arraycopy(second.suffixBytes, 0, buffer, position, second.suffixBytes.length);
+
+        generator.writeUTF8String(buffer, 0, position + second.suffixBytes.length);
+    }
+
+    private static int detectFixedDigits(final DateTimeFormatter formatter) {
+
+        try {
+            final String whole  = formatter.format(Instant.ofEpochSecond(PROBE_SECOND));
+            final String probed = formatter.format(Instant.ofEpochSecond(PROBE_SECOND, PROBE_NANOS));
+            final int    start  = commonPrefixLength(whole, probed);
+
+            final int fixedDigits;
+            if (probed.equals(whole)) {
+                fixedDigits = 0;
+            } else if (probed.length() == whole.length() + 1 + PROBE_DIGITS.length() && probed.startsWith("." + PROBE_DIGITS, start)
+                && probed.endsWith(whole.substring(start))) {
+                fixedDigits = Layout.TRIMMED;
+            } else if (probed.length() == whole.length()) {
+                final int digits = probed.length() - start - commonSuffixLength(whole, probed);
+                fixedDigits = digits > 0 && digits <= PROBE_DIGITS.length() && probed.startsWith(PROBE_DIGITS.substring(0, digits), start)
+                              ? digits
+                              : Layout.NONE;
+            } else {
+                fixedDigits = Layout.NONE;
+            }
+
+            return fixedDigits != Layout.NONE && matchesFormatter(formatter, fixedDigits) ? fixedDigits : Layout.NONE;
+        } catch (final RuntimeException e) {
+            return Layout.NONE;
+        }
+    }
+
+    private static boolean matchesFormatter(final DateTimeFormatter formatter, final int fixedDigits) {
+
+        final CachedTimestampFormatter candidate = new CachedTimestampFormatter(formatter, fixedDigits);
+        final ZoneId                   zone      = formatter.getZone() == null ? ZoneOffset.UTC : formatter.getZone();
+        final long                     midnight  = LocalDate.ofEpochDay(SAMPLE_DAY).atStartOfDay(zone).toEpochSecond();
+
+        return LongStream.concat(LongStream.of(SAMPLE_SECONDS), LongStream.of(midnight, midnight + 1))
+                         .allMatch(second -> IntStream.of(SAMPLE_NANOS)
+                                                      .mapToObj(nanos -> Instant.ofEpochSecond(second, nanos))
+                                                      .allMatch(instant -> formatter.format(instant).equals(candidate.format(instant))));
+    }
+
+    private static int commonPrefixLength(final String first, final String second) {
+
+        int length = 0;
+        while (length < first.length() && length < second.length() && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+
+        return length;
+    }
+
+    private static int commonSuffixLength(final String first, final String second) {
+
+        int length = 0;
+        while (length < first.length() && length < second.length()
+               && first.charAt(first.length() - 1 - length) == second.charAt(second.length() - 1 - length)) {
+            length++;
+        }
+
+        return length;
+    }
+
+    private void appendFraction(final StringBuilder builder, final int nanos) {
+
+        final int digits = fractionDigits(nanos);
+        if (digits == 0) {
+            return;
+        }
+
+        if (fixedDigits == Layout.TRIMMED) {
+            builder.append('.');
+        }
+
+        final int value = nanos / POWERS_OF_TEN[9 - digits];
+        for (int power = digits - 1; power >= 0; power--) {
+            builder.append((char) ('0' + value / POWERS_OF_TEN[power] % 10));
+        }
+    }
+
+    private CachedSecond cachedSecond(final long epochSecond) {
+
+        final CachedSecond second = cachedSecond;
+        if (second != null && second.epochSecond == epochSecond) {
+            return second;
+        }
+
+        final String whole = formatter.format(Instant.ofEpochSecond(epochSecond));
+
+        final CachedSecond newSecond;
+        if (fixedDigits == Layout.TRIMMED) {
+            final int start = commonPrefixLength(whole, formatter.format(Instant.ofEpochSecond(epochSecond, PROBE_NANOS)));
+            newSecond = new CachedSecond(epochSecond, whole.substring(0, start), whole.substring(start));
+        } else {
+            final String probed = formatter.format(Instant.ofEpochSecond(epochSecond, PROBE_NANOS));
+            final int    start  = commonPrefixLength(whole, probed);
+            newSecond = new CachedSecond(epochSecond, whole.substring(0, start), whole.substring(start + fixedDigits));
+        }
+
+        cachedSecond = newSecond;
+
+        return newSecond;
+    }
+
+    /**
+     * Returns the number of fraction digits printed for the given nanos: the fixed count, or as many as needed for the trimmed layout.
+     */
+    private int fractionDigits(final int nanos) {
+
+        if (fixedDigits != Layout.TRIMMED) {
+            return fixedDigits;
+        }
+        if (nanos == 0) {
+            return 0;
+        }
+
+        int digits = 9;
+        int value  = nanos;
+        while (value % 10 == 0) {
+            value /= 10;
+            digits--;
+        }
+
+        return digits;
+    }
+
+    private int writeFraction(final byte[] buffer, final int offset, final int nanos) {
+
+        final int digits = fractionDigits(nanos);
+        if (digits == 0) {
+            return offset;
+        }
+
+        int position = offset;
+        if (fixedDigits == Layout.TRIMMED) {
+            buffer[position++] = '.';
+        }
+
+        final int value = nanos / POWERS_OF_TEN[9 - digits];
+        for (int power = digits - 1; power >= 0; power--) {
+            buffer[position++] = (byte) ('0' + value / POWERS_OF_TEN[power] % 10);
+        }
+
+        return position;
+    }
+
+    /**
+     * The fraction layouts besides a fixed number of digits.
+     */
+    private static final class Layout {
+
+        private static final int NONE    = -1;
+        private static final int TRIMMED = -2;
+
+    }
+
+    /**
+     * The rendering of a second, split around where the fraction goes.
+     */
+    private static final class CachedSecond {
+
+        private final long   epochSecond;
+        private final String prefix;
+        private final byte[] prefixBytes;
+        private final String suffix;
+        private final byte[] suffixBytes;
+
+        private CachedSecond(final long epochSecond, final String prefix, final String suffix) {
+
+            this.epochSecond = epochSecond;
+            this.prefix      = prefix;
+            this.prefixBytes = prefix.getBytes(UTF_8);
+            this.suffix      = suffix;
+            this.suffixBytes = suffix.getBytes(UTF_8);
+        }
+
+    }
+
+}
@@ -2,11 +2,16 @@ package com.bmc.extensions.loggingjson.runtime.infrastructure.utils;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
+import java.util.List;
 import java.util.Map;
 
+import com.bmc.extensions.loggingjson.runtime.config.ClientSerializerConfig;
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.serializers.ClientGuardSerializer;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.serializers.ClientGuardSerializerModifier;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 /**
@@ -29,8 +34,30 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
  */
 public class SerializerUtils {
 
+    private static final String CLIENT_GUARDS_MODULE = "bmc-client-guards";
+
     private SerializerUtils() {}
 
+    /**
+     * Registers the client object guards, if any limit is configured, to the provided {@link ObjectMapper} instance.
+     * <br>
+     * The guards wrap the serializers the mapper builds, so they must be registered before any serializer is resolved.
+     *
+     * @param jsonConfig the configuration source containing the client object limits
+     * @param mapper     the {@link ObjectMapper} instance to which the guards will be registered
+     *
+     * @see ClientGuardSerializer
+     */
+    public static void addClientGuardsIfAny(final JsonConfig jsonConfig, final ObjectMapper mapper) {
+
+        final ClientSerializerConfig clientSerializers = jsonConfig.clientSerializers();
+        if (!clientSerializers.detectCycles() && clientSerializers.maxCollectionElements() <= 0 && clientSerializers.maxDepth() <= 0) {
+            return;
+        }
+
+        mapper.registerModule(new SimpleModule(CLIENT_GUARDS_MODULE).setSerializerModifier(new ClientGuardSerializerModifier(clientSerializers)));
+    }
+
     /**
      * Registers custom serializers, if any are defined, to the provided {@link ObjectMapper} instance.
      * <br>
@@ -60,6 +87,28 @@ public class SerializerUtils {
         mapper.registerModule(module);
     }
 
+    /**
+     * Resolves and caches the serializers of the configured warm-up classes, if any, in the provided {@link ObjectMapper}.
+     * <br>
+     * The serializers are looked up as a root value would be, which caches them for both root and nested values of that class.<br>
+     * This must be done once the mapper is fully configured, as serializers are built from the configuration and modules in place.
+     *
+     * @param jsonConfig the configuration source containing the client classes to warm up
+     * @param mapper     the fully configured {@link ObjectMapper} instance whose serializers cache is warmed up
+     */
+    public static void warmUpSerializersIfAny(final JsonConfig jsonConfig, final ObjectMapper mapper) {
+
+        final List<String> warmUpClasses = jsonConfig.clientSerializers().warmUpClasses().orElse(null);
+        if (warmUpClasses == null || warmUpClasses.isEmpty()) {
+            return;
+        }
+
+        final SerializerProvider serializerProvider = mapper.getSerializerProviderInstance();
+        final ClassLoader        threadClassLoader  = Thread.currentThread().getContextClassLoader();
+
+        warmUpClasses.forEach(className -> resolveSerializer(className, threadClassLoader, serializerProvider));
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private static void instantiateAndAddSerializer(final String serializerName, final ClassLoader threadClassLoader, final SimpleModule module) {
 
@@ -78,4 +127,15 @@ public class SerializerUtils {
         }
     }
 
+    private static void resolveSerializer(final String className, final ClassLoader threadClassLoader,
+            final SerializerProvider serializerProvider) {
+
+        try {
+            serializerProvider.findTypedValueSerializer(threadClassLoader.loadClass(className), true, null);
+        } catch (final Exception e) {
+            System.err.printf("Failure warming up the serializer of [%s].\n"
+                              + "Be sure to use the full class name including the package for your warm up class.", className);
+        }
+    }
+
 }
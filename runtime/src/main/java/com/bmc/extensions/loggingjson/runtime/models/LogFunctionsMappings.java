@@ -13,6 +13,7 @@ import org.jboss.logmanager.ExtLogRecord;
 import lombok.Getter;
 
 import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.*;
+import static com.bmc.extensions.loggingjson.runtime.utils.MessageRenderUtils.renderMessage;
 import static java.util.Map.entry;
 import static java.util.Map.ofEntries;
 import static java.util.Optional.ofNullable;
@@ -36,7 +37,8 @@ import static java.util.Optional.ofNullable;
  * <p>
  * - {@code canBuildStructuredMessage} Determines if the log message can be represented as a structured message
  * based on its parameters.<br>
- * - {@code getStructuredMessage} Processes the message parameters to return a structured or formatted message.
+ * - {@code getStructuredMessage} Processes the message parameters to return a structured or formatted message, plain messages are
+ * rendered according to the record format style through {@link com.bmc.extensions.loggingjson.runtime.utils.MessageRenderUtils}.
  * <p>
  * This class facilitates efficient data extraction and preparation for JSON logging or other structured
  * log formats by centralizing and organizing the mappings and functions required for log record processing.
@@ -180,7 +182,7 @@ public class LogFunctionsMappings {
                 throw new IllegalArgumentException("Invalid map structure being injected to JSON Logger", e);
             }
         } else {
-            structuredMessage = extLogRecord.getMessage().formatted(messageParameters);
+            structuredMessage = renderMessage(extLogRecord);
         }
 
         return structuredMessage;
@@ -0,0 +1,115 @@
+package com.bmc.extensions.loggingjson.runtime.models;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.bmc.extensions.loggingjson.runtime.core.DirectValueWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * Mappings extracting MDC data from a {@link ExtLogRecord} according to the MDC configuration.
+ * <p>
+ * {@link ExtLogRecord#getMdcCopy()} copies the whole MDC of the record into a new map, which is the only way to render every entry.<br>
+ * When only some keys are wanted, they are read one by one with {@link ExtLogRecord#getMdc(String)} instead, and written straight to the
+ * generator by streaming field writers.
+ *
+ * @author BareMetalCode
+ */
+public class MdcMappings {
+
+    private MdcMappings() {}
+
+    /**
+     * Returns a mapping rendering the given MDC keys only, in the given order.
+     *
+     * @param includedKeys the MDC keys to render.
+     *
+     * @return the MDC field mapping.
+     */
+    public static Function<ExtLogRecord, Map<String, String>> includedMdc(final List<String> includedKeys) {
+
+        return new IncludedMdc(includedKeys);
+    }
+
+    /**
+     * Returns a mapping rendering every MDC entry but the given keys.
+     *
+     * @param removedKeys the MDC keys not to render.
+     *
+     * @return the MDC field mapping.
+     */
+    public static Function<ExtLogRecord, Map<String, String>> mdcWithout(final Collection<String> removedKeys) {
+
+        return record -> {
+            final Map<String, String> mdc = record.getMdcCopy();
+            removedKeys.forEach(mdc::remove);
+            return mdc;
+        };
+    }
+
+    /**
+     * Returns a mapping extracting the value of a single MDC key, missing from the output when the record has none.
+     *
+     * @param key the MDC key.
+     *
+     * @return the promoted field mapping.
+     */
+    public static Function<ExtLogRecord, String> promotedMdc(final String key) {
+
+        return record -> record.getMdc(key);
+    }
+
+    /**
+     * The MDC field restricted to a list of keys, with the keys encoded once.
+     */
+    private static final class IncludedMdc implements Function<ExtLogRecord, Map<String, String>>, DirectValueWriter {
+
+        private final SerializableString[] encodedKeys;
+        private final String[]             keys;
+
+        private IncludedMdc(final List<String> includedKeys) {
+
+            this.keys        = includedKeys.toArray(String[]::new);
+            this.encodedKeys = includedKeys.stream().map(SerializedString::new).toArray(SerializableString[]::new);
+        }
+
+        @Override
+        public Map<String, String> apply(final ExtLogRecord record) {
+
+            final Map<String, String> mdc = new LinkedHashMap<>();
+
+            for (final String key : keys) {
+                final String value = record.getMdc(key);
+                if (value != null) {
+                    mdc.put(key, value);
+                }
+            }
+
+            return mdc;
+        }
+
+        @Override
+        public void writeValue(final JsonGenerator generator, final ExtLogRecord record) throws IOException {
+
+            generator.writeStartObject();
+            for (int i = 0; i < keys.length; i++) {
+                final String value = record.getMdc(keys[i]);
+                if (value != null) {
+                    generator.writeFieldName(encodedKeys[i]);
+                    generator.writeString(value);
+                }
+            }
+            generator.writeEndObject();
+        }
+
+    }
+
+}
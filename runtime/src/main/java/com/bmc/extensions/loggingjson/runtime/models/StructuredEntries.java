@@ -0,0 +1,22 @@
+package com.bmc.extensions.loggingjson.runtime.models;
+
+import java.util.LinkedHashMap;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.serializers.ClientGuardSerializer;
+
+/**
+ * The key-value entries of a {@link StructuredLogArgument}, in insertion order.
+ * <p>
+ * It behaves exactly as a {@link LinkedHashMap}; its own type only marks, for the {@link ClientGuardSerializer}, where client objects start
+ * in a record, so that depth, collection size and cycle guards apply to them and never to the fields of the record itself.
+ *
+ * @author BareMetalCode
+ */
+public class StructuredEntries extends LinkedHashMap<String, Object> {
+
+    public StructuredEntries(final int initialCapacity) {
+
+        super(initialCapacity);
+    }
+
+}
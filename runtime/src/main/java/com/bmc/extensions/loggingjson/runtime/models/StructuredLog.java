@@ -5,7 +5,13 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.FieldWriter;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceCache;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
+import com.bmc.extensions.loggingjson.runtime.core.ratelimit.RecordRateLimiter;
 import com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey;
+import com.fasterxml.jackson.core.SerializableString;
 
 import org.jboss.logmanager.ExtLogRecord;
 
@@ -31,7 +37,13 @@ import lombok.Setter;
  * - {@code additionalFieldsWrapped}: Custom fields structured in a wrapped format within the log.<br>
  * - {@code coreRecordMapping}: A mapping to extract the most basic log record data.<br>
  * - {@code detailsMapping}: A mapping to extract additional details from log record.<br>
+ * - {@code encodedKeys}: Every key the template writes, in its final (overridden) form, pre-encoded as quoted JSON in UTF-8 and chars.<br>
  * - {@code exceptionMapping}: A mapping to extract exception-related details.<br>
+ * - {@code exceptionThrottle}: The throttle suppressing repeated exceptions, only present when an exception throttle window is configured.<br>
+ * - {@code fieldWriters}: The template compiled into ordered {@link FieldWriter}s, only present when streaming fields is enabled.<br>
+ * - {@code formatterMetrics}: The counters and latency histogram of the records rendered, only present when metrics are enabled.<br>
+ * - {@code recordRateLimiter}: The token buckets limiting records per logger category, only present when categories are rate limited.<br>
+ * - {@code stackTraceCache}: The rendered stack traces kept for reuse, only present when stack trace caching is enabled.<br>
  * - {@code recordKeys}: A mapping of log record keys associated with their string representations (possible overridden), using {@link LogRecordKey}.
  *
  * @author BareMetalCode
@@ -44,9 +56,15 @@ public class StructuredLog {
     private Map<String, Object>                                     additionalFieldsWrapped;
     private Map<String, Function<ExtLogRecord, ?>>                  coreRecordMapping;
     private Map<String, Function<ExtLogRecord, ?>>                  detailsMapping;
+    private Map<String, SerializableString>                         encodedKeys;
     private Map<String, BiFunction<ExtLogRecord, StructuredLog, ?>> exceptionInnerMapping;
     private Map<String, BiFunction<ExtLogRecord, StructuredLog, ?>> exceptionMapping;
     private Map<String, BiFunction<ExtLogRecord, StructuredLog, ?>> exceptionStackTraceTopMapping;
+    private ExceptionThrottle                                       exceptionThrottle;
+    private FieldWriter[]                                           fieldWriters;
+    private FormatterMetrics                                        formatterMetrics;
     private JsonConfig                                              jsonConfig;
+    private RecordRateLimiter                                       recordRateLimiter;
+    private StackTraceCache                                         stackTraceCache;
 
 }
@@ -40,7 +40,7 @@ public class StructuredLogArgument {
     public static StructuredLogArgument logEntry(final LogEntryPosition entryPosition, final KeyValue... structuredEntries) {
         // The fixed capacity can help in footprint
         final int                 mapCapacity     = structuredEntries.length + 1;
-        final Map<String, Object> contentToRender = new LinkedHashMap<>(mapCapacity);
+        final Map<String, Object> contentToRender = new StructuredEntries(mapCapacity);
 
         for (final KeyValue structuredEntry : structuredEntries) {
             contentToRender.put(structuredEntry.getKey(), structuredEntry.getValue());
@@ -0,0 +1,20 @@
+package com.bmc.extensions.loggingjson.runtime.models.enums;
+
+/**
+ * Enum representing how JSON records reach the log file.
+ * <p>
+ * The following modes are currently supported:<br>
+ * - {@code FORMATTER}: records are formatted into strings handed to the standard Quarkus file handler, which encodes and writes them.<br>
+ * - {@code CHANNEL}: a dedicated handler writes Jackson's UTF-8 output into a direct buffer drained to a {@code FileChannel}, with no
+ * intermediate string.<br>
+ * - {@code MAPPED}: a dedicated handler writes Jackson's UTF-8 output into a memory-mapped region of the file, growing in fixed-size chunks.<br>
+ * - {@code GZIP}: a dedicated handler writes Jackson's UTF-8 output through a streaming deflater into gzip segments, rotated on size or time.
+ *
+ * @author BareMetalCode
+ */
+public enum FileOutputMode {
+    FORMATTER,
+    CHANNEL,
+    MAPPED,
+    GZIP
+}
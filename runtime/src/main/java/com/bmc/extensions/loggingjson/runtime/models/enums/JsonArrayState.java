@@ -0,0 +1,19 @@
+package com.bmc.extensions.loggingjson.runtime.models.enums;
+
+/**
+ * Enum representing the state of the JSON array the dedicated file handler writes its records into, as it starts.
+ * <p>
+ * The following states are currently supported:<br>
+ * - {@code NONE}: records are not written as a JSON array.<br>
+ * - {@code NEW}: a new array is opened, the file holding no previous one.<br>
+ * - {@code REOPENED_EMPTY}: the array left by a previous run is reopened, it has no element yet.<br>
+ * - {@code REOPENED}: the array left by a previous run is reopened, its next element is preceded by a comma.
+ *
+ * @author BareMetalCode
+ */
+public enum JsonArrayState {
+    NONE,
+    NEW,
+    REOPENED_EMPTY,
+    REOPENED
+}
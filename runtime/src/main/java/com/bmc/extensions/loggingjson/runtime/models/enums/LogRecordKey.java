@@ -10,12 +10,14 @@ import lombok.Getter;
 @Getter
 public enum LogRecordKey {
 
+    ADDITIONAL_FIELDS("additionalFields"),
     DETAILS("details"),
     EXCEPTION("exception"),
     EXCEPTION_CAUSED_BY("causedBy"),
     EXCEPTION_CIRCULAR_REFERENCE("circularReference"),
     EXCEPTION_FRAME("frame"),
     EXCEPTION_FRAMES("frames"),
+    EXCEPTION_FRAMES_OMITTED("framesOmitted"),
     EXCEPTION_FRAME_CLASS("class"),
     EXCEPTION_FRAME_LINE("line"),
     EXCEPTION_FRAME_METHOD("method"),
@@ -23,6 +25,7 @@ public enum LogRecordKey {
     EXCEPTION_REFERENCE_ID("refId"),
     EXCEPTION_STACK_TRACE("stackTrace"),
     EXCEPTION_SUPPRESSED("suppressed"),
+    EXCEPTION_SUPPRESSED_OCCURRENCES("suppressedOccurrences"),
     EXCEPTION_TYPE("exceptionType"),
     HOSTNAME("hostname"),
     LEVEL("level"),
@@ -0,0 +1,17 @@
+package com.bmc.extensions.loggingjson.runtime.models.enums;
+
+/**
+ * Enum representing how the dedicated file handler encodes records.
+ * <p>
+ * The following encodings are currently supported:<br>
+ * - {@code JSON}: UTF-8 JSON text, one record per line.<br>
+ * - {@code CBOR}: length-prefixed frames, each holding a record rendered by Jackson's CBOR generator.<br>
+ * - {@code SMILE}: length-prefixed frames, each holding a record rendered by Jackson's Smile generator, whose header starts every frame.
+ *
+ * @author BareMetalCode
+ */
+public enum RecordEncoding {
+    JSON,
+    CBOR,
+    SMILE
+}
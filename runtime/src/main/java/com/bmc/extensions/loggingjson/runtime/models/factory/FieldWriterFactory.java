@@ -0,0 +1,255 @@
+package com.bmc.extensions.loggingjson.runtime.models.factory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.bmc.extensions.loggingjson.runtime.core.DirectValueWriter;
+import com.bmc.extensions.loggingjson.runtime.core.FieldWriter;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle.Occurrence;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceFrames;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.*;
+
+/**
+ * Factory compiling a precomputed {@link StructuredLog} template into an ordered array of {@link FieldWriter}.
+ * <p>
+ * The map based rendering extracts every value into a fresh {@link java.util.LinkedHashMap} (plus one for details and one per exception level)
+ * and hands the whole graph to Jackson's map serializer.<br>
+ * The compiled writers produce the same document, in the same order, writing each field name and typed value directly to the generator.<br>
+ * The only values still going through the {@code ObjectMapper} are the ones that are not scalars, namely client objects.
+ * <p>
+ * As in the map rendering, fields with a {@code null} value are omitted.
+ * <p>
+ * Field names are written from the template's pre-encoded keys, so that writing a name is a copy of its quoted bytes.
+ *
+ * @author BareMetalCode
+ */
+public class FieldWriterFactory {
+
+    private FieldWriterFactory() {}
+
+    /**
+     * Compiles the given template into the ordered writers that render a full record.
+     * <p>
+     * Order is: core fields, additional top fields, wrapped additional fields, details, exception and classic top stack trace; the same order
+     * the map based rendering produces.
+     *
+     * @param structuredLog the fully precomputed {@link StructuredLog} template
+     *
+     * @return the writers rendering every field of a record, in order
+     */
+    public static FieldWriter[] compileFieldWriters(final StructuredLog structuredLog) {
+
+        final List<FieldWriter> fieldWriters = new ArrayList<>();
+
+        structuredLog.getCoreRecordMapping()
+                     .forEach((key, dataExtractingFunction) -> fieldWriters.add(recordFieldWriter(encodedKey(structuredLog, key),
+                                                                                                   dataExtractingFunction)));
+
+        if (structuredLog.getAdditionalFieldsTop() != null) {
+            structuredLog.getAdditionalFieldsTop().forEach((key, value) -> fieldWriters.add(constantFieldWriter(encodedKey(structuredLog, key), value)));
+        }
+
+        if (structuredLog.getAdditionalFieldsWrapped() != null) {
+            fieldWriters.add(objectFieldWriter(encodedKey(structuredLog, ADDITIONAL_FIELDS.getValue()),
+                                               constantFieldWriters(structuredLog.getAdditionalFieldsWrapped(), structuredLog)));
+        }
+
+        if (structuredLog.getJsonConfig().printDetails()) {
+            fieldWriters.add(objectFieldWriter(encodedKey(structuredLog, DETAILS.getValue()),
+                                               recordFieldWriters(structuredLog.getDetailsMapping(), structuredLog)));
+        }
+
+        fieldWriters.add(exceptionFieldWriter(structuredLog));
+
+        return fieldWriters.toArray(FieldWriter[]::new);
+    }
+
+    /**
+     * Writes a value extracted from a record with the cheapest typed generator call available.
+     * <p>
+     * Scalars and stack trace frames are written directly; anything else (maps, arrays, client objects) goes through the generator's codec, the {@code ObjectMapper}.
+     *
+     * @param generator the generator to write to
+     * @param value     a non-null value
+     *
+     * @throws IOException if the generator fails to write
+     */
+    public static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+
+        switch (value) {
+            case final String string -> generator.writeString(string);
+            case final Long longValue -> generator.writeNumber(longValue);
+            case final Integer intValue -> generator.writeNumber(intValue);
+            case final Boolean booleanValue -> generator.writeBoolean(booleanValue);
+            case final StackTraceFrames stackTraceFrames -> stackTraceFrames.writeTo(generator);
+            default -> generator.writeObject(value);
+        }
+    }
+
+    private static FieldWriter[] biRecordFieldWriters(final Map<String, BiFunction<ExtLogRecord, StructuredLog, ?>> template,
+            final StructuredLog structuredLog) {
+
+        return template.entrySet().stream()
+                       .map(entry -> recordFieldWriter(encodedKey(structuredLog, entry.getKey()),
+                                                       record -> entry.getValue().apply(record, structuredLog)))
+                       .toArray(FieldWriter[]::new);
+    }
+
+    private static FieldWriter constantFieldWriter(final SerializableString key, final Object value) {
+
+        return (generator, record) -> {
+            generator.writeFieldName(key);
+            writeValue(generator, value);
+        };
+    }
+
+    private static FieldWriter[] constantFieldWriters(final Map<String, Object> fields, final StructuredLog structuredLog) {
+
+        return fields.entrySet().stream()
+                     .map(field -> constantFieldWriter(encodedKey(structuredLog, field.getKey()), field.getValue()))
+                     .toArray(FieldWriter[]::new);
+    }
+
+    /**
+     * Returns the pre-encoded form of a template key, encoding it on the spot for templates built without them.
+     */
+    private static SerializableString encodedKey(final StructuredLog structuredLog, final String key) {
+
+        final Map<String, SerializableString> encodedKeys = structuredLog.getEncodedKeys();
+        final SerializableString              encodedKey  = encodedKeys == null ? null : encodedKeys.get(key);
+
+        return encodedKey == null ? new SerializedString(key) : encodedKey;
+    }
+
+    private static FieldWriter exceptionFieldWriter(final StructuredLog structuredLog) {
+
+        final FieldWriter[] exceptionInnerWriters     = biRecordFieldWriters(structuredLog.getExceptionInnerMapping(), structuredLog);
+        final FieldWriter[] exceptionTopWriters       = biRecordFieldWriters(structuredLog.getExceptionStackTraceTopMapping(), structuredLog);
+        final FieldWriter   exceptionWriter           = objectFieldWriter(encodedKey(structuredLog, EXCEPTION.getValue()), exceptionInnerWriters);
+        final boolean       printClassicStackTraceTop = structuredLog.getJsonConfig().printClassicStackTrace();
+
+        if (structuredLog.getExceptionThrottle() != null) {
+            return throttledExceptionFieldWriter(structuredLog, exceptionInnerWriters, exceptionTopWriters, printClassicStackTraceTop);
+        }
+
+        return (generator, record) -> {
+            if (record.getThrown() == null) {
+                return;
+            }
+
+            exceptionWriter.write(generator, record);
+
+            if (printClassicStackTraceTop) {
+                for (final FieldWriter fieldWriter : exceptionTopWriters) {
+                    fieldWriter.write(generator, record);
+                }
+            }
+        };
+    }
+
+    private static FieldWriter objectFieldWriter(final SerializableString key, final FieldWriter[] innerWriters) {
+
+        return (generator, record) -> {
+            generator.writeFieldName(key);
+            generator.writeStartObject();
+            for (final FieldWriter fieldWriter : innerWriters) {
+                fieldWriter.write(generator, record);
+            }
+            generator.writeEndObject();
+        };
+    }
+
+    private static FieldWriter recordFieldWriter(final SerializableString key, final Function<ExtLogRecord, ?> dataExtractingFunction) {
+
+        if (dataExtractingFunction instanceof final DirectValueWriter directValueWriter) {
+            return (generator, record) -> {
+                generator.writeFieldName(key);
+                directValueWriter.writeValue(generator, record);
+            };
+        }
+
+        return (generator, record) -> {
+            final Object value = dataExtractingFunction.apply(record);
+            if (value != null) {
+                generator.writeFieldName(key);
+                writeValue(generator, value);
+            }
+        };
+    }
+
+    private static FieldWriter[] recordFieldWriters(final Map<String, Function<ExtLogRecord, ?>> template, final StructuredLog structuredLog) {
+
+        return template.entrySet().stream()
+                       .map(entry -> recordFieldWriter(encodedKey(structuredLog, entry.getKey()), entry.getValue()))
+                       .toArray(FieldWriter[]::new);
+    }
+
+    /**
+     * Writes the exception as decided by the exception throttle, once per record, in the same order as
+     * {@link com.bmc.extensions.loggingjson.runtime.utils.StructuredExceptionUtils#printThrottledException}.
+     */
+    private static FieldWriter throttledExceptionFieldWriter(final StructuredLog structuredLog, final FieldWriter[] exceptionInnerWriters,
+            final FieldWriter[] exceptionTopWriters, final boolean printClassicStackTraceTop) {
+
+        final ExceptionThrottle  exceptionThrottle        = structuredLog.getExceptionThrottle();
+        final SerializableString exceptionKey             = encodedKey(structuredLog, EXCEPTION.getValue());
+        final SerializableString messageKey               = encodedKey(structuredLog, EXCEPTION_MESSAGE.getValue());
+        final SerializableString typeKey                  = encodedKey(structuredLog, EXCEPTION_TYPE.getValue());
+        final SerializableString referenceIdKey           = encodedKey(structuredLog, EXCEPTION_REFERENCE_ID.getValue());
+        final SerializableString suppressedOccurrencesKey = encodedKey(structuredLog, EXCEPTION_SUPPRESSED_OCCURRENCES.getValue());
+
+        return (generator, record) -> {
+            final Throwable throwable = record.getThrown();
+            if (throwable == null) {
+                return;
+            }
+
+            final Occurrence occurrence = exceptionThrottle.register(throwable);
+
+            generator.writeFieldName(exceptionKey);
+            generator.writeStartObject();
+
+            if (occurrence.suppressed()) {
+                if (throwable.getMessage() != null) {
+                    generator.writeFieldName(messageKey);
+                    generator.writeString(throwable.getMessage());
+                }
+                generator.writeFieldName(typeKey);
+                generator.writeString(throwable.getClass().getName());
+            } else {
+                for (final FieldWriter fieldWriter : exceptionInnerWriters) {
+                    fieldWriter.write(generator, record);
+                }
+            }
+
+            generator.writeFieldName(referenceIdKey);
+            generator.writeString(occurrence.referenceId());
+
+            if (occurrence.previouslySuppressed() > 0) {
+                generator.writeFieldName(suppressedOccurrencesKey);
+                generator.writeNumber(occurrence.previouslySuppressed());
+            }
+
+            generator.writeEndObject();
+
+            if (!occurrence.suppressed() && printClassicStackTraceTop) {
+                for (final FieldWriter fieldWriter : exceptionTopWriters) {
+                    fieldWriter.write(generator, record);
+                }
+            }
+        };
+    }
+
+}
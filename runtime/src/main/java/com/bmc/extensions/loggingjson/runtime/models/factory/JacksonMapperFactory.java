@@ -1,12 +1,28 @@
 package com.bmc.extensions.loggingjson.runtime.models.factory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.bmc.extensions.loggingjson.runtime.config.ClientSerializerConfig;
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.limits.TruncatingJsonGenerator;
+import com.bmc.extensions.loggingjson.runtime.models.enums.RecordEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.TSFBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.EqualsAndHashCode;
 
 import static com.bmc.extensions.loggingjson.runtime.infrastructure.utils.DateTimeUtils.configureClientDateTime;
+import static com.bmc.extensions.loggingjson.runtime.infrastructure.utils.SerializerUtils.addClientGuardsIfAny;
 import static com.bmc.extensions.loggingjson.runtime.infrastructure.utils.SerializerUtils.addCustomSerializersIfAny;
+import static com.bmc.extensions.loggingjson.runtime.infrastructure.utils.SerializerUtils.warmUpSerializersIfAny;
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
 
 /**
@@ -14,41 +30,147 @@ import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS
  * <p>
  * The class is designed to configure an {@link ObjectMapper} with the following settings:<br>
  * - Disables writing dates as timestamps.<br>
+ * - Disables flushing after every written value, the record writer flushes once per record.<br>
  * - Includes ONLY non-null fields in the JSON output.<br>
  * - Registers a custom module to handle Java Time types on the client side.<br>
+ * - Registers the client object guards, when depth, collection size or cycle limits are configured.<br>
  * (The Log's own time format is not controlled here)
  * <p>
  * Additionally, custom serializers can be dynamically added to the {@link ObjectMapper} if they are specified
- * within the provided {@link JsonConfig}.
+ * within the provided {@link JsonConfig}, and the serializers of the configured warm-up classes are resolved upfront.
+ * <p>
+ * When a max string length is set, every generator the factory creates is a {@link TruncatingJsonGenerator}.
+ * <p>
+ * The mapper only depends on the client serializer configuration, the log zone and the max string length: when console and file outputs
+ * configure them equally, the second output reuses the factory of the first, instead of building and warming up a mapper of its own with
+ * the very same serializers.
  *
  * @author BareMetalCode
  */
 public class JacksonMapperFactory {
 
+    private static MapperConfig lastMapperConfig;
+    private static JsonFactory  lastJsonFactory;
+
     private JacksonMapperFactory() {}
 
     /**
      * Creates and configures a Jackson {@link JsonFactory} instance based on the provided {@link JsonConfig}.
      * <p>
      * The configuration includes disabling the use of timestamps for dates, setting non-null serialization inclusion,
-     * registering custom modules for Java Time types, and adding any custom serializers defined in the configuration.
+     * registering custom modules for Java Time types, and adding any custom serializers defined in the configuration.<br>
+     * Last, the serializers of the warm-up classes defined in the configuration are resolved, with every other setting in place.
+     * <p>
+     * If the previously created factory was built from an equal mapper configuration, that factory is returned instead.
      *
      * @param jsonConfig the configuration for structuring JSON output, including options for custom serializers,
      *                   date-time formats, etc.
      *
      * @return a configured {@link JsonFactory} ready to produce JSON output with the specified settings.
      */
-    public static JsonFactory getJacksonJSONFactory(final JsonConfig jsonConfig) {
+    public static synchronized JsonFactory getJacksonJSONFactory(final JsonConfig jsonConfig) {
+
+        final MapperConfig mapperConfig = new MapperConfig(jsonConfig);
+
+        if (!mapperConfig.equals(lastMapperConfig)) {
+            lastJsonFactory  = createJacksonJSONFactory(jsonConfig);
+            lastMapperConfig = mapperConfig;
+        }
+
+        return lastJsonFactory;
+    }
+
+    /**
+     * Creates a Jackson {@link JsonFactory} of the given binary encoding, serializing client objects with the mapper of
+     * {@link #getJacksonJSONFactory}.
+     * <p>
+     * Client objects are rendered by the very same serializers whatever the encoding, only the generator differs.<br>
+     * When a max string length is set, the binary generators truncate strings too.
+     *
+     * @param jsonConfig the configuration for structuring the output.
+     * @param encoding   either {@link RecordEncoding#CBOR} or {@link RecordEncoding#SMILE}.
+     *
+     * @return a factory creating generators of the given encoding.
+     */
+    public static JsonFactory getJacksonBinaryFactory(final JsonConfig jsonConfig, final RecordEncoding encoding) {
+
+        final TSFBuilder<?, ?> factoryBuilder = switch (encoding) {
+            case CBOR -> CBORFactory.builder();
+            case SMILE -> SmileFactory.builder();
+            case JSON -> throw new IllegalArgumentException("JSON is not a binary encoding");
+        };
 
-        final ObjectMapper mapper = new ObjectMapper();
+        if (jsonConfig.maxStringLength() > 0) {
+            factoryBuilder.addDecorator(TruncatingJsonGenerator.decorator(jsonConfig.maxStringLength()));
+        }
+
+        return factoryBuilder.build().setCodec(getJacksonJSONFactory(jsonConfig).getCodec());
+    }
+
+    private static JsonFactory createJacksonJSONFactory(final JsonConfig jsonConfig) {
+
+        final JsonFactoryBuilder factoryBuilder = new JsonFactoryBuilder();
+
+        if (jsonConfig.maxStringLength() > 0) {
+            factoryBuilder.addDecorator(TruncatingJsonGenerator.decorator(jsonConfig.maxStringLength()));
+        }
+
+        final ObjectMapper mapper = new ObjectMapper(factoryBuilder.build());
 
         mapper.disable(WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(FLUSH_AFTER_WRITE_VALUE);
         mapper.setSerializationInclusion(NON_NULL);
         mapper.registerModule(configureClientDateTime(jsonConfig));
 
+        addClientGuardsIfAny(jsonConfig, mapper);
         addCustomSerializersIfAny(jsonConfig, mapper);
+        warmUpSerializersIfAny(jsonConfig, mapper);
 
         return mapper.getFactory();
     }
 
+    /**
+     * The configuration a mapper is built from, compared by value.
+     * <p>
+     * Client classes are loaded through the thread context class loader, which is compared by identity: an application restarted in dev mode
+     * gets a new class loader, so a mapper is never shared with the serializers of a previous start.
+     */
+    @EqualsAndHashCode
+    private static final class MapperConfig {
+
+        private final ClassLoader            classLoader;
+        private final Map<String, String>    customSerializers;
+        private final boolean                detectCycles;
+        private final Optional<String>       instantFormat;
+        private final Optional<String>       localDateFormat;
+        private final Optional<String>       localDateTimeFormat;
+        private final Optional<String>       localTimeFormat;
+        private final Optional<String>       logZoneId;
+        private final int                    maxCollectionElements;
+        private final int                    maxDepth;
+        private final int                    maxStringLength;
+        private final Optional<List<String>> warmUpClasses;
+        private final Optional<String>       zonedDateTimeFormat;
+
+        private MapperConfig(final JsonConfig jsonConfig) {
+
+            final ClientSerializerConfig clientSerializers = jsonConfig.clientSerializers();
+
+            this.classLoader           = Thread.currentThread().getContextClassLoader();
+            this.customSerializers     = Map.copyOf(clientSerializers.customSerializers());
+            this.detectCycles          = clientSerializers.detectCycles();
+            this.instantFormat         = clientSerializers.instantFormat();
+            this.localDateFormat       = clientSerializers.localDateFormat();
+            this.localDateTimeFormat   = clientSerializers.localDateTimeFormat();
+            this.localTimeFormat       = clientSerializers.localTimeFormat();
+            this.logZoneId             = jsonConfig.logZoneId();
+            this.maxCollectionElements = clientSerializers.maxCollectionElements();
+            this.maxDepth              = clientSerializers.maxDepth();
+            this.maxStringLength       = jsonConfig.maxStringLength();
+            this.warmUpClasses         = clientSerializers.warmUpClasses();
+            this.zonedDateTimeFormat   = clientSerializers.zonedDateTimeFormat();
+        }
+
+    }
+
 }
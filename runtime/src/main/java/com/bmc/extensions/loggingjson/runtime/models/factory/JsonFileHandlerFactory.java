@@ -0,0 +1,169 @@
+package com.bmc.extensions.loggingjson.runtime.models.factory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.bmc.extensions.loggingjson.runtime.config.AsyncConfig;
+import com.bmc.extensions.loggingjson.runtime.config.FileHandlerConfig;
+import com.bmc.extensions.loggingjson.runtime.config.FileJsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.GzipConfig;
+import com.bmc.extensions.loggingjson.runtime.core.FramedRecordWriter;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.AsyncJsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.core.handlers.JsonFileHandler;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.ByteBufferChannelOutputStream;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.JsonArrayFiles;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.MappedFileOutputStream;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.io.RotatingGzipOutputStream;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.JsonArrayState;
+import com.fasterxml.jackson.core.JsonFactory;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logmanager.ExtHandler;
+
+import static com.bmc.extensions.loggingjson.runtime.models.enums.FileOutputMode.GZIP;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput.FILE;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.RecordEncoding.JSON;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonBinaryFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.JacksonMapperFactory.getJacksonJSONFactory;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.StructuredLogFactory.getPrecomputedStructuredLog;
+import static com.bmc.extensions.loggingjson.runtime.utils.MetricsUtils.registerMetricsIfEnabled;
+import static com.bmc.extensions.loggingjson.runtime.utils.WarmUpUtils.warmUpIfEnabled;
+
+/**
+ * Factory for creating the dedicated {@link JsonFileHandler}, wrapped in an {@link AsyncJsonFileHandler} when asynchronous writing is enabled.
+ * <p>
+ * The handler always renders through the compiled field writers of the template, whatever the {@code stream-fields} option says, as it
+ * has no map based path.
+ * <p>
+ * Warm-up records go through a formatter sharing the handler's template and compiled field writers, as they must not reach the file.
+ * <p>
+ * With a binary encoding, the handler is given a {@link FramedRecordWriter} rendering the same template through a binary generator.
+ * <p>
+ * The {@code GZIP} output mode writes through a {@link RotatingGzipOutputStream}, whose segments are rotated between records.
+ * <p>
+ * In JSON array mode the array left in the file by the previous run is reopened by {@link JsonArrayFiles} before the file is opened for
+ * appending, so the file stays a single JSON array across restarts.
+ * <p>
+ * The standard Quarkus file handler keeps writing plain text to its own path whatever this extension does, so a dedicated handler writing to
+ * that same file is refused at startup.
+ *
+ * @author BareMetalCode
+ */
+public class JsonFileHandlerFactory {
+
+    private JsonFileHandlerFactory() {}
+
+    /**
+     * Creates a {@link JsonFileHandler} writing to the file and in the output mode given by the configuration.
+     *
+     * @param fileJsonConfig the file JSON configuration, including the dedicated handler section.
+     *
+     * @return a handler ready to publish records, asynchronous if so configured.
+     *
+     * @throws IllegalArgumentException if the standard file handler is enabled and writes to the same file.
+     * @throws RuntimeException         if the log file cannot be opened.
+     */
+    public static ExtHandler getJsonFileHandler(final FileJsonConfig fileJsonConfig) {
+
+        checkFileNotShared(fileJsonConfig.handler(), ConfigProvider.getConfig());
+
+        final StructuredLog structuredLog = getPrecomputedStructuredLog(fileJsonConfig);
+
+        if (structuredLog.getFieldWriters() == null) {
+            structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+        }
+
+        final JsonFactory jsonFactory = getJacksonJSONFactory(fileJsonConfig);
+
+        warmUpIfEnabled(structuredLog, jsonFactory);
+        registerMetricsIfEnabled(structuredLog, FILE);
+
+        final JsonFileHandler jsonFileHandler;
+        try {
+            final JsonArrayState jsonArrayState = getJsonArrayState(fileJsonConfig.handler());
+
+            jsonFileHandler = new JsonFileHandler(structuredLog, jsonFactory, getOutputStream(fileJsonConfig.handler()), jsonArrayState,
+                                                  getFramedRecordWriter(structuredLog, fileJsonConfig));
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        final AsyncConfig asyncConfig = fileJsonConfig.handler().async();
+
+        return asyncConfig.enable()
+               ? new AsyncJsonFileHandler(jsonFileHandler, asyncConfig.queueLength(), asyncConfig.overflow())
+               : jsonFileHandler;
+    }
+
+    /**
+     * Both handlers would append to the same file: plain text lines between JSON records, or into the zero bytes of a mapped region.<br>
+     * Gzip segments are named after the path without ever being written to it, so they cannot collide.
+     */
+    private static void checkFileNotShared(final FileHandlerConfig handlerConfig, final Config config) {
+
+        if (handlerConfig.outputMode() == GZIP || !config.getOptionalValue("quarkus.log.file.enable", Boolean.class).orElse(false)) {
+            return;
+        }
+
+        final Path standardPath  = Path.of(config.getOptionalValue("quarkus.log.file.path", String.class).orElse("quarkus.log"));
+        final Path dedicatedPath = handlerConfig.path();
+
+        if (standardPath.toAbsolutePath().normalize().equals(dedicatedPath.toAbsolutePath().normalize())) {
+            throw new IllegalArgumentException(("The dedicated JSON file handler and the standard file handler both write to [%s]: disable the "
+                                                + "standard one (quarkus.log.file.enable=false) or set quarkus.log.file.json.handler.path")
+                                                       .formatted(dedicatedPath));
+        }
+    }
+
+    private static FramedRecordWriter getFramedRecordWriter(final StructuredLog structuredLog, final FileJsonConfig fileJsonConfig) {
+
+        if (fileJsonConfig.handler().encoding() == JSON) {
+            return null;
+        }
+
+        return new FramedRecordWriter(structuredLog, getJacksonBinaryFactory(fileJsonConfig, fileJsonConfig.handler().encoding()));
+    }
+
+    /**
+     * A JSON array cannot be split across segments, so it is not allowed with rotation.
+     */
+    private static OutputStream getGzipOutputStream(final FileHandlerConfig handlerConfig) throws IOException {
+
+        if (handlerConfig.jsonArray()) {
+            throw new IllegalArgumentException("Records written to rotated segments cannot be written as a single JSON array");
+        }
+
+        final GzipConfig gzipConfig = handlerConfig.gzip();
+
+        return new RotatingGzipOutputStream(handlerConfig.path(), handlerConfig.bufferSize(), gzipConfig.rotateSize(),
+                                            gzipConfig.rotateInterval().orElse(Duration.ZERO), gzipConfig.flushInterval());
+    }
+
+    /**
+     * Gzip segments are refused in JSON array mode when their stream is created, so the array is only reopened for the other modes.
+     */
+    private static JsonArrayState getJsonArrayState(final FileHandlerConfig handlerConfig) throws IOException {
+
+        if (!handlerConfig.jsonArray() || handlerConfig.outputMode() == GZIP) {
+            return JsonArrayState.NONE;
+        }
+
+        return JsonArrayFiles.reopenArray(handlerConfig.path());
+    }
+
+    private static OutputStream getOutputStream(final FileHandlerConfig handlerConfig) throws IOException {
+
+        return switch (handlerConfig.outputMode()) {
+            case CHANNEL -> ByteBufferChannelOutputStream.appendingTo(handlerConfig.path(), handlerConfig.bufferSize());
+            case MAPPED -> MappedFileOutputStream.appendingTo(handlerConfig.path(), handlerConfig.mappedChunkSize());
+            case GZIP -> getGzipOutputStream(handlerConfig);
+            case FORMATTER -> throw new IllegalStateException("The FORMATTER output mode has no dedicated handler");
+        };
+    }
+
+}
@@ -53,9 +53,17 @@ public class StructuredLogFactory {
 
         setStructuredLogInstantFormatting(structuredLog);
         applyExclusionsIfAny(structuredLog);
+        applyMdcOptionsIfAny(structuredLog);
         applyOverridesIfAny(structuredLog);
         updateConfigIfLogFormatIsECS(jsonConfig);
         addAdditionalFieldsIfAny(structuredLog);
+        addFramesOmittedIfLimited(structuredLog);
+        createStackTraceCacheIfEnabled(structuredLog);
+        createExceptionThrottleIfEnabled(structuredLog);
+        createFormatterMetricsIfEnabled(structuredLog);
+        createRecordRateLimiterIfEnabled(structuredLog);
+        encodeTemplateKeys(structuredLog);
+        compileFieldWritersIfEnabled(structuredLog);
 
         return structuredLog;
     }
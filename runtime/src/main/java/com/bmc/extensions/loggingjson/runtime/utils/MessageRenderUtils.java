@@ -0,0 +1,203 @@
+package com.bmc.extensions.loggingjson.runtime.utils;
+
+import java.text.DecimalFormatSymbols;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.ResourceBundle;
+
+import com.bmc.extensions.loggingjson.runtime.infrastructure.concurrent.BoundedCache;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.ExtLogRecord.FormatStyle;
+
+import static java.util.Locale.Category.FORMAT;
+
+/**
+ * Utility class rendering the plain text message of a log record, exactly as {@link ExtLogRecord#getFormattedMessage()} does.
+ * <p>
+ * A message without parameters is returned as is, without looking at it.<br>
+ * Parameters are applied according to the record {@link FormatStyle}: {@code printf} for {@code logger.infof(...)} calls,
+ * {@link MessageFormat} for {@code logger.info(message, params)} calls, or not at all.
+ * <p>
+ * Format strings are parsed once and the parsed templates are kept in a {@link BoundedCache} keyed by the format string:<br>
+ * - printf templates made of {@code %s}, {@code %d}, {@code %n} and {@code %%} only are rendered by concatenation, any other conversion or
+ * argument type is handed over to {@link String#format}.<br>
+ * - {@link MessageFormat}s are shared when they have no subformats, and cloned on use otherwise, as subformats are not thread-safe.
+ * <p>
+ * The message of a record carrying a resource bundle is looked up in it first, a message missing from the bundle being used as is; the
+ * format string found is then rendered and cached like any other.
+ *
+ * @author BareMetalCode
+ */
+public class MessageRenderUtils {
+
+    private static final int MAX_CACHED_TEMPLATES = 512;
+
+    private static final BoundedCache<String, MessageFormatTemplate> MESSAGE_FORMAT_TEMPLATES = new BoundedCache<>(MAX_CACHED_TEMPLATES);
+    private static final BoundedCache<String, PrintfTemplate>        PRINTF_TEMPLATES         = new BoundedCache<>(MAX_CACHED_TEMPLATES);
+
+    private MessageRenderUtils() {}
+
+    /**
+     * Renders the message of the given record with its parameters.
+     *
+     * @param record the {@link ExtLogRecord} to render the message of.
+     *
+     * @return the rendered message, or null if the record has no message.
+     */
+    public static String renderMessage(final ExtLogRecord record) {
+
+        final String   message    = localizedMessage(record);
+        final Object[] parameters = record.getParameters();
+
+        if (message == null || parameters == null || parameters.length == 0) {
+            return message;
+        }
+
+        return switch (record.getFormatStyle()) {
+            case PRINTF -> PRINTF_TEMPLATES.get(message, PrintfTemplate::parse).render(message, parameters);
+            case MESSAGE_FORMAT -> message.indexOf('{') < 0 ? message : MESSAGE_FORMAT_TEMPLATES.get(message, MessageFormatTemplate::new).render(parameters);
+            default -> message;
+        };
+    }
+
+    private static String localizedMessage(final ExtLogRecord record) {
+
+        final String         message = record.getMessage();
+        final ResourceBundle bundle  = record.getResourceBundle();
+
+        if (message == null || bundle == null) {
+            return message;
+        }
+
+        try {
+            return bundle.getString(message);
+        } catch (final MissingResourceException e) {
+            return message;
+        }
+    }
+
+    /**
+     * A parsed {@link MessageFormat}, shared by every thread unless it holds subformats.
+     */
+    private static final class MessageFormatTemplate {
+
+        private final MessageFormat messageFormat;
+        private final boolean       shared;
+
+        private MessageFormatTemplate(final String pattern) {
+
+            this.messageFormat = new MessageFormat(pattern);
+            this.shared        = Arrays.stream(messageFormat.getFormats()).allMatch(Objects::isNull);
+        }
+
+        private String render(final Object[] parameters) {
+
+            final Format format = shared ? messageFormat : (Format) messageFormat.clone();
+
+            return format.format(parameters);
+        }
+
+    }
+
+    /**
+     * A parsed printf format string: the literal text around each conversion, and the conversions themselves.
+     * <p>
+     * A format string using anything but {@code %s}, {@code %d}, {@code %n} and {@code %%} is kept unsupported and always rendered by
+     * {@link String#format}.
+     */
+    private static final class PrintfTemplate {
+
+        private static final PrintfTemplate UNSUPPORTED = new PrintfTemplate(null, null, null);
+
+        private final boolean  asciiDigits;
+        private final char[]   conversions;
+        private final Locale   locale;
+        private final String[] literals;
+
+        private PrintfTemplate(final String[] literals, final char[] conversions, final Locale locale) {
+
+            this.asciiDigits = locale != null && DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0';
+            this.conversions = conversions;
+            this.literals    = literals;
+            this.locale      = locale;
+        }
+
+        private static PrintfTemplate parse(final String format) {
+
+            final List<String>  literals    = new ArrayList<>();
+            final StringBuilder conversions = new StringBuilder();
+            final StringBuilder literal     = new StringBuilder();
+
+            for (int i = 0; i < format.length(); i++) {
+                final char current = format.charAt(i);
+                if (current != '%') {
+                    literal.append(current);
+                    continue;
+                }
+                if (++i == format.length()) {
+                    return UNSUPPORTED;
+                }
+                switch (format.charAt(i)) {
+                    case '%' -> literal.append('%');
+                    case 'n' -> literal.append(System.lineSeparator());
+                    case 's', 'd' -> {
+                        literals.add(literal.toString());
+                        conversions.append(format.charAt(i));
+                        literal.setLength(0);
+                    }
+                    default -> {
+                        return UNSUPPORTED;
+                    }
+                }
+            }
+            literals.add(literal.toString());
+
+            return new PrintfTemplate(literals.toArray(String[]::new), conversions.toString().toCharArray(), Locale.getDefault(FORMAT));
+        }
+
+        /**
+         * Tells whether {@link String#format} prints the argument exactly as {@link String#valueOf(Object)} for the given conversion.
+         * <p>
+         * Integral numbers only print the same while the default format locale is still the one parsed with, and uses ASCII digits.
+         */
+        private boolean printsAsValueOf(final char conversion, final Object argument) {
+
+            if (conversion == 's') {
+                return !(argument instanceof Formattable);
+            }
+
+            return (argument instanceof Integer || argument instanceof Long || argument instanceof Short || argument instanceof Byte)
+                   && asciiDigits && locale == Locale.getDefault(FORMAT);
+        }
+
+        private String render(final String format, final Object[] parameters) {
+
+            if (literals == null || parameters.length < conversions.length) {
+                return String.format(format, parameters);
+            }
+
+            for (int i = 0; i < conversions.length; i++) {
+                if (!printsAsValueOf(conversions[i], parameters[i])) {
+                    return String.format(format, parameters);
+                }
+            }
+
+            final StringBuilder builder = new StringBuilder(format.length() + 16 * conversions.length);
+            for (int i = 0; i < conversions.length; i++) {
+                builder.append(literals[i]).append(parameters[i]);
+            }
+
+            return builder.append(literals[conversions.length]).toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.bmc.extensions.loggingjson.runtime.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.bmc.extensions.loggingjson.runtime.models.enums.LogOutput;
+
+import io.quarkus.runtime.metrics.MetricsFactory;
+
+/**
+ * Utility class exposing the {@link FormatterMetrics} of a log output through the platform MBean server and, when a metrics extension is
+ * present, through its {@link MetricsFactory}.
+ * <p>
+ * Metrics are registered as {@code com.bmc.extensions.loggingjson:type=FormatterMetrics,output=<output>}, one per output.<br>
+ * An application restarted in the same JVM, as in dev mode, replaces the metrics registered by its previous start.
+ *
+ * @author BareMetalCode
+ */
+public class MetricsUtils {
+
+    private static final String                           OBJECT_NAME_PATTERN ="com.bmc.extensions.loggingjson:type=FormatterMetrics,output=%s";
+    private static final Map<LogOutput, FormatterMetrics> REGISTERED_METRICS  = new ConcurrentHashMap<>();
+
+    private MetricsUtils() {}
+
+    /**
+     * Binds the metrics of the given output to the given metrics factory, tagged {@code output=<output>}.
+     * <p>
+     * Meters read the metrics registered for the output when they are polled, so they can be bound before the formatter is created and keep
+     * following the formatter of an application restarted in the same JVM. They read zero until metrics are registered for the output.
+     *
+     * @param metricsFactory the factory of the metrics extension present, e.g. Micrometer.
+     * @param logOutput      the output whose metrics are bound.
+     */
+    public static void bindMetrics(final MetricsFactory metricsFactory, final LogOutput logOutput) {
+
+        final String output = logOutput.name().toLowerCase(Locale.ROOT);
+
+        metricsFactory.builder("logging.json.records.formatted").description("Records formatted successfully").tag("output", output)
+                      .buildCounter(registeredMetric(logOutput, FormatterMetrics::getRecordsFormatted));
+        metricsFactory.builder("logging.json.bytes.produced").description("Bytes of the records formatted or written").tag("output", output)
+                      .unit("bytes").buildCounter(registeredMetric(logOutput, FormatterMetrics::getBytesProduced));
+        metricsFactory.builder("logging.json.exceptions.rendered").description("Records formatted that carried an exception").tag("output", output)
+                      .buildCounter(registeredMetric(logOutput, FormatterMetrics::getExceptionsRendered));
+        metricsFactory.builder("logging.json.serialization.failures").description("Records that failed to be formatted or written")
+                      .tag("output", output).buildCounter(registeredMetric(logOutput, FormatterMetrics::getSerializationFailures));
+
+        bindLatencyGauge(metricsFactory, output, "0.5", registeredMetric(logOutput, FormatterMetrics::getLatencyP50Nanos));
+        bindLatencyGauge(metricsFactory, output, "0.99", registeredMetric(logOutput, FormatterMetrics::getLatencyP99Nanos));
+        bindLatencyGauge(metricsFactory, output, "0.999", registeredMetric(logOutput, FormatterMetrics::getLatencyP999Nanos));
+        metricsFactory.builder("logging.json.latency.max").description("Highest sampled formatting latency over the latency window").tag("output", output)
+                      .unit("nanoseconds").buildGauge(registeredMetric(logOutput, FormatterMetrics::getLatencyMaxNanos));
+    }
+
+    /**
+     * Registers the metrics of the given template under the given output, if metrics are enabled.
+     *
+     * @param structuredLog the structured log template, holding the metrics if enabled.
+     * @param logOutput     the output rendered by the template.
+     */
+    public static void registerMetricsIfEnabled(final StructuredLog structuredLog, final LogOutput logOutput) {
+
+        final FormatterMetrics formatterMetrics = structuredLog.getFormatterMetrics();
+        if (formatterMetrics == null) {
+            return;
+        }
+
+        REGISTERED_METRICS.put(logOutput, formatterMetrics);
+
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            final ObjectName objectName = new ObjectName(OBJECT_NAME_PATTERN.formatted(logOutput.name().toLowerCase(Locale.ROOT)));
+
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(formatterMetrics, objectName);
+        } catch (final JMException e) {
+            System.err.printf("Failure registering the JSON formatter metrics of the [%s] output: %s.\n", logOutput, e.getMessage());
+        }
+    }
+
+    private static void bindLatencyGauge(final MetricsFactory metricsFactory, final String output, final String quantile,
+            final Supplier<Number> latency) {
+
+        metricsFactory.builder("logging.json.latency").description("Sampled formatting latency over the latency window, rounded up to a power of two")
+                      .tag("output", output).tag("quantile", quantile).unit("nanoseconds").buildGauge(latency);
+    }
+
+    private static Supplier<Number> registeredMetric(final LogOutput logOutput, final ToLongFunction<FormatterMetrics> metric) {
+
+        return () -> {
+            final FormatterMetrics formatterMetrics = REGISTERED_METRICS.get(logOutput);
+            return formatterMetrics == null ? 0L : metric.applyAsLong(formatterMetrics);
+        };
+    }
+
+}
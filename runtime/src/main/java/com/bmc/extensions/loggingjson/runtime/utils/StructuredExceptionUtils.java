@@ -3,19 +3,26 @@ package com.bmc.extensions.loggingjson.runtime.utils;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Function;
 
-import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle.Occurrence;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceCache;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceFrames;
 import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
 import com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail;
 
 import org.jboss.logmanager.ExtLogRecord;
 
-import lombok.Getter;
-
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.*;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail.CLASS_METHOD_LINE;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail.FULL;
 import static org.jboss.logmanager.formatters.StackTraceFormatter.renderStackTrace;
 
 /**
  * Utility class for formatting structured exception data.
+ * <p>
+ * When the {@link StructuredLog} has a {@link StackTraceCache}, stack traces are rendered through it, so a trace rendered before is reused
+ * as is.
  */
 public class StructuredExceptionUtils {
 
@@ -33,10 +40,25 @@ public class StructuredExceptionUtils {
      */
     public static String printClassicStackTrace(final ExtLogRecord record, final StructuredLog structuredLog) {
 
-        final StringBuilder writer = new StringBuilder();
-        writer.append(record.getThrown().getMessage());
-        renderStackTrace(writer, record.getThrown(), structuredLog.getJsonConfig().exceptions().exceptionSTSuppressedDepth());
-        return writer.toString();
+        final Throwable throwable = record.getThrown();
+
+        return throwable.getMessage() + addClassicStackTrace(throwable, structuredLog);
+    }
+
+    /**
+     * Returns the number of frames left out of the rendered stack trace of the given log record by the configured maximum frames.
+     *
+     * @param record        the {@link ExtLogRecord} containing the exception details, including the stack trace
+     * @param structuredLog the {@link StructuredLog} containing the configured maximum frames
+     *
+     * @return the number of frames left out, or {@code null} if every frame is rendered
+     */
+    public static Integer printFramesOmitted(final ExtLogRecord record, final StructuredLog structuredLog) {
+
+        final int frames        = record.getThrown().getStackTrace().length;
+        final int framesOmitted = frames - renderedFrameCount(frames, structuredLog.getJsonConfig().exceptions().exceptionMaxFrames());
+
+        return framesOmitted > 0 ? framesOmitted : null;
     }
 
     /**
@@ -55,11 +77,13 @@ public class StructuredExceptionUtils {
 
         final Throwable throwable = record.getThrown();
 
+        final int maxFrames = structuredLog.getJsonConfig().exceptions().exceptionMaxFrames();
+
         return switch (structuredLog.getJsonConfig().exceptions().exceptionDetail()) {
-            case ONE_LINER -> addOneLineStackTrace(throwable.getStackTrace());
-            case CLASS_METHOD_LINE -> addCMLStackTrace(throwable.getStackTrace());
-            case CLASSIC -> addClassicStackTrace(throwable, structuredLog.getJsonConfig());
-            case FULL -> addFullStackTrace(throwable.getStackTrace());
+            case ONE_LINER -> addFramesRendering(throwable, structuredLog, frames -> addOneLineStackTrace(frames, maxFrames));
+            case CLASS_METHOD_LINE -> addFramesRendering(throwable, structuredLog, frames -> addFramesStackTrace(frames, CLASS_METHOD_LINE, maxFrames));
+            case CLASSIC -> addClassicStackTrace(throwable, structuredLog);
+            case FULL -> addFramesRendering(throwable, structuredLog, frames -> addFramesStackTrace(frames, FULL, maxFrames));
             case OFF -> null;
         };
     }
@@ -82,50 +106,88 @@ public class StructuredExceptionUtils {
         return map;
     }
 
-    private static Object addCMLStackTrace(final StackTraceElement[] stackTrace) {
-
-        return Arrays.stream(stackTrace)
-                     .map(stackTraceElement -> {
-                         final CML cml = new CML();
-                         cml.className = stackTraceElement.getClassName();
-                         cml.line      = stackTraceElement.getLineNumber();
-                         cml.method    = stackTraceElement.getMethodName();
-                         return cml;
-                     })
-                     .toArray(CML[]::new);
+    /**
+     * Processes the exception of the provided log record as decided by the exception throttle.
+     * <p>
+     * A suppressed occurrence only carries the exception message, type and the reference id of the full occurrence.<br>
+     * A full occurrence carries every inner exception field plus its reference id, and the number of occurrences suppressed by the previous
+     * window, if any.
+     *
+     * @param record        the {@code ExtLogRecord} containing the exception details
+     * @param structuredLog the {@code StructuredLog} containing the configuration mapping for extracting exception details
+     * @param occurrence    the {@link Occurrence} the throttle registered for the record exception
+     *
+     * @return a map where the keys are the rendered exception fields and the values are the extracted data based on the log record
+     */
+    public static Map<String, Object> printThrottledException(final ExtLogRecord record, final StructuredLog structuredLog,
+            final Occurrence occurrence) {
+
+        final Map<String, Object> map;
+
+        if (occurrence.suppressed()) {
+            final Throwable throwable = record.getThrown();
+            map = new LinkedHashMap<>();
+            map.put(EXCEPTION_MESSAGE.getValue(), throwable.getMessage());
+            map.put(EXCEPTION_TYPE.getValue(), throwable.getClass().getName());
+        } else {
+            map = printStructuredException(record, structuredLog);
+        }
+
+        map.put(EXCEPTION_REFERENCE_ID.getValue(), occurrence.referenceId());
+
+        if (occurrence.previouslySuppressed() > 0) {
+            map.put(EXCEPTION_SUPPRESSED_OCCURRENCES.getValue(), occurrence.previouslySuppressed());
+        }
+
+        return map;
+    }
+
+    private static String addClassicStackTrace(final Throwable throwable, final StructuredLog structuredLog) {
+
+        final StackTraceCache stackTraceCache = structuredLog.getStackTraceCache();
+        final int             suppressedDepth = structuredLog.getJsonConfig().exceptions().exceptionSTSuppressedDepth();
+
+        if (stackTraceCache == null) {
+            return renderClassicStackTrace(throwable, suppressedDepth);
+        }
+
+        return stackTraceCache.renderTrace(throwable, renderedThrowable -> renderClassicStackTrace(renderedThrowable, suppressedDepth));
     }
 
-    private static String addClassicStackTrace(final Throwable throwable, final JsonConfig jsonConfig) {
+    private static Object addFramesRendering(final Throwable throwable, final StructuredLog structuredLog,
+            final Function<StackTraceElement[], Object> framesRenderer) {
 
-        final StringBuilder writer = new StringBuilder();
-        renderStackTrace(writer, throwable, jsonConfig.exceptions().exceptionSTSuppressedDepth());
-        return writer.toString();
+        final StackTraceCache stackTraceCache = structuredLog.getStackTraceCache();
+
+        if (stackTraceCache == null) {
+            return framesRenderer.apply(throwable.getStackTrace());
+        }
+
+        return stackTraceCache.renderFrames(throwable, framesRenderer);
     }
 
-    private static Object addFullStackTrace(final StackTraceElement[] stackTrace) {
+    private static Object addFramesStackTrace(final StackTraceElement[] stackTrace, final StackTraceDetail detail, final int maxFrames) {
 
-        return stackTrace;
+        return new StackTraceFrames(stackTrace, detail, renderedFrameCount(stackTrace.length, maxFrames));
     }
 
-    private static Object addOneLineStackTrace(final StackTraceElement[] stackTrace) {
+    private static Object addOneLineStackTrace(final StackTraceElement[] stackTrace, final int maxFrames) {
 
-        return Arrays.stream(stackTrace)
+        return Arrays.stream(stackTrace, 0, renderedFrameCount(stackTrace.length, maxFrames))
                      .map(StackTraceElement::toString)
                      .toList();
     }
 
-    /**
-     * CML stands for ClassMethodLine.
-     * <p>
-     * It encapsulates metadata about a specific code location, such as the class name, line number, and method name.
-     */
-    @Getter
-    public static class CML {
+    private static String renderClassicStackTrace(final Throwable throwable, final int suppressedDepth) {
+
+        final StringBuilder writer = new StringBuilder();
+        renderStackTrace(writer, throwable, suppressedDepth);
+        return writer.toString();
+    }
 
-        private String className;
-        private int    line;
-        private String method;
+    private static int renderedFrameCount(final int frames, final int maxFrames) {
 
+        return maxFrames > 0 ? Math.min(frames, maxFrames) : frames;
     }
 
 }
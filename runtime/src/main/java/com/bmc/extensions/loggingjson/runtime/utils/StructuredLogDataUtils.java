@@ -5,10 +5,14 @@ import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle.Occurrence;
 import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
 
 import org.jboss.logmanager.ExtLogRecord;
 
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.ADDITIONAL_FIELDS;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.EXCEPTION;
+import static com.bmc.extensions.loggingjson.runtime.utils.StructuredExceptionUtils.printThrottledException;
 import static java.util.Optional.ofNullable;
 
 /**
@@ -36,7 +40,7 @@ public class StructuredLogDataUtils {
     public static void populateAdditionalFieldsIfPresent(final StructuredLog structuredLog, final Map<String, Object> fieldsToRender) {
 
         ofNullable(structuredLog.getAdditionalFieldsTop()).ifPresent(fieldsToRender::putAll);
-        ofNullable(structuredLog.getAdditionalFieldsWrapped()).ifPresent(fields -> fieldsToRender.put("additionalFields", fields));
+        ofNullable(structuredLog.getAdditionalFieldsWrapped()).ifPresent(fields -> fieldsToRender.put(ADDITIONAL_FIELDS.getValue(), fields));
     }
 
     /**
@@ -89,6 +93,11 @@ public class StructuredLogDataUtils {
             return;
         }
 
+        if (structuredLog.getExceptionThrottle() != null) {
+            populateThrottledException(record, structuredLog, fieldsToRender);
+            return;
+        }
+
         fieldsToRender.putAll(extractExceptionFromRecord(record, structuredLog.getExceptionMapping(), structuredLog));
 
         if (structuredLog.getJsonConfig().printClassicStackTrace()) {
@@ -112,4 +121,17 @@ public class StructuredLogDataUtils {
         return map;
     }
 
+    private static void populateThrottledException(final ExtLogRecord record, final StructuredLog structuredLog,
+            final Map<String, Object> fieldsToRender) {
+
+        final Occurrence occurrence = structuredLog.getExceptionThrottle().register(record.getThrown());
+
+        fieldsToRender.put(EXCEPTION.getValue(), printThrottledException(record, structuredLog, occurrence));
+
+        if (!occurrence.suppressed() && structuredLog.getJsonConfig().printClassicStackTrace()) {
+            fieldsToRender.putAll(
+                    extractExceptionFromRecord(record, structuredLog.getExceptionStackTraceTopMapping(), structuredLog));
+        }
+    }
+
 }
@@ -1,25 +1,45 @@
 package com.bmc.extensions.loggingjson.runtime.utils;
 
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import com.bmc.extensions.loggingjson.runtime.config.ExceptionConfig;
 import com.bmc.extensions.loggingjson.runtime.config.JsonConfig;
+import com.bmc.extensions.loggingjson.runtime.config.MdcConfig;
+import com.bmc.extensions.loggingjson.runtime.config.MetricsConfig;
+import com.bmc.extensions.loggingjson.runtime.config.RateLimitConfig;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.ExceptionThrottle;
+import com.bmc.extensions.loggingjson.runtime.core.exceptions.StackTraceCache;
+import com.bmc.extensions.loggingjson.runtime.core.metrics.FormatterMetrics;
+import com.bmc.extensions.loggingjson.runtime.core.ratelimit.RecordRateLimiter;
+import com.bmc.extensions.loggingjson.runtime.infrastructure.time.CachedTimestampFormatter;
 import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
 import com.bmc.extensions.loggingjson.runtime.models.enums.LogFormat;
 import com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKeyECS;
+import com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logmanager.ExtLogRecord;
 
 import static com.bmc.extensions.loggingjson.runtime.infrastructure.utils.DateTimeUtils.getDateTimeFormatterWithZone;
+import static com.bmc.extensions.loggingjson.runtime.models.MdcMappings.*;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
 import static com.bmc.extensions.loggingjson.runtime.models.enums.ExtraECSValues.*;
-import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.LOGGER_CLASS_NAME;
-import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.TIMESTAMP;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.*;
+import static com.bmc.extensions.loggingjson.runtime.models.enums.StackTraceDetail.*;
 
 /**
  * Utility class to build the different parts of a {@link StructuredLog}.
@@ -30,6 +50,8 @@ import static com.bmc.extensions.loggingjson.runtime.models.enums.LogRecordKey.T
  */
 public class StructuredLogUtils {
 
+    private static final Set<StackTraceDetail> FRAMES_DETAILS = EnumSet.of(ONE_LINER, CLASS_METHOD_LINE, FULL);
+
     private StructuredLogUtils() {}
 
     /**
@@ -54,6 +76,32 @@ public class StructuredLogUtils {
         }
     }
 
+    /**
+     * Adds the number of stack trace frames left out to the exception inner mapping, right after the stack trace, if a maximum number of
+     * frames is configured for a stack trace detail rendering frames.
+     *
+     * @param structuredLog the structured log instance; must not be null.
+     */
+    public static void addFramesOmittedIfLimited(final StructuredLog structuredLog) {
+
+        final ExceptionConfig exceptionConfig = structuredLog.getJsonConfig().exceptions();
+
+        if (exceptionConfig.exceptionMaxFrames() <= 0 || !FRAMES_DETAILS.contains(exceptionConfig.exceptionDetail())) {
+            return;
+        }
+
+        final Map<String, BiFunction<ExtLogRecord, StructuredLog, ?>> exceptionInnerMapping = new LinkedHashMap<>();
+
+        structuredLog.getExceptionInnerMapping().forEach((key, dataExtractingFunction) -> {
+            exceptionInnerMapping.put(key, dataExtractingFunction);
+            if (key.equals(EXCEPTION_STACK_TRACE.getValue())) {
+                exceptionInnerMapping.put(EXCEPTION_FRAMES_OMITTED.getValue(), StructuredExceptionUtils::printFramesOmitted);
+            }
+        });
+
+        structuredLog.setExceptionInnerMapping(exceptionInnerMapping);
+    }
+
     /**
      * Applies exclusions from the structured log configuration if any are defined.
      * <p>
@@ -71,6 +119,54 @@ public class StructuredLogUtils {
                      .ifPresent(excludedKeys -> excludedKeys.forEach(structuredLog.getCoreRecordMapping()::remove));
     }
 
+    /**
+     * Applies the MDC options from the structured log configuration if any are defined.
+     * <p>
+     * Included keys replace the MDC field mapping with one reading those keys only.<br>
+     * Promoted keys get their own top level mapping, inserted right after the MDC field, or at the end if the MDC field is excluded, and are
+     * removed from the MDC field.
+     * <p>
+     * This must run before key overrides are applied, so that promoted fields can be renamed.
+     *
+     * @param structuredLog the structured log instance containing the core record mapping and JSON configuration; must not be null.
+     *
+     * @throws IllegalArgumentException if a promoted key is the name of a top level field that is not excluded, as the promoted field would
+     *                                  take its place.
+     */
+    public static void applyMdcOptionsIfAny(final StructuredLog structuredLog) {
+
+        final MdcConfig    mdcConfig    = structuredLog.getJsonConfig().mdc();
+        final List<String> promotedKeys = mdcConfig.promotedKeys().orElseGet(List::of);
+
+        promotedKeys.stream().filter(structuredLog.getCoreRecordMapping()::containsKey).findFirst().ifPresent(promotedKey -> {
+            throw new IllegalArgumentException("The promoted MDC key [%s] is already a top level field, exclude that field to promote it"
+                                                       .formatted(promotedKey));
+        });
+
+        if (mdcConfig.includedKeys().isPresent()) {
+            final List<String> includedKeys = mdcConfig.includedKeys().get().stream().filter(key -> !promotedKeys.contains(key)).toList();
+            structuredLog.getCoreRecordMapping().replace(MDC.getValue(), includedMdc(includedKeys));
+        } else if (!promotedKeys.isEmpty()) {
+            structuredLog.getCoreRecordMapping().replace(MDC.getValue(), mdcWithout(promotedKeys));
+        }
+
+        if (promotedKeys.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Function<ExtLogRecord, ?>> coreRecordMapping = new LinkedHashMap<>();
+
+        structuredLog.getCoreRecordMapping().forEach((key, dataExtractingFunction) -> {
+            coreRecordMapping.put(key, dataExtractingFunction);
+            if (key.equals(MDC.getValue())) {
+                promotedKeys.forEach(promotedKey -> coreRecordMapping.put(promotedKey, promotedMdc(promotedKey)));
+            }
+        });
+        promotedKeys.forEach(promotedKey -> coreRecordMapping.putIfAbsent(promotedKey, promotedMdc(promotedKey)));
+
+        structuredLog.setCoreRecordMapping(coreRecordMapping);
+    }
+
     /**
      * Applies key overrides from the structured log's JSON configuration to the core record mapping if any are defined.
      * <p>
@@ -82,26 +178,131 @@ public class StructuredLogUtils {
      * @param structuredLog the structured log instance containing the core record mapping and JSON configuration;
      *                      must not be null. The keyOverrides map in the JSON configuration is used to determine
      *                      which keys should be overridden in the core record mapping.
+     *
+     * @throws IllegalArgumentException if a promoted MDC key is renamed after another top level field, which it would replace.
      */
     public static void applyOverridesIfAny(final StructuredLog structuredLog) {
 
         final Map<String, Function<ExtLogRecord, ?>> basicRecordMapping = structuredLog.getCoreRecordMapping();
+        final List<String>                           promotedKeys       = structuredLog.getJsonConfig().mdc().promotedKeys().orElseGet(List::of);
 
         structuredLog.getJsonConfig()
                      .keyOverrides()
                      .forEach((oldKeyName, newKeyName) -> {
+                         if (promotedKeys.contains(oldKeyName) && !oldKeyName.equals(newKeyName) && basicRecordMapping.containsKey(newKeyName)) {
+                             throw new IllegalArgumentException("The promoted MDC key [%s] cannot be renamed [%s], already a top level field"
+                                                                        .formatted(oldKeyName, newKeyName));
+                         }
                          if (basicRecordMapping.containsKey(oldKeyName)) {
                              basicRecordMapping.put(newKeyName, basicRecordMapping.remove(oldKeyName));
                          }
                      });
     }
 
+    /**
+     * Compiles the structured log template into ordered field writers if streaming fields is enabled in its configuration.
+     * <p>
+     * This must be the last step building a structured log, as the writers capture the final state of every mapping.
+     *
+     * @param structuredLog the fully built structured log instance; must not be null.
+     */
+    public static void compileFieldWritersIfEnabled(final StructuredLog structuredLog) {
+
+        if (structuredLog.getJsonConfig().streamFields()) {
+            structuredLog.setFieldWriters(compileFieldWriters(structuredLog));
+        }
+    }
+
+    /**
+     * Creates the throttle suppressing repeated exceptions if a throttle window is configured.
+     *
+     * @param structuredLog the structured log instance; must not be null.
+     */
+    public static void createExceptionThrottleIfEnabled(final StructuredLog structuredLog) {
+
+        final ExceptionConfig exceptionConfig = structuredLog.getJsonConfig().exceptions();
+
+        exceptionConfig.throttleWindow()
+                       .ifPresent(window -> structuredLog.setExceptionThrottle(new ExceptionThrottle(window, exceptionConfig.throttleMaxExceptions())));
+    }
+
+    /**
+     * Creates the counters and latency histogram of the records rendered if metrics are enabled.
+     *
+     * @param structuredLog the structured log instance; must not be null.
+     */
+    public static void createFormatterMetricsIfEnabled(final StructuredLog structuredLog) {
+
+        final MetricsConfig metricsConfig = structuredLog.getJsonConfig().metrics();
+
+        if (metricsConfig.enable()) {
+            structuredLog.setFormatterMetrics(new FormatterMetrics(metricsConfig.latencySampleRate(), metricsConfig.latencyWindow()));
+        }
+    }
+
+    /**
+     * Creates the rate limiter of records per logger category if any category is configured.
+     *
+     * @param structuredLog the structured log instance; must not be null.
+     */
+    public static void createRecordRateLimiterIfEnabled(final StructuredLog structuredLog) {
+
+        final RateLimitConfig rateLimitConfig = structuredLog.getJsonConfig().rateLimit();
+
+        if (!rateLimitConfig.categories().isEmpty()) {
+            structuredLog.setRecordRateLimiter(new RecordRateLimiter(rateLimitConfig.categories(), rateLimitConfig.summaryInterval()));
+        }
+    }
+
+    /**
+     * Creates the cache of rendered stack traces if its configured size is positive.
+     *
+     * @param structuredLog the structured log instance; must not be null.
+     */
+    public static void createStackTraceCacheIfEnabled(final StructuredLog structuredLog) {
+
+        final int stackTraceCacheSize = structuredLog.getJsonConfig().exceptions().stackTraceCacheSize();
+
+        if (stackTraceCacheSize > 0) {
+            structuredLog.setStackTraceCache(new StackTraceCache(stackTraceCacheSize));
+        }
+    }
+
+    /**
+     * Encodes every key the structured log template writes into a {@link SerializableString}, once.
+     * <p>
+     * The keys are taken from the final mappings, after exclusions, overrides and ECS names were applied, plus the additional fields and the
+     * keys wrapping details, additional fields and exceptions, and the keys added by the exception throttle.<br>
+     * Both the quoted UTF-8 bytes and the quoted chars are computed here, so that writing a field name on a record is a plain copy whatever
+     * the generator type.
+     *
+     * @param structuredLog the structured log instance, with its mappings and additional fields final; must not be null.
+     */
+    public static void encodeTemplateKeys(final StructuredLog structuredLog) {
+
+        final Map<String, SerializableString> encodedKeys = new HashMap<>();
+
+        Stream.of(structuredLog.getCoreRecordMapping(), structuredLog.getDetailsMapping(), structuredLog.getExceptionMapping(),
+                  structuredLog.getExceptionInnerMapping(), structuredLog.getExceptionStackTraceTopMapping(),
+                  structuredLog.getAdditionalFieldsTop(), structuredLog.getAdditionalFieldsWrapped())
+              .filter(Objects::nonNull)
+              .flatMap(mapping -> mapping.keySet().stream())
+              .forEach(key -> encodedKeys.computeIfAbsent(key, StructuredLogUtils::encodeKey));
+
+        Stream.of(ADDITIONAL_FIELDS, DETAILS, EXCEPTION, EXCEPTION_REFERENCE_ID, EXCEPTION_SUPPRESSED_OCCURRENCES)
+              .forEach(logRecordKey -> encodedKeys.computeIfAbsent(logRecordKey.getValue(), StructuredLogUtils::encodeKey));
+
+        structuredLog.setEncodedKeys(encodedKeys);
+    }
+
     /**
      * Configures the structured log instance timestamps formatting.
      * <p>
      * This method retrieves a timestamp formatting pattern from the structured log's configuration. If a
      * specific pattern is provided, it is used to create a {@link DateTimeFormatter}. Otherwise, a default
      * formatting pattern is applied.
+     * <p>
+     * The formatter is wrapped in a {@link CachedTimestampFormatter}, so that the timestamp is only fully formatted once per second.
      *
      * @param structuredLog the structured log instance to configure; must not be null. This instance is
      *                      updated with a timestamp formatting function in its core record mapping based
@@ -111,7 +312,7 @@ public class StructuredLogUtils {
 
         final String                         logInstantPattern       = structuredLog.getJsonConfig().logDateTimeFormat().orElse(null);
         final DateTimeFormatter              logFormatter            = getDateTimeFormatterWithZone(logInstantPattern, structuredLog.getJsonConfig());
-        final Function<ExtLogRecord, String> formatedInstantFunction = extLogRecord -> logFormatter.format(extLogRecord.getInstant());
+        final Function<ExtLogRecord, String> formatedInstantFunction = new CachedTimestampFormatter(logFormatter);
 
         structuredLog.getCoreRecordMapping().replace(TIMESTAMP.getValue(), formatedInstantFunction);
     }
@@ -156,4 +357,13 @@ public class StructuredLogUtils {
         excludedKeys.add(LOGGER_CLASS_NAME.getValue());
     }
 
+    private static SerializableString encodeKey(final String key) {
+
+        final SerializedString encodedKey = new SerializedString(key);
+        encodedKey.asQuotedUTF8();
+        encodedKey.asQuotedChars();
+
+        return encodedKey;
+    }
+
 }
@@ -0,0 +1,107 @@
+package com.bmc.extensions.loggingjson.runtime.utils;
+
+import java.util.Map;
+
+import com.bmc.extensions.loggingjson.runtime.core.JsonFormatter;
+import com.bmc.extensions.loggingjson.runtime.models.StructuredLog;
+import com.fasterxml.jackson.core.JsonFactory;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+import static com.bmc.extensions.loggingjson.runtime.models.KeyValue.of;
+import static com.bmc.extensions.loggingjson.runtime.models.StructuredLogArgument.logEntry;
+import static com.bmc.extensions.loggingjson.runtime.models.factory.FieldWriterFactory.compileFieldWriters;
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.MESSAGE_FORMAT;
+import static org.jboss.logmanager.ExtLogRecord.FormatStyle.PRINTF;
+import static org.jboss.logmanager.Level.ERROR;
+import static org.jboss.logmanager.Level.INFO;
+
+/**
+ * Utility class warming up a formatter with synthetic records before it formats any real one.
+ * <p>
+ * The first records formatted pay for class loading and initialization of every rendering path they go through, and records are formatted
+ * interpreted until the JIT compiles the hot path.<br>
+ * Paying that at startup keeps it out of the first requests served after every rollout.
+ * <p>
+ * Synthetic records are formatted and discarded; they are never published to any handler.<br>
+ * They are formatted through a copy of the template without metrics, rate limiter, exception throttle nor stack trace cache, so they are
+ * never counted, limited, throttled nor cached along with real records; they only take log sequence numbers.
+ *
+ * @author BareMetalCode
+ */
+public class WarmUpUtils {
+
+    private static final String    LOGGER_NAME       = "com.bmc.extensions.loggingjson.warmup";
+    private static final int       RECORD_SHAPES     = 6;
+    private static final Throwable WARM_UP_EXCEPTION = new IllegalStateException("warm up exception", new IllegalArgumentException("cause"));
+
+    private WarmUpUtils() {}
+
+    /**
+     * Formats the configured number of synthetic records with a formatter of the given template, if any.
+     *
+     * @param structuredLog the {@link StructuredLog} template to warm up, fully precomputed, holding the number of warm-up records.
+     * @param jsonFactory   the factory the template's records are rendered with.
+     */
+    public static void warmUpIfEnabled(final StructuredLog structuredLog, final JsonFactory jsonFactory) {
+
+        final int warmUpRecords = structuredLog.getJsonConfig().warmUpRecords();
+        if (warmUpRecords <= 0) {
+            return;
+        }
+
+        final JsonFormatter formatter = new JsonFormatter(statelessTemplate(structuredLog), jsonFactory);
+
+        for (int i = 0; i < warmUpRecords; i++) {
+            formatter.format(createRecord(i));
+        }
+    }
+
+    private static ExtLogRecord createRecord(final int index) {
+
+        final ExtLogRecord record = switch (index % RECORD_SHAPES) {
+            case 0 -> new ExtLogRecord(INFO, "warm up record %s %d", PRINTF, WarmUpUtils.class.getName());
+            case 1 -> new ExtLogRecord(INFO, "warm up record {0} {1}", MESSAGE_FORMAT, WarmUpUtils.class.getName());
+            default -> new ExtLogRecord(INFO, "warm up record", WarmUpUtils.class.getName());
+        };
+
+        record.setLoggerName(LOGGER_NAME);
+
+        switch (index % RECORD_SHAPES) {
+            case 0, 1 -> record.setParameters(new Object[]{"warm up", index});
+            case 2 -> record.setParameters(new Object[]{logEntry(of("warmUp", Map.of("record", index)))});
+            case 3 -> record.setMdc(Map.of("warmUp", "record"));
+            case 4 -> {
+                record.setLevel(ERROR);
+                record.setThrown(WARM_UP_EXCEPTION);
+            }
+            default -> { }
+        }
+
+        return record;
+    }
+
+    /**
+     * Copies the template without the state it shares across records; field writers capture that state, so they are compiled again.
+     */
+    private static StructuredLog statelessTemplate(final StructuredLog structuredLog) {
+
+        final StructuredLog template = new StructuredLog();
+        template.setAdditionalFieldsTop(structuredLog.getAdditionalFieldsTop());
+        template.setAdditionalFieldsWrapped(structuredLog.getAdditionalFieldsWrapped());
+        template.setCoreRecordMapping(structuredLog.getCoreRecordMapping());
+        template.setDetailsMapping(structuredLog.getDetailsMapping());
+        template.setEncodedKeys(structuredLog.getEncodedKeys());
+        template.setExceptionInnerMapping(structuredLog.getExceptionInnerMapping());
+        template.setExceptionMapping(structuredLog.getExceptionMapping());
+        template.setExceptionStackTraceTopMapping(structuredLog.getExceptionStackTraceTopMapping());
+        template.setJsonConfig(structuredLog.getJsonConfig());
+
+        if (structuredLog.getFieldWriters() != null) {
+            template.setFieldWriters(compileFieldWriters(template));
+        }
+
+        return template;
+    }
+
+}